@@ -36,6 +36,9 @@ publishing {
 
 dependencies {
     implementation("cloud.aster-lang:aster-lang-core:1.0.2")
+    // 词汇表流式解析、驻留复制与复合模式读取直接使用 Jackson，不依赖 core 传递引入
+    implementation("com.fasterxml.jackson.core:jackson-core:2.18.2")
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.18.2")
     testImplementation("org.junit.jupiter:junit-jupiter:6.0.0")
     testImplementation("org.assertj:assertj-core:3.27.3")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
@@ -43,8 +46,58 @@ dependencies {
     testRuntimeOnly("cloud.aster-lang:aster-lang-en:1.0.2")
 }
 
+// 中文变换器的扫描快速路径使用 Vector API（孵化模块），单独放在 vector 源码集：
+// javac 的 "using incubating module(s)" 警告无法用 -Xlint 关闭，只让 compileVectorJava 带 --add-modules，
+// main 与 test 的编译不再出现该警告。运行时未加载该模块时 CjkScanner 自动回退到标量实现。
+val vector by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+}
+
+sourceSets.test {
+    runtimeClasspath += vector.output
+}
+
+tasks.named<JavaCompile>("compileVectorJava") {
+    options.compilerArgs.addAll(listOf("--add-modules", "jdk.incubator.vector"))
+}
+
+tasks.jar {
+    from(vector.output)
+    manifest {
+        // PipelineFingerprint 以此区分语言包版本，使下游缓存随发布失效
+        attributes(
+            "Implementation-Title" to project.name,
+            "Implementation-Version" to project.version,
+        )
+    }
+}
+
 tasks.test {
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+    jvmArgs("--add-modules", "jdk.incubator.vector")
+}
+
+/**
+ * benchmark:
+ *   运行标记为 @Tag("benchmark") 的性能基准（不属于 check）。结果输出到标准输出，
+ *   例如 ./gradlew benchmark --tests '*PunctuationBenchmark'
+ */
+tasks.register<Test>("benchmark") {
+    group = "verification"
+    description = "Run @Tag(\"benchmark\") performance benchmarks"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    jvmArgs("--add-modules", "jdk.incubator.vector")
+    maxHeapSize = "2g"
+    testLogging {
+        showStandardStreams = true
+    }
+    outputs.upToDateWhen { false }
 }
 
 /**
@@ -0,0 +1,149 @@
+package aster.lang.zh;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.canonicalizer.SyntaxTransformer;
+import aster.core.lexicon.LexiconRegistry;
+import aster.lang.zh.shadow.ShadowVerifier;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 规范形式指纹：只计算规范化结果的摘要，不保留结果。
+ * <p>
+ * 规则去重与版本管理只关心规范形式的哈希。常规做法 {@code digest(canonicalize(s).getBytes(UTF_8))}
+ * 会在规范化结果之外再复制一份完整的 UTF-8 {@code byte[]}；这里把结果按 UTF-8 分块编码后
+ * 直接送入 {@link MessageDigest}，只使用一个固定大小的缓冲区，结果用完即丢弃。
+ * 得到的摘要与常规做法逐字节相同（未配对的代理字符与 {@link String#getBytes} 一样编码为 {@code '?'}）。
+ * <p>
+ * 两种模式：
+ * <ul>
+ *   <li>{@link #zhCn()}：完整规范形式。core 的 {@link Canonicalizer}（前置归一化与关键词翻译）只提供
+ *       {@code String} 接口，规范化结果这一份 {@code String} 无法省去，省去的只是 UTF-8 副本。</li>
+ *   <li>{@link #zhCnStage()}：只覆盖中文变换器阶段（7 个 {@code chinese-*} 变换器按 {@code zh-CN.json}
+ *       中的顺序串联），不构建 {@link Canonicalizer}，也不经过 core 的前置归一化与关键词翻译。
+ *       摘要等于对该阶段输出整体哈希，与 {@link #zhCn()} 的结果不可互换；
+ *       变换器接口返回 {@code String}，阶段之间的中间结果仍然存在。</li>
+ * </ul>
+ * 实例不可变，可在多线程间共享。
+ */
+public final class CanonicalFingerprint {
+
+    /** 默认摘要算法。 */
+    public static final String SHA_256 = "SHA-256";
+
+    private static final int CHUNK_BYTES = 8192;
+
+    private final UnaryOperator<String> pipeline;
+    private final String algorithm;
+
+    private CanonicalFingerprint(UnaryOperator<String> pipeline, String algorithm) {
+        this.pipeline = pipeline;
+        this.algorithm = algorithm;
+    }
+
+    /** zh-CN 规范形式的 SHA-256 指纹，规范化器进程内只构建一次。 */
+    public static CanonicalFingerprint zhCn() {
+        return Holder.ZH_CN;
+    }
+
+    /**
+     * zh-CN 中文变换器阶段输出的 SHA-256 指纹，不经过 core 的前置归一化与关键词翻译。
+     * <p>
+     * 适合在变换器层面去重或比较版本（例如校验两份源码在中文变换后是否相同）；需要与
+     * {@code canonicalize} 结果一致的指纹时使用 {@link #zhCn()}。
+     */
+    public static CanonicalFingerprint zhCnStage() {
+        return Holder.ZH_CN_STAGE;
+    }
+
+    /**
+     * 使用自定义流水线与摘要算法构建。
+     *
+     * @param pipeline  规范化函数，必须线程安全
+     * @param algorithm {@link MessageDigest} 算法名，如 {@code SHA-256}
+     */
+    public static CanonicalFingerprint of(UnaryOperator<String> pipeline, String algorithm) {
+        newDigest(algorithm);
+        return new CanonicalFingerprint(pipeline, algorithm);
+    }
+
+    /** 规范形式 UTF-8 字节的摘要。 */
+    public byte[] digest(String source) {
+        MessageDigest digest = newDigest(algorithm);
+        updateUtf8(digest, pipeline.apply(source));
+        return digest.digest();
+    }
+
+    /** 规范形式 UTF-8 字节的摘要（十六进制小写）。 */
+    public String hex(String source) {
+        return HexFormat.of().formatHex(digest(source));
+    }
+
+    /**
+     * 把 {@code text} 的 UTF-8 编码分块写入摘要，等价于 {@code digest.update(text.toString().getBytes(UTF_8))}，
+     * 但不分配与文本等长的字节数组。
+     */
+    public static void updateUtf8(MessageDigest digest, CharSequence text) {
+        int n = text.length();
+        byte[] buf = new byte[n >= CHUNK_BYTES / 3 ? CHUNK_BYTES : Math.max(16, n * 3)];
+        int limit = buf.length - 4;
+        int pos = 0;
+        for (int i = 0; i < n; i++) {
+            if (pos > limit) {
+                digest.update(buf, 0, pos);
+                pos = 0;
+            }
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                buf[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                char low;
+                if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(low = text.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, low);
+                    buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+                    i++;
+                } else {
+                    // 与 String.getBytes(UTF_8) 的替换行为一致
+                    buf[pos++] = (byte) '?';
+                }
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        digest.update(buf, 0, pos);
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unsupported digest algorithm: " + algorithm, e);
+        }
+    }
+
+    private static final class Holder {
+        static final CanonicalFingerprint ZH_CN = new CanonicalFingerprint(
+                new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN"))::canonicalize, SHA_256);
+        static final CanonicalFingerprint ZH_CN_STAGE = new CanonicalFingerprint(stage(), SHA_256);
+
+        private static UnaryOperator<String> stage() {
+            Map<String, Supplier<SyntaxTransformer>> registered = new ZhCnPlugin().getTransformers();
+            return ShadowVerifier.transformerChain(ZhCnPlugin.CHINESE_TRANSFORMERS.stream()
+                    .map(name -> registered.get(name).get())
+                    .toArray(SyntaxTransformer[]::new));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package aster.lang.zh;
+
+import aster.core.canonicalizer.Canonicalizer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * zh-CN 规范化流水线的版本指纹。
+ * <p>
+ * 指纹为以下内容的 SHA-256：
+ * <ul>
+ *   <li>{@code lexicons/zh-CN.json} 与 classpath 上 en-US 目标词法表（{@link #TARGET_LEXICONS}）的原始字节</li>
+ *   <li>已注册变换器名称（排序后）与 {@link #TRANSFORMER_REVISION}</li>
+ *   <li>本语言包与 aster-lang-core 的版本：取 jar 清单的 {@code Implementation-Version}，
+ *       清单中没有时取 jar 文件本身的 SHA-256，从目录加载（IDE、测试）时记为 {@code unknown}</li>
+ * </ul>
+ * 任何一项变化都意味着同一源码的规范化结果可能不同，依赖规范化结果的增量构建清单和持久缓存应以此作为失效条件。
+ */
+public final class PipelineFingerprint {
+
+    /**
+     * 变换器行为修订号。修改任何变换器的输出行为时递增，使下游缓存失效。
+     * <ul>
+     *   <li>1：初始版本</li>
+     *   <li>2：无空格所有格链整条展开（{@code 申请人的信用报告的评分} → {@code 申请人.信用报告.评分}）</li>
+     * </ul>
+     */
+    public static final int TRANSFORMER_REVISION = 2;
+
+    /** 关键词翻译的 en-US 目标词法表：core 内置的一份，以及 aster-lang-en 提供的一份（存在时）。 */
+    static final List<String> TARGET_LEXICONS = List.of("builtin/en-US.json", "lexicons/en-US.json");
+
+    private PipelineFingerprint() {}
+
+    /** 当前 zh-CN 流水线的指纹（十六进制），进程内只计算一次。 */
+    public static String zhCn() {
+        return Holder.ZH_CN;
+    }
+
+    private static final class Holder {
+        static final String ZH_CN = compute(TRANSFORMER_REVISION);
+    }
+
+    /** 以指定变换器修订号计算 zh-CN 流水线指纹。 */
+    static String compute(int transformerRevision) {
+        return compute(transformerRevision, componentVersion(Canonicalizer.class));
+    }
+
+    /** 以指定变换器修订号与 core 版本计算 zh-CN 流水线指纹。 */
+    static String compute(int transformerRevision, String coreVersion) {
+        MessageDigest digest = sha256();
+        ClassLoader loader = ZhCnPlugin.class.getClassLoader();
+        field(digest, ZhCnResources.LEXICON, resource(loader, ZhCnResources.LEXICON, true));
+        for (String lexicon : TARGET_LEXICONS) {
+            field(digest, lexicon, resource(loader, lexicon, false));
+        }
+        for (String name : new TreeSet<>(new ZhCnPlugin().getTransformers().keySet())) {
+            field(digest, "transformer", name.getBytes(StandardCharsets.UTF_8));
+        }
+        field(digest, "revision", Integer.toString(transformerRevision).getBytes(StandardCharsets.UTF_8));
+        field(digest, "aster-lang-zh", componentVersion(ZhCnPlugin.class).getBytes(StandardCharsets.UTF_8));
+        field(digest, "aster-lang-core", coreVersion.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * {@code type} 所在构件的版本：清单中的 {@code Implementation-Version}；没有时为 jar 文件的
+     * {@code sha256:} 摘要；不是从 jar 加载时为 {@code unknown}。
+     */
+    static String componentVersion(Class<?> type) {
+        String version = type.getPackage() == null ? null : type.getPackage().getImplementationVersion();
+        if (version != null) {
+            return version;
+        }
+        CodeSource source = type.getProtectionDomain().getCodeSource();
+        if (source == null || source.getLocation() == null) {
+            return "unknown";
+        }
+        Path jar;
+        try {
+            jar = Path.of(source.getLocation().toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return "unknown";
+        }
+        if (!Files.isRegularFile(jar)) {
+            return "unknown";
+        }
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(jar), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to hash " + jar, e);
+        }
+        return "sha256:" + HexFormat.of().formatHex(digest.digest());
+    }
+
+    /** 写入一个带名称的字段；名称与内容之后各跟一个 0 字节，避免相邻字段拼接产生歧义。 */
+    private static void field(MessageDigest digest, String name, byte[] value) {
+        digest.update(name.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(value);
+        digest.update((byte) 0);
+    }
+
+    /** 资源的原始字节；可选资源不存在时为空数组。 */
+    private static byte[] resource(ClassLoader loader, String path, boolean required) {
+        try (var is = loader.getResourceAsStream(path)) {
+            if (is == null) {
+                if (required) {
+                    throw new IllegalStateException("Resource not found: " + path);
+                }
+                return new byte[0];
+            }
+            return is.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load resource: " + path, e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
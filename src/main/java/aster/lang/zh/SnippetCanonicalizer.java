@@ -0,0 +1,171 @@
+package aster.lang.zh;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.lexicon.LexiconRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * 面向单行规则片段的规范化入口。
+ * <p>
+ * 数据库中保存的条件（如 {@code 信用评分 大于等于 700 并且 年龄 不足 60}）通常逐条规范化。本类提供：
+ * <ul>
+ *   <li>整个进程共用一个预先构建的 {@link Canonicalizer}（其本身线程安全，见 {@code ConcurrentCanonicalizationTest}），
+ *       省去调用方每次创建规范化器的开销</li>
+ *   <li>批量接口在批内去重，每个不同片段只规范化一次</li>
+ *   <li>可选的结果缓存（{@link #zhCn(int)}、{@link #of}）：同一条件重复出现时一次哈希查找即可返回</li>
+ * </ul>
+ * 单次规范化的开销由流水线决定：中文变换器在片段不含各自的触发词（如 {@code 等于}、{@code 令}、{@code 的}）时
+ * 直接返回输入，不做字符串分段；运算符变换的正则在类加载时编译一次。除此之外，互不相同的片段与直接调用共享的
+ * {@link Canonicalizer} 耗时相同，开启缓存时每次未命中还要多付一次查找与插入（见 {@code SnippetCanonicalizationBenchmark}）。
+ * 只有条件集合较小、重复率高时才值得开启缓存。
+ * <p>
+ * 缓存由实例持有、所有线程共享，总条目数以构建时给定的容量为上限（分段加锁的 LRU，每段独立淘汰），
+ * 不随线程数增长，也不会在线程池线程上长期滞留；虚拟线程同样可以命中。
+ * 只缓存不超过 {@link #MAX_CACHED_LENGTH} 个字符的片段，整文件输入照常规范化但不占用缓存。
+ * <p>
+ * 实例不可变，可在多线程间共享。
+ */
+public final class SnippetCanonicalizer {
+
+    /** 超过该长度的输入不进入缓存。 */
+    public static final int MAX_CACHED_LENGTH = 256;
+
+    /** 每段至少容纳的条目数；容量较小时只分一段，淘汰顺序即全局 LRU。 */
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+    private static final int MAX_SEGMENTS = 16;
+
+    private final UnaryOperator<String> pipeline;
+    /** 分段缓存，长度为 2 的幂；不缓存时为空数组。 */
+    private final Lru[] segments;
+
+    private SnippetCanonicalizer(UnaryOperator<String> pipeline, int cacheSize) {
+        this.pipeline = pipeline;
+        int n = 1;
+        while (n * 2 <= MAX_SEGMENTS && cacheSize / (n * 2) >= MIN_SEGMENT_CAPACITY) {
+            n *= 2;
+        }
+        this.segments = new Lru[cacheSize == 0 ? 0 : n];
+        for (int i = 0; i < segments.length; i++) {
+            // 前 cacheSize % n 段多分一个，总容量恰好为 cacheSize
+            segments[i] = new Lru(cacheSize / n + (i < cacheSize % n ? 1 : 0));
+        }
+    }
+
+    /** zh-CN 规范化的共享片段入口（不缓存结果），进程内只构建一次。 */
+    public static SnippetCanonicalizer zhCn() {
+        return Holder.ZH_CN;
+    }
+
+    /**
+     * 基于共享 zh-CN 规范化器、带结果缓存的新实例。缓存随实例释放，调用方应复用返回的实例。
+     *
+     * @param cacheSize 缓存的片段总数上限，0 表示不缓存
+     */
+    public static SnippetCanonicalizer zhCn(int cacheSize) {
+        return of(Holder.CANONICALIZER::canonicalize, cacheSize);
+    }
+
+    /**
+     * 使用自定义流水线构建。
+     *
+     * @param pipeline  规范化函数，必须线程安全
+     * @param cacheSize 缓存的片段总数上限，0 表示不缓存
+     */
+    public static SnippetCanonicalizer of(UnaryOperator<String> pipeline, int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cacheSize must be >= 0: " + cacheSize);
+        }
+        return new SnippetCanonicalizer(pipeline, cacheSize);
+    }
+
+    /**
+     * 规范化单个片段，结果与 {@link Canonicalizer#canonicalize(String)} 一致。
+     */
+    public String canonicalize(String snippet) {
+        if (segments.length == 0 || snippet.length() > MAX_CACHED_LENGTH) {
+            return pipeline.apply(snippet);
+        }
+        Lru segment = segmentFor(snippet);
+        String result;
+        synchronized (segment) {
+            result = segment.get(snippet);
+        }
+        if (result == null) {
+            // 规范化在锁外进行；并发未命中同一片段时各算一次，结果相同
+            result = pipeline.apply(snippet);
+            synchronized (segment) {
+                segment.put(snippet, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量规范化，结果与逐条调用 {@link #canonicalize(String)} 一致、顺序与输入相同。
+     * 批内重复的片段只规范化一次。
+     */
+    public List<String> canonicalizeAll(List<String> snippets) {
+        List<String> results = new ArrayList<>(snippets.size());
+        Map<String, String> seen = new HashMap<>();
+        for (String snippet : snippets) {
+            String result = seen.get(snippet);
+            if (result == null) {
+                result = canonicalize(snippet);
+                seen.put(snippet, result);
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    /** 缓存中的片段数。 */
+    public int cachedCount() {
+        int total = 0;
+        for (Lru segment : segments) {
+            synchronized (segment) {
+                total += segment.size();
+            }
+        }
+        return total;
+    }
+
+    /** 缓存容量（片段总数上限），不缓存时为 0。 */
+    public int cacheCapacity() {
+        int total = 0;
+        for (Lru segment : segments) {
+            total += segment.capacity;
+        }
+        return total;
+    }
+
+    private Lru segmentFor(String snippet) {
+        int h = snippet.hashCode();
+        return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+    }
+
+    /** 按访问顺序淘汰的定长结果表，由调用方以自身为锁同步访问。 */
+    private static final class Lru extends LinkedHashMap<String, String> {
+        private final int capacity;
+
+        Lru(int capacity) {
+            super(Math.max(16, capacity * 4 / 3 + 1), 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private static final class Holder {
+        static final Canonicalizer CANONICALIZER = new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN"));
+        static final SnippetCanonicalizer ZH_CN = new SnippetCanonicalizer(CANONICALIZER::canonicalize, 0);
+    }
+}
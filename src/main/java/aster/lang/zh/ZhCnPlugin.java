@@ -3,17 +3,18 @@ package aster.lang.zh;
 import aster.core.canonicalizer.SyntaxTransformer;
 import aster.core.identifier.DomainVocabulary;
 import aster.core.identifier.VocabularyPlugin;
-import aster.core.identifier.VocabularyPluginSupport;
-import aster.core.lexicon.DynamicLexicon;
 import aster.core.lexicon.Lexicon;
 import aster.core.lexicon.LexiconPlugin;
 import aster.lang.zh.transformers.*;
+import aster.lang.zh.vocabulary.VocabularyReloader;
 
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 /**
@@ -26,9 +27,20 @@ import java.util.function.Supplier;
  * 因此 JSON 中引用的变换器名称可以被 {@link aster.core.canonicalizer.TransformerRegistry} 正确解析。
  * <p>
  * 同时实现 {@link VocabularyPlugin}，提供中文领域词汇表（汽车保险、贷款金融）。
+ * 词法表与词汇表只解析一次，所有插件实例共享同一批不可变实例，见 {@link ZhCnResources}。
+ * 需要在运行期更新词汇表时，可通过 {@link #watchVocabularies(Path)} 启用热更新模式，此后
+ * {@link #createVocabulary()} 与 {@link #getVocabularies()} 返回该目录当前快照中的词汇表。
+ * 部署后可调用 {@link #warmUp()} 在后台预热流水线，就绪探针等待其完成。
  */
 public final class ZhCnPlugin implements LexiconPlugin, VocabularyPlugin {
 
+    /** 热更新目录中与内置词汇表同名的文件（去掉 {@code .json}）覆盖内置版本。 */
+    static final String INSURANCE_AUTO = "insurance-auto-zh-CN";
+    static final String FINANCE_LOAN = "finance-loan-zh-CN";
+
+    /** 最近一次 {@link #watchVocabularies(Path)} 启动且尚未关闭的监听器。 */
+    private static final AtomicReference<VocabularyReloader<DomainVocabulary>> ACTIVE = new AtomicReference<>();
+
     @Override
     public java.util.Set<String> providedLexiconIds() {
         return java.util.Set.of("zh-CN");
@@ -36,10 +48,17 @@ public final class ZhCnPlugin implements LexiconPlugin, VocabularyPlugin {
 
     @Override
     public Lexicon createLexicon() {
-        String json = loadResource("lexicons/zh-CN.json");
-        return DynamicLexicon.fromJsonString(json);
+        return ZhCnResources.lexicon();
     }
 
+    /**
+     * 中文变换器在流水线中的执行顺序，即 {@code zh-CN.json} 前置、后置变换器列表中 {@code chinese-*} 项的顺序。
+     * 两段之间是 core 的关键词翻译等步骤。
+     */
+    public static final List<String> CHINESE_TRANSFORMERS = List.of(
+            "chinese-punctuation", "chinese-possessive", "chinese-operator", "chinese-let-be",
+            "chinese-function-syntax", "chinese-set-to", "chinese-result-is");
+
     @Override
     public Map<String, Supplier<SyntaxTransformer>> getTransformers() {
         return Map.of(
@@ -53,16 +72,34 @@ public final class ZhCnPlugin implements LexiconPlugin, VocabularyPlugin {
         );
     }
 
+    /**
+     * 汽车保险词汇表。热更新模式下取当前快照中的 {@value #INSURANCE_AUTO}，目录中没有该文件时回退到内置版本。
+     */
     @Override
     public DomainVocabulary createVocabulary() {
-        return VocabularyPluginSupport.loadVocabulary(getClass(), "vocabularies/insurance-auto-zh-CN.json");
+        Map<String, DomainVocabulary> watched = watched();
+        return watched.getOrDefault(INSURANCE_AUTO, ZhCnResources.insuranceAuto());
     }
 
+    /**
+     * 贷款金融词汇表，热更新模式下还包括目录中的其他词汇表（按文件名排序）。
+     * 所有结果取自同一个快照。
+     */
     @Override
     public List<DomainVocabulary> getVocabularies() {
-        return List.of(
-            VocabularyPluginSupport.loadVocabulary(getClass(), "vocabularies/finance-loan-zh-CN.json")
-        );
+        Map<String, DomainVocabulary> watched = new TreeMap<>(watched());
+        watched.remove(INSURANCE_AUTO);
+        DomainVocabulary financeLoan = watched.remove(FINANCE_LOAN);
+        List<DomainVocabulary> vocabularies = new ArrayList<>(watched.size() + 1);
+        vocabularies.add(financeLoan != null ? financeLoan : ZhCnResources.financeLoan());
+        vocabularies.addAll(watched.values());
+        return List.copyOf(vocabularies);
+    }
+
+    /** 活动监听器的当前快照；未启用热更新或监听器已关闭时为空。 */
+    private static Map<String, DomainVocabulary> watched() {
+        VocabularyReloader<DomainVocabulary> reloader = ACTIVE.get();
+        return reloader == null || reloader.isClosed() ? Map.of() : reloader.current().vocabularies();
     }
 
     @Override
@@ -76,14 +113,31 @@ public final class ZhCnPlugin implements LexiconPlugin, VocabularyPlugin {
         );
     }
 
-    private String loadResource(String path) {
-        try (var is = getClass().getClassLoader().getResourceAsStream(path)) {
-            if (is == null) {
-                throw new IllegalStateException("Resource not found: " + path);
-            }
-            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
-        } catch (IOException e) {
-            throw new UncheckedIOException("Failed to load resource: " + path, e);
-        }
+    /**
+     * 可选的热更新模式：监听外部词汇表目录，文件变化后在后台重建并原子发布新快照。
+     * <p>
+     * 返回的监听器成为活动监听器（替换之前的），{@link #createVocabulary()} 与 {@link #getVocabularies()}
+     * 从它的当前快照取词汇表。core 在构建标识符翻译时向插件取词汇表，缓存了结果的调用方应在
+     * {@link VocabularyReloader#onReload} 中重新获取。调用方负责在不再需要时
+     * {@link VocabularyReloader#close() 关闭}，关闭后回退到内置词汇表。
+     */
+    public static VocabularyReloader<DomainVocabulary> watchVocabularies(Path directory) {
+        VocabularyReloader<DomainVocabulary> reloader = VocabularyReloader.domainVocabularies(directory).start();
+        ACTIVE.set(reloader);
+        return reloader;
+    }
+
+    /**
+     * 在后台线程上预热 zh-CN 流水线，直到 JIT 编译稳定。整个进程只预热一次，重复调用返回同一个 future。
+     *
+     * @see ZhCnWarmup
+     */
+    public static CompletableFuture<ZhCnWarmup.Report> warmUp() {
+        return ZhCnWarmup.start();
+    }
+
+    /** {@link #warmUp()} 是否已完成且 JIT 编译已稳定，供就绪探针轮询；超时未稳定时为 false。 */
+    public static boolean isWarm() {
+        return ZhCnWarmup.isWarm();
     }
 }
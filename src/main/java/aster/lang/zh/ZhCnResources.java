@@ -0,0 +1,301 @@
+package aster.lang.zh;
+
+import aster.core.identifier.DomainVocabulary;
+import aster.core.identifier.VocabularyPluginSupport;
+import aster.core.lexicon.DynamicLexicon;
+import aster.core.lexicon.Lexicon;
+import aster.lang.zh.token.CompoundPatternMachine;
+import aster.lang.zh.vocabulary.BundledVocabularies;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.KeyDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * zh-CN 语言包资源的共享不可变实例。
+ * <p>
+ * {@link ZhCnPlugin} 的 {@code createLexicon()}、{@code createVocabulary()}、{@code getVocabularies()}
+ * 都从这里取实例（启用热更新后，词汇表优先取自 {@link ZhCnPlugin#watchVocabularies} 的当前快照）：
+ * 每个资源在首次访问时解析一次，之后所有插件实例共享。
+ * <p>
+ * 词汇表经 core 的 {@link VocabularyPluginSupport} 加载，随后做一次驻留复制：对象经 Jackson 的
+ * 令牌缓冲区转换为新的 {@link DomainVocabulary}，其中所有字符串（含映射键）都经 {@link String#intern()}
+ * 驻留，原对象随即可被回收。因此不同词汇表之间、以及与源码常量中重复出现的中文术语只保留一份。
+ * 驻留表由 JVM 全局持有，每个租户一个类加载器的部署中，各租户加载的词汇表也共享同一批字符串。
+ * 词法表由 core 的 {@link DynamicLexicon} 解析，只能做到实例级共享。
+ * 复合模式状态机（{@link #compoundPatterns()}）只用于直接词法化，不参与规范化。
+ * <p>
+ * {@link #footprintReport()} 另行做一次不驻留的加载作为对照，遍历两组词汇表对象，统计各自实际持有的字符串实例。
+ */
+public final class ZhCnResources {
+
+    public static final String LEXICON = "lexicons/zh-CN.json";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /** 绑定时驻留全部字符串值与映射键。 */
+    private static final ObjectMapper INTERNING_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .registerModule(new SimpleModule("zh-CN-intern")
+                    .addDeserializer(String.class, new InterningStringDeserializer())
+                    .addKeyDeserializer(String.class, new KeyDeserializer() {
+                        @Override
+                        public Object deserializeKey(String key, DeserializationContext ctxt) {
+                            return key.intern();
+                        }
+                    }));
+
+    /** 资源实际被解析的次数，用于验证共享是否生效。 */
+    private static final AtomicInteger PARSES = new AtomicInteger();
+
+    private ZhCnResources() {}
+
+    /** 共享的 zh-CN 词法表。 */
+    public static Lexicon lexicon() {
+        return LexiconHolder.LEXICON;
+    }
+
+    /**
+     * zh-CN 词法表 {@code canonicalization.compoundPatterns} 编译出的状态机。
+     * <p>
+     * 资源字节只读取一次，但会解析两遍：core 的 {@link DynamicLexicon} 不暴露复合模式，这里另用 Jackson
+     * 读取同一份字节中的 {@code compoundPatterns}。状态机只供 {@link aster.lang.zh.token.ZhTokenizer}
+     * 使用；规范化流水线不读取它，{@code chinese-let-be} 等变换器仍按各自的正则重写。
+     */
+    public static CompoundPatternMachine compoundPatterns() {
+        return LexiconHolder.COMPOUND_PATTERNS;
+    }
+
+    /** 共享的汽车保险词汇表。 */
+    public static DomainVocabulary insuranceAuto() {
+        return VocabularyHolder.INSURANCE_AUTO;
+    }
+
+    /** 共享的贷款金融词汇表。 */
+    public static DomainVocabulary financeLoan() {
+        return VocabularyHolder.FINANCE_LOAN;
+    }
+
+    /** 进程内共享资源的解析次数（词法表 + 词汇表，每个至多一次；不含 {@link #footprintReport()} 的对照加载）。 */
+    static int parseCount() {
+        return PARSES.get();
+    }
+
+    private static final class LexiconHolder {
+        static final Lexicon LEXICON;
+        /** 与词法表读取同一份字节，单独解析一遍后编译。 */
+        static final CompoundPatternMachine COMPOUND_PATTERNS;
+
+        static {
+            byte[] source = readResource(ZhCnResources.LEXICON);
+            LEXICON = DynamicLexicon.fromJsonString(new String(source, StandardCharsets.UTF_8));
+            COMPOUND_PATTERNS = compileCompoundPatterns(source);
+            PARSES.incrementAndGet();
+        }
+
+        private static CompoundPatternMachine compileCompoundPatterns(byte[] source) {
+            try {
+                return CompoundPatternMachine.fromJson(
+                        MAPPER.readTree(source).path("canonicalization").path("compoundPatterns"));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load compound patterns: " + ZhCnResources.LEXICON, e);
+            }
+        }
+    }
+
+    private static final class VocabularyHolder {
+        static final DomainVocabulary INSURANCE_AUTO = loadVocabulary(BundledVocabularies.INSURANCE_AUTO);
+        static final DomainVocabulary FINANCE_LOAN = loadVocabulary(BundledVocabularies.FINANCE_LOAN);
+
+        private static DomainVocabulary loadVocabulary(String path) {
+            PARSES.incrementAndGet();
+            DomainVocabulary loaded = VocabularyPluginSupport.loadVocabulary(ZhCnPlugin.class, path);
+            if (loaded == null) {
+                throw new IllegalStateException("Vocabulary not found: " + path);
+            }
+            return interned(loaded);
+        }
+    }
+
+    /**
+     * 返回 {@code vocabulary} 的副本，其中所有字符串都已驻留。
+     * 转换经由令牌缓冲区完成，不产生 JSON 文本或树。
+     */
+    static DomainVocabulary interned(DomainVocabulary vocabulary) {
+        return INTERNING_MAPPER.convertValue(vocabulary, DomainVocabulary.class);
+    }
+
+    private static final class InterningStringDeserializer extends StdScalarDeserializer<String> {
+
+        InterningStringDeserializer() {
+            super(String.class);
+        }
+
+        @Override
+        public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String s = StringDeserializer.instance.deserialize(p, ctxt);
+            return s == null ? null : s.intern();
+        }
+    }
+
+    /**
+     * 字符串占用统计：同一批内置词汇表不驻留加载与驻留加载各自实际持有的字符串实例。
+     *
+     * @param stringValues      可达的字符串引用总数（两种加载相同）
+     * @param plainInstances    不驻留加载中不同的字符串实例数（按对象身份）
+     * @param internedInstances 驻留加载（即共享实例）中不同的字符串实例数
+     * @param sharedStrings     驻留加载中被两个及以上词汇表引用的字符串实例数
+     * @param plainBytes        不驻留加载持有的字符串实例的估算字节数
+     * @param internedBytes     驻留加载持有的字符串实例的估算字节数
+     * @param perSource         资源路径 → 该词汇表中的字符串引用数
+     */
+    public record FootprintReport(int stringValues, int plainInstances, int internedInstances, int sharedStrings,
+                                  long plainBytes, long internedBytes, Map<String, Integer> perSource) {
+
+        public long savedBytes() {
+            return plainBytes - internedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "zh-CN vocabularies: %d string refs, %d -> %d instances (%d shared across vocabularies), %d B -> %d B (saved %d B)"
+                    .formatted(stringValues, plainInstances, internedInstances, sharedStrings,
+                            plainBytes, internedBytes, savedBytes());
+        }
+    }
+
+    /**
+     * 对照统计字符串占用：经 core 的 {@link VocabularyPluginSupport} 重新加载一遍内置词汇表（不驻留，
+     * 用完即弃），与共享的驻留实例比较两者实际持有的字符串实例。字节数按 {@code String} 布局估算。
+     */
+    public static FootprintReport footprintReport() {
+        Map<String, DomainVocabulary> interned = new LinkedHashMap<>();
+        interned.put(BundledVocabularies.INSURANCE_AUTO, insuranceAuto());
+        interned.put(BundledVocabularies.FINANCE_LOAN, financeLoan());
+
+        Map<String, Set<String>> owners = new IdentityHashMap<>();
+        Set<String> plain = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<String, Integer> perSource = new LinkedHashMap<>();
+        int total = 0;
+        for (Map.Entry<String, DomainVocabulary> e : interned.entrySet()) {
+            List<String> strings = strings(e.getValue());
+            for (String s : strings) {
+                owners.computeIfAbsent(s, k -> new HashSet<>()).add(e.getKey());
+            }
+            plain.addAll(strings(VocabularyPluginSupport.loadVocabulary(ZhCnPlugin.class, e.getKey())));
+            perSource.put(e.getKey(), strings.size());
+            total += strings.size();
+        }
+        int shared = 0;
+        for (Set<String> sources : owners.values()) {
+            if (sources.size() > 1) {
+                shared++;
+            }
+        }
+        return new FootprintReport(total, plain.size(), owners.size(), shared,
+                bytes(plain), bytes(owners.keySet()), Map.copyOf(perSource));
+    }
+
+    private static long bytes(Set<String> instances) {
+        long bytes = 0;
+        for (String s : instances) {
+            bytes += stringBytes(s);
+        }
+        return bytes;
+    }
+
+    /**
+     * 从 {@code root} 可达的全部字符串引用（按遍历顺序，同一实例被多处引用时出现多次）。
+     * 遍历记录组件、集合、映射、数组与非 JDK 类的实例字段。
+     */
+    static List<String> strings(Object root) {
+        List<String> out = new ArrayList<>();
+        collect(root, Collections.newSetFromMap(new IdentityHashMap<>()), out);
+        return out;
+    }
+
+    private static void collect(Object o, Set<Object> seen, List<String> out) {
+        if (o == null) {
+            return;
+        }
+        if (o instanceof String s) {
+            out.add(s);
+            return;
+        }
+        if (o instanceof Number || o instanceof Boolean || o instanceof Character
+                || o instanceof Enum<?> || o instanceof Class<?> || !seen.add(o)) {
+            return;
+        }
+        if (o instanceof Map<?, ?> map) {
+            map.forEach((k, v) -> {
+                collect(k, seen, out);
+                collect(v, seen, out);
+            });
+        } else if (o instanceof Iterable<?> iterable) {
+            iterable.forEach(child -> collect(child, seen, out));
+        } else if (o instanceof Object[] array) {
+            for (Object child : array) {
+                collect(child, seen, out);
+            }
+        } else if (o.getClass().isRecord()) {
+            for (RecordComponent c : o.getClass().getRecordComponents()) {
+                try {
+                    collect(c.getAccessor().invoke(o), seen, out);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot read " + c, e);
+                }
+            }
+        } else if (!o.getClass().getName().startsWith("java.")) {
+            for (Class<?> t = o.getClass(); t != null && t != Object.class; t = t.getSuperclass()) {
+                for (Field f : t.getDeclaredFields()) {
+                    if (!Modifier.isStatic(f.getModifiers()) && !f.getType().isPrimitive() && f.trySetAccessible()) {
+                        try {
+                            collect(f.get(o), seen, out);
+                        } catch (IllegalAccessException e) {
+                            throw new IllegalStateException("Cannot read " + f, e);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** 估算 String 占用：对象头 + 字段 24 字节，byte[] 头 16 字节，LATIN1 每字符 1 字节，否则 2 字节。 */
+    private static long stringBytes(String s) {
+        boolean latin1 = s.chars().allMatch(c -> c < 256);
+        long array = 16 + (long) s.length() * (latin1 ? 1 : 2);
+        return 24 + ((array + 7) & ~7L);
+    }
+
+    private static byte[] readResource(String path) {
+        try (var is = ZhCnResources.class.getClassLoader().getResourceAsStream(path)) {
+            if (is == null) {
+                throw new IllegalStateException("Resource not found: " + path);
+            }
+            return is.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load resource: " + path, e);
+        }
+    }
+}
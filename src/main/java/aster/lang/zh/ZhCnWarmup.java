@@ -0,0 +1,194 @@
+package aster.lang.zh;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.lexicon.Lexicon;
+import aster.core.lexicon.LexiconRegistry;
+import aster.core.lexicon.SemanticTokenKind;
+import aster.lang.zh.token.ZhTokenizer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * zh-CN 流水线的后台预热。
+ * <p>
+ * 部署后的前几千次规范化运行在解释器或 C1 层级，耗时是稳态的数倍。预热在一个后台守护线程上，
+ * 对内置的代表性语料 {@code warmup/zh-CN-corpus.aster} 反复执行完整规范化（全部中文变换器 + 关键词翻译）、
+ * 直接分词和词法表关键词查找，直到 JIT 编译稳定：
+ * <ul>
+ *   <li>每轮结束后读取 {@link CompilationMXBean#getTotalCompilationTime()}，连续
+ *       {@link #SETTLED_ROUNDS} 轮新增编译时间不超过 {@link #SETTLED_COMPILE_MILLIS} 毫秒即视为稳定</li>
+ *   <li>JVM 不支持编译时间监控时，改为连续若干轮耗时波动小于 5%</li>
+ *   <li>达到最长预热时间仍未稳定时同样结束，{@link Report#settled()} 为 false</li>
+ * </ul>
+ * 整个进程只预热一次，重复调用返回同一个 {@link CompletableFuture}。就绪探针可以等待该 future，
+ * 或轮询 {@link #isWarm()}（只在稳定后为 true）。入口见 {@link ZhCnPlugin#warmUp()}。
+ */
+public final class ZhCnWarmup {
+
+    /** 内置预热语料（classpath 资源）。 */
+    public static final String CORPUS = "warmup/zh-CN-corpus.aster";
+
+    /** 默认最长预热时间。 */
+    public static final Duration DEFAULT_MAX_DURATION = Duration.ofSeconds(30);
+
+    static final int ITERATIONS_PER_ROUND = 200;
+    static final int SETTLED_ROUNDS = 3;
+    static final long SETTLED_COMPILE_MILLIS = 2;
+
+    /**
+     * 预热结果。
+     *
+     * @param iterations           语料完整处理的次数
+     * @param rounds               轮数
+     * @param elapsedMillis        预热耗时
+     * @param compilationMillis    预热期间 JIT 编译耗时，不支持监控时为 -1
+     * @param firstRoundMicros     第一轮平均每次耗时（微秒）
+     * @param lastRoundMicros      最后一轮平均每次耗时（微秒）
+     * @param settled              是否在时限内达到稳定
+     */
+    public record Report(long iterations, int rounds, long elapsedMillis, long compilationMillis,
+                         double firstRoundMicros, double lastRoundMicros, boolean settled) {
+    }
+
+    private static volatile CompletableFuture<Report> started;
+    /** 写入预热结果的累加值，防止循环体被当作死代码消除。 */
+    private static volatile int blackhole;
+
+    private ZhCnWarmup() {}
+
+    /** 以默认时限启动预热；已启动时返回同一个 future。 */
+    public static CompletableFuture<Report> start() {
+        return start(DEFAULT_MAX_DURATION);
+    }
+
+    /**
+     * 启动预热；已启动时忽略参数并返回同一个 future。
+     *
+     * @param maxDuration 最长预热时间
+     */
+    public static CompletableFuture<Report> start(Duration maxDuration) {
+        CompletableFuture<Report> future = started;
+        if (future != null) {
+            return future;
+        }
+        synchronized (ZhCnWarmup.class) {
+            if (started == null) {
+                CompletableFuture<Report> f = new CompletableFuture<>();
+                Thread.ofPlatform()
+                        .name("zh-cn-warmup")
+                        .daemon(true)
+                        .start(() -> {
+                            try {
+                                f.complete(run(maxDuration));
+                            } catch (Throwable e) {
+                                f.completeExceptionally(e);
+                            }
+                        });
+                started = f;
+            }
+            return started;
+        }
+    }
+
+    /**
+     * 预热是否已结束且 JIT 编译已稳定（{@link Report#settled()}）。
+     * <p>
+     * 达到最长预热时间仍未稳定或预热失败时保持 false；此时仍想放行的就绪探针应等待 {@link #start()}
+     * 返回的 future，并按 {@link Report#settled()} 自行决定。
+     */
+    public static boolean isWarm() {
+        return isWarm(started);
+    }
+
+    static boolean isWarm(CompletableFuture<Report> future) {
+        return future != null && future.isDone() && !future.isCompletedExceptionally() && future.join().settled();
+    }
+
+    /**
+     * 在调用线程上同步执行一次预热（不影响 {@link #isWarm()}）。
+     */
+    static Report run(Duration maxDuration) {
+        List<String> corpus = corpus();
+        Lexicon lexicon = LexiconRegistry.getInstance().getOrThrow("zh-CN");
+        Canonicalizer canonicalizer = new Canonicalizer(lexicon);
+        ZhTokenizer tokenizer = ZhTokenizer.of(lexicon);
+        SemanticTokenKind[] kinds = SemanticTokenKind.values();
+
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean monitored = jit != null && jit.isCompilationTimeMonitoringSupported();
+        long compileStart = monitored ? jit.getTotalCompilationTime() : 0;
+        long lastCompile = compileStart;
+
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        long iterations = 0;
+        int rounds = 0;
+        int stable = 0;
+        double first = 0;
+        double previous = 0;
+        double last = 0;
+        int sink = 0;
+        boolean settled = false;
+        while (System.nanoTime() < deadline) {
+            long roundStart = System.nanoTime();
+            for (int i = 0; i < ITERATIONS_PER_ROUND; i++) {
+                String source = corpus.get(i % corpus.size());
+                sink += canonicalizer.canonicalize(source).length();
+                sink += tokenizer.tokenize(source).size();
+                sink += lexicon.getKeywords().get(kinds[i % kinds.length]) == null ? 0 : 1;
+            }
+            iterations += ITERATIONS_PER_ROUND;
+            rounds++;
+            last = (System.nanoTime() - roundStart) / 1e3 / ITERATIONS_PER_ROUND;
+            if (rounds == 1) {
+                first = last;
+            }
+            boolean quiet;
+            if (monitored) {
+                long compile = jit.getTotalCompilationTime();
+                quiet = compile - lastCompile <= SETTLED_COMPILE_MILLIS;
+                lastCompile = compile;
+            } else {
+                quiet = rounds > 1 && Math.abs(last - previous) <= previous * 0.05;
+            }
+            previous = last;
+            stable = quiet ? stable + 1 : 0;
+            if (stable >= SETTLED_ROUNDS) {
+                settled = true;
+                break;
+            }
+        }
+        blackhole = sink;
+        return new Report(iterations, rounds, (System.nanoTime() - start) / 1_000_000,
+                monitored ? lastCompile - compileStart : -1, first, last, settled);
+    }
+
+    /** 内置语料：完整模块一份，另按空行切出的每个顶层块各一份，兼顾整文件与片段两种调用形态。 */
+    static List<String> corpus() {
+        String text;
+        try (var is = ZhCnWarmup.class.getClassLoader().getResourceAsStream(CORPUS)) {
+            if (is == null) {
+                throw new IllegalStateException("Resource not found: " + CORPUS);
+            }
+            text = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load resource: " + CORPUS, e);
+        }
+        List<String> corpus = new ArrayList<>();
+        corpus.add(text);
+        for (String block : text.split("\n\n")) {
+            if (!block.isBlank()) {
+                corpus.add(block.strip() + "\n");
+            }
+        }
+        return corpus;
+    }
+}
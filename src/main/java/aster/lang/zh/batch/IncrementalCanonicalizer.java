@@ -0,0 +1,336 @@
+package aster.lang.zh.batch;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.lexicon.LexiconRegistry;
+import aster.lang.zh.PipelineFingerprint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * 目录级增量规范化工具。
+ * <p>
+ * 遍历源目录下的 {@code .aster} 文件，把规范化结果按相同相对路径写入输出目录，并在输出目录维护清单
+ * {@value #MANIFEST_NAME}。每行记录一个文件：
+ * <pre>相对路径 \t 大小 \t 修改时间(ms) \t 输入 SHA-256 \t 流水线指纹 \t 输出 SHA-256</pre>
+ * 再次运行时：
+ * <ul>
+ *   <li>大小、修改时间、指纹都未变且输出存在的文件只做一次 stat，直接跳过</li>
+ *   <li>元数据变化的文件通过内存映射读取并计算哈希，内容未变且现有输出与清单中的输出哈希一致则只刷新元数据</li>
+ *   <li>内容或指纹（见 {@link PipelineFingerprint}）变化的文件并行重新规范化</li>
+ *   <li>源文件已删除的条目连同输出一起移除</li>
+ * </ul>
+ * 因此增量构建的开销与变化的文件数成正比。失败的文件不写入清单，下次运行会重试。
+ * 输出与清单一样先写临时文件再原子替换，中途中断不会留下半写入的输出被当作有效结果跳过。
+ * 源目录与输出目录在构建时统一为规范化的绝对路径，相对、绝对路径混用时排除输出目录的判断同样成立。
+ * <p>
+ * 命令行：{@code IncrementalCanonicalizer <源目录> <输出目录>}
+ */
+public final class IncrementalCanonicalizer {
+
+    public static final String MANIFEST_NAME = ".aster-canonical.manifest";
+    private static final String MANIFEST_HEADER = "# aster-zh canonical manifest v1";
+    private static final String EXTENSION = ".aster";
+
+    /**
+     * 一次运行的统计。
+     *
+     * @param canonicalized 重新规范化的文件数
+     * @param unchanged     跳过的文件数（含仅刷新元数据的文件）
+     * @param removed       随源文件删除而移除的输出数
+     * @param failures      失败文件的相对路径 → 错误信息
+     */
+    public record Report(int canonicalized, int unchanged, int removed, Map<String, String> failures,
+                         long elapsedMillis) {
+
+        public int total() {
+            return canonicalized + unchanged + failures.size();
+        }
+    }
+
+    /** 清单中的一行。 */
+    record Entry(String path, long size, long modifiedMillis, String inputHash, String fingerprint,
+                 String outputHash) {
+
+        String format() {
+            return String.join("\t", path, Long.toString(size), Long.toString(modifiedMillis),
+                    inputHash, fingerprint, outputHash);
+        }
+
+        static Entry parse(String line) {
+            String[] f = line.split("\t");
+            if (f.length != 6) {
+                throw new IllegalArgumentException("Malformed manifest line: " + line);
+            }
+            return new Entry(f[0], Long.parseLong(f[1]), Long.parseLong(f[2]), f[3], f[4], f[5]);
+        }
+    }
+
+    private final Path sourceRoot;
+    private final Path outputRoot;
+    private final UnaryOperator<String> pipeline;
+    private final String fingerprint;
+    private final int parallelism;
+
+    private IncrementalCanonicalizer(Path sourceRoot, Path outputRoot, UnaryOperator<String> pipeline,
+                                     String fingerprint, int parallelism) {
+        this.sourceRoot = sourceRoot.toAbsolutePath().normalize();
+        this.outputRoot = outputRoot.toAbsolutePath().normalize();
+        this.pipeline = pipeline;
+        this.fingerprint = fingerprint;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * 使用 zh-CN 流水线，并行度为可用处理器数。
+     */
+    public static IncrementalCanonicalizer zhCn(Path sourceRoot, Path outputRoot) {
+        Canonicalizer canonicalizer = new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN"));
+        return of(sourceRoot, outputRoot, canonicalizer::canonicalize, PipelineFingerprint.zhCn(),
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 使用自定义流水线。{@code fingerprint} 变化时所有文件都会重新规范化；流水线会被并发调用，必须线程安全。
+     */
+    public static IncrementalCanonicalizer of(Path sourceRoot, Path outputRoot, UnaryOperator<String> pipeline,
+                                              String fingerprint, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        if (fingerprint.isEmpty() || fingerprint.indexOf('\t') >= 0 || fingerprint.indexOf('\n') >= 0) {
+            throw new IllegalArgumentException("Invalid fingerprint: " + fingerprint);
+        }
+        return new IncrementalCanonicalizer(sourceRoot, outputRoot, pipeline, fingerprint, parallelism);
+    }
+
+    /**
+     * 执行一次增量规范化并原子地重写清单。
+     */
+    public Report run() {
+        long start = System.nanoTime();
+        Map<String, Entry> previous = readManifest();
+        Map<String, Entry> next = new ConcurrentHashMap<>();
+        Map<String, String> failures = new ConcurrentHashMap<>();
+        List<Path> pending = new ArrayList<>();
+        int unchanged = 0;
+
+        for (Path file : listSources()) {
+            String rel = relativePath(file);
+            Entry old = previous.get(rel);
+            long size;
+            long modified;
+            try {
+                size = Files.size(file);
+                modified = Files.getLastModifiedTime(file).toMillis();
+            } catch (IOException e) {
+                failures.put(rel, e.toString());
+                continue;
+            }
+            if (old != null && old.size() == size && old.modifiedMillis() == modified
+                    && old.fingerprint().equals(fingerprint) && Files.exists(outputRoot.resolve(rel))) {
+                next.put(rel, old);
+                unchanged++;
+            } else {
+                pending.add(file);
+            }
+        }
+
+        int[] counts = processPending(pending, previous, next, failures);
+        unchanged += counts[1];
+
+        int removed = 0;
+        for (String rel : previous.keySet()) {
+            if (!next.containsKey(rel) && !failures.containsKey(rel)
+                    && !Files.exists(sourceRoot.resolve(rel))) {
+                try {
+                    Files.deleteIfExists(outputRoot.resolve(rel));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to remove stale output: " + rel, e);
+                }
+                removed++;
+            }
+        }
+
+        writeManifest(next);
+        return new Report(counts[0], unchanged, removed, new TreeMap<>(failures),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 并行处理元数据变化的文件。
+     *
+     * @return {重新规范化数, 内容未变数}
+     */
+    private int[] processPending(List<Path> pending, Map<String, Entry> previous,
+                                 Map<String, Entry> next, Map<String, String> failures) {
+        if (pending.isEmpty()) {
+            return new int[2];
+        }
+        List<Future<Boolean>> futures = new ArrayList<>(pending.size());
+        try (ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, pending.size()))) {
+            for (Path file : pending) {
+                futures.add(pool.submit(() -> process(file, previous, next, failures)));
+            }
+            int canonicalized = 0;
+            int unchanged = 0;
+            for (Future<Boolean> f : futures) {
+                Boolean result = f.get();
+                if (result == Boolean.TRUE) {
+                    canonicalized++;
+                } else if (result == Boolean.FALSE) {
+                    unchanged++;
+                }
+            }
+            return new int[]{canonicalized, unchanged};
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while canonicalizing " + sourceRoot, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Canonicalization worker failed", e.getCause());
+        }
+    }
+
+    /**
+     * @return true 已重新规范化；false 内容未变；null 失败
+     */
+    private Boolean process(Path file, Map<String, Entry> previous, Map<String, Entry> next,
+                            Map<String, String> failures) {
+        String rel = relativePath(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            String inputHash = sha256(mapped.duplicate());
+
+            Entry old = previous.get(rel);
+            Path output = outputRoot.resolve(rel);
+            if (old != null && old.inputHash().equals(inputHash) && old.fingerprint().equals(fingerprint)
+                    && outputMatches(output, old.outputHash())) {
+                // 仅 touch 过：刷新元数据，免去下次哈希
+                next.put(rel, new Entry(rel, size, modified, inputHash, fingerprint, old.outputHash()));
+                return false;
+            }
+
+            String source = StandardCharsets.UTF_8.decode(mapped).toString();
+            byte[] result = pipeline.apply(source).getBytes(StandardCharsets.UTF_8);
+            Files.createDirectories(output.getParent());
+            Path tmp = Files.write(output.resolveSibling(output.getFileName() + ".tmp"), result);
+            Files.move(tmp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            next.put(rel, new Entry(rel, size, modified, inputHash, fingerprint, sha256(ByteBuffer.wrap(result))));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            failures.put(rel, e.toString());
+            return null;
+        }
+    }
+
+    /** 输出存在且内容哈希与清单记录一致。 */
+    private static boolean outputMatches(Path output, String expectedHash) {
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.READ)) {
+            return sha256(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())).equals(expectedHash);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private List<Path> listSources() {
+        try (Stream<Path> walk = Files.walk(sourceRoot)) {
+            return walk.filter(p -> p.getFileName().toString().endsWith(EXTENSION))
+                    .filter(Files::isRegularFile)
+                    .filter(p -> !p.startsWith(outputRoot))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to walk source directory: " + sourceRoot, e);
+        }
+    }
+
+    private String relativePath(Path file) {
+        // 清单统一使用 '/' 分隔，跨平台可复用
+        return sourceRoot.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    private Map<String, Entry> readManifest() {
+        Path manifest = outputRoot.resolve(MANIFEST_NAME);
+        Map<String, Entry> entries = new HashMap<>();
+        if (!Files.exists(manifest)) {
+            return entries;
+        }
+        try {
+            for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    Entry e = Entry.parse(line);
+                    entries.put(e.path(), e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read manifest: " + manifest, e);
+        } catch (IllegalArgumentException e) {
+            // 损坏的清单等价于首次运行
+            entries.clear();
+        }
+        return entries;
+    }
+
+    private void writeManifest(Map<String, Entry> entries) {
+        Path manifest = outputRoot.resolve(MANIFEST_NAME);
+        StringBuilder sb = new StringBuilder(MANIFEST_HEADER).append('\n');
+        new TreeMap<>(entries).values().forEach(e -> sb.append(e.format()).append('\n'));
+        try {
+            Files.createDirectories(outputRoot);
+            Path tmp = Files.writeString(outputRoot.resolve(MANIFEST_NAME + ".tmp"), sb, StandardCharsets.UTF_8);
+            Files.move(tmp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write manifest: " + manifest, e);
+        }
+    }
+
+    private static String sha256(ByteBuffer buffer) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(buffer);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("usage: IncrementalCanonicalizer <source-dir> <output-dir>");
+            System.exit(2);
+        }
+        Report report = zhCn(Path.of(args[0]), Path.of(args[1])).run();
+        System.out.printf("canonicalized=%d unchanged=%d removed=%d failed=%d (%d ms)%n",
+                report.canonicalized(), report.unchanged(), report.removed(), report.failures().size(),
+                report.elapsedMillis());
+        report.failures().forEach((path, error) -> System.err.println("FAILED " + path + ": " + error));
+        if (!report.failures().isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package aster.lang.zh.cache;
+
+import aster.lang.zh.CanonicalFingerprint;
+import aster.lang.zh.PipelineFingerprint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32C;
+
+/**
+ * 可选的 zh-CN 规范化结果持久缓存。
+ * <p>
+ * 结果存放在单个只追加的段文件中，重启后的进程打开同一文件即可直接命中：
+ * <pre>
+ * 文件头：int 魔数 | int 格式版本 | short 指纹长度 | 指纹 UTF-8
+ * 记录：  32 字节 SHA-256(源码 UTF-8) | int 结果长度 | int CRC32C | 结果 UTF-8
+ * </pre>
+ * <ul>
+ *   <li>键为源码哈希；流水线指纹（见 {@link PipelineFingerprint}）写在文件头，不匹配时整个段作废重建</li>
+ *   <li>读取走内存映射，内存中只保留 键 → 偏移 的索引；映射按容量倍增，写入经映射直接落到页缓存，
+ *       不必每次写入后重新映射。映射超出数据末尾的部分在关闭时截掉</li>
+ *   <li>写入追加到数据末尾；CRC32C 覆盖键、长度与结果。打开时从第一条长度越界或校验和不符的记录起截断，
+ *       进程崩溃留下的半条记录、映射预留的零填充以及损坏的尾部都不会被读出</li>
+ *   <li>文件超过 {@code maxBytes} 时压缩：只保留最新写入的条目，直到不超过上限的一半</li>
+ * </ul>
+ * 实例线程安全。同一文件同一时刻只能由一个实例打开：打开时对旁路锁文件（段文件名加 {@code .lock}）
+ * 取独占的 {@link FileLock}，直到 {@link #close()} 才释放；已被其他进程或本进程的其他实例持有时
+ * {@link #open} 立即失败。锁不加在段文件本身上，因为压缩会用新文件替换它，原文件上的锁随之失效；
+ * 压缩使用的临时文件与替换同样只由持锁实例执行。
+ */
+public final class PersistentCanonicalCache implements AutoCloseable {
+
+    private static final int MAGIC = 0x415A4343; // "AZCC"
+    private static final int FORMAT_VERSION = 2;
+    private static final int KEY_BYTES = 32;
+    private static final int CRC_OFFSET = KEY_BYTES + Integer.BYTES;
+    private static final int RECORD_OVERHEAD = CRC_OFFSET + Integer.BYTES;
+    /** 映射的最小容量；之后每次至少翻倍，直到 {@code maxBytes}。 */
+    private static final int MIN_MAPPING = 64 * 1024;
+
+    /** SHA-256 键，按 4 个 long 存放以避免每个索引项持有 byte[]。 */
+    private record Key(long a, long b, long c, long d) {
+
+        static Key of(byte[] digest) {
+            ByteBuffer buf = ByteBuffer.wrap(digest);
+            return new Key(buf.getLong(), buf.getLong(), buf.getLong(), buf.getLong());
+        }
+
+        void writeTo(ByteBuffer buf) {
+            buf.putLong(a).putLong(b).putLong(c).putLong(d);
+        }
+    }
+
+    private final Path file;
+    private final String fingerprint;
+    private final long maxBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // 以下状态由 lock 保护
+    private final Map<Key, Integer> index = new HashMap<>();
+    private FileChannel lockChannel;
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private int end;
+    private int headerBytes;
+
+    private PersistentCanonicalCache(Path file, String fingerprint, long maxBytes) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 打开（或创建）缓存段文件。
+     *
+     * @param fingerprint 流水线指纹，与文件头不一致时清空重建
+     * @param maxBytes    段文件大小上限，不超过 {@link Integer#MAX_VALUE}
+     * @throws IllegalStateException 该文件已被其他进程或本进程的其他实例打开
+     */
+    public static PersistentCanonicalCache open(Path file, String fingerprint, long maxBytes) {
+        if (maxBytes <= 0 || maxBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("maxBytes out of range: " + maxBytes);
+        }
+        PersistentCanonicalCache cache = new PersistentCanonicalCache(file, fingerprint, maxBytes);
+        try {
+            cache.lock();
+            cache.load();
+        } catch (IOException | RuntimeException e) {
+            try {
+                cache.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            if (e instanceof IOException io) {
+                throw new UncheckedIOException("Failed to open canonical cache: " + file, io);
+            }
+            throw (RuntimeException) e;
+        }
+        return cache;
+    }
+
+    /** 以当前 zh-CN 流水线指纹打开缓存。 */
+    public static PersistentCanonicalCache openZhCn(Path file, long maxBytes) {
+        return open(file, PipelineFingerprint.zhCn(), maxBytes);
+    }
+
+    /**
+     * 查询缓存，未命中返回 null。
+     */
+    public String get(String source) {
+        Key key = keyOf(source);
+        lock.readLock().lock();
+        try {
+            Integer offset = index.get(key);
+            if (offset == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return decode(mapped, offset + RECORD_OVERHEAD, mapped.getInt(offset + KEY_BYTES));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 追加一条结果。同一源码重复写入时以最后一次为准，旧记录在压缩时回收。
+     */
+    public void put(String source, String canonical) {
+        Key key = keyOf(source);
+        byte[] value = canonical.getBytes(StandardCharsets.UTF_8);
+        long recordBytes = (long) RECORD_OVERHEAD + value.length;
+        if (recordBytes > maxBytes / 2) {
+            // 单条结果超过上限的一半时不缓存，避免每次写入都触发压缩
+            return;
+        }
+        ByteBuffer record = ByteBuffer.allocate((int) recordBytes);
+        key.writeTo(record);
+        record.putInt(value.length).putInt(0).put(value);
+        record.putInt(CRC_OFFSET, crc(record, 0, value.length));
+
+        lock.writeLock().lock();
+        try {
+            if (end + recordBytes > maxBytes) {
+                compact((maxBytes / 2) - recordBytes);
+            }
+            int offset = end;
+            ensureMapped(offset + recordBytes);
+            mapped.put(offset, record, 0, (int) recordBytes);
+            end += (int) recordBytes;
+            index.put(key, offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to canonical cache: " + file, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 命中时直接返回缓存结果，否则调用流水线并写入缓存。
+     */
+    public String computeIfAbsent(String source, UnaryOperator<String> pipeline) {
+        String cached = get(source);
+        if (cached != null) {
+            return cached;
+        }
+        String result = pipeline.apply(source);
+        put(source, result);
+        return result;
+    }
+
+    /**
+     * 回收被覆盖的旧记录，不淘汰任何有效条目（仍受 {@code maxBytes} 约束）。
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            compact(maxBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact canonical cache: " + file, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** 有效条目数。 */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 段文件当前字节数。 */
+    public long sizeBytes() {
+        lock.readLock().lock();
+        try {
+            return end;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel != null) {
+                if (mapped != null) {
+                    mapped.force();
+                    mapped = null;
+                    // 截掉映射预留的尾部
+                    channel.truncate(end);
+                    channel.force(false);
+                }
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            try {
+                if (lockChannel != null) {
+                    // 关闭通道同时释放锁；锁文件保留，删除它会让等待中的打开方锁住一个已脱离目录的文件
+                    lockChannel.close();
+                    lockChannel = null;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void lock() throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null;
+        }
+        if (acquired == null) {
+            throw new IllegalStateException("Canonical cache is already open: " + file);
+        }
+    }
+
+    private void load() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        byte[] header = header();
+        headerBytes = header.length;
+        long size = channel.size();
+        if (size > maxBytes || !headerMatches(header, size)) {
+            reset(header);
+            return;
+        }
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        int pos = headerBytes;
+        while (pos + RECORD_OVERHEAD <= size) {
+            int length = mapped.getInt(pos + KEY_BYTES);
+            if (length < 0 || pos + RECORD_OVERHEAD + (long) length > size
+                    || mapped.getInt(pos + CRC_OFFSET) != crc(mapped, pos, length)) {
+                break;
+            }
+            index.put(readKey(mapped, pos), pos);
+            pos += RECORD_OVERHEAD + length;
+        }
+        end = pos;
+        mapped = null;
+        if (end < size) {
+            // 从第一条不完整或校验失败的记录起截断
+            channel.truncate(end);
+        }
+        ensureMapped(end);
+    }
+
+    private boolean headerMatches(byte[] expected, long size) throws IOException {
+        if (size < expected.length) {
+            return false;
+        }
+        ByteBuffer actual = ByteBuffer.allocate(expected.length);
+        while (actual.hasRemaining() && channel.read(actual, actual.position()) >= 0) {
+            // 读满文件头
+        }
+        return actual.flip().equals(ByteBuffer.wrap(expected));
+    }
+
+    private void reset(byte[] header) throws IOException {
+        index.clear();
+        channel.truncate(0);
+        ByteBuffer buf = ByteBuffer.wrap(header);
+        while (buf.hasRemaining()) {
+            channel.write(buf, buf.position());
+        }
+        end = header.length;
+        mapped = null;
+        ensureMapped(end);
+    }
+
+    private byte[] header() {
+        byte[] fp = fingerprint.getBytes(StandardCharsets.UTF_8);
+        if (fp.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Fingerprint too long: " + fp.length + " bytes");
+        }
+        return ByteBuffer.allocate(Integer.BYTES * 2 + Short.BYTES + fp.length)
+                .putInt(MAGIC).putInt(FORMAT_VERSION).putShort((short) fp.length).put(fp)
+                .array();
+    }
+
+    /**
+     * 保证映射至少覆盖 {@code needed} 字节：容量不足时按倍增（至少 {@link #MIN_MAPPING}，至多 {@code maxBytes}）
+     * 重新映射，文件随映射扩展，预留部分为零。
+     */
+    private void ensureMapped(long needed) throws IOException {
+        if (mapped != null && needed <= mapped.capacity()) {
+            return;
+        }
+        long current = mapped == null ? 0 : mapped.capacity();
+        long capacity = Math.min(maxBytes, Math.max(needed, Math.max(MIN_MAPPING, current * 2)));
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /** 记录 {@code [offset, offset + RECORD_OVERHEAD + length)} 的 CRC32C，不含校验和字段本身。 */
+    private static int crc(ByteBuffer buf, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buf.slice(offset, CRC_OFFSET));
+        crc.update(buf.slice(offset + RECORD_OVERHEAD, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 按写入时间从新到旧保留条目，直到数据部分不超过 {@code budget}，写入新文件后原子替换。
+     */
+    private void compact(long budget) throws IOException {
+        List<Map.Entry<Key, Integer>> live = new ArrayList<>(index.entrySet());
+        live.sort(Map.Entry.<Key, Integer>comparingByValue().reversed());
+        List<Map.Entry<Key, Integer>> kept = new ArrayList<>();
+        long used = headerBytes;
+        for (Map.Entry<Key, Integer> e : live) {
+            long recordBytes = RECORD_OVERHEAD + (long) mapped.getInt(e.getValue() + KEY_BYTES);
+            if (used + recordBytes > budget + headerBytes) {
+                break;
+            }
+            used += recordBytes;
+            kept.add(e);
+        }
+        kept.sort(Map.Entry.comparingByValue());
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".compact");
+        Map<Key, Integer> next = new HashMap<>();
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.wrap(header());
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            int pos = headerBytes;
+            for (Map.Entry<Key, Integer> e : kept) {
+                int offset = e.getValue();
+                int recordBytes = RECORD_OVERHEAD + mapped.getInt(offset + KEY_BYTES);
+                ByteBuffer record = mapped.slice(offset, recordBytes);
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+                next.put(e.getKey(), pos);
+                pos += recordBytes;
+            }
+            out.force(false);
+        }
+        channel.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index.clear();
+        index.putAll(next);
+        end = (int) channel.size();
+        mapped = null;
+        ensureMapped(end);
+    }
+
+    private static Key readKey(ByteBuffer buf, int offset) {
+        return new Key(buf.getLong(offset), buf.getLong(offset + 8), buf.getLong(offset + 16), buf.getLong(offset + 24));
+    }
+
+    private static String decode(ByteBuffer buf, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buf.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Key keyOf(String source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            CanonicalFingerprint.updateUtf8(digest, source);
+            return Key.of(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
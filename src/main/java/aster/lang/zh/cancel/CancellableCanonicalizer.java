@@ -0,0 +1,96 @@
+package aster.lang.zh.cancel;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.lexicon.LexiconRegistry;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * 可取消、支持截止时间的规范化入口。
+ * <p>
+ * LSP 开始规范化一个大文档后常常又收到新的编辑，旧的运行应尽快放弃。调用方为每次运行创建一个
+ * {@link CancellationToken}，收到新编辑时对旧令牌调用 {@link CancellationToken#cancel()}；
+ * 流水线中的中文变换器在语句粒度检查令牌，被取消的运行返回 {@link Cancelled} 而不是结果。
+ * <p>
+ * core 的 {@link Canonicalizer} 自身的步骤（关键词翻译等）之间没有检查点，取消在下一个中文变换器
+ * 入口或运行结束时生效；运行结束时令牌已取消同样返回 {@link Cancelled}，调用方不会拿到过期结果。
+ * 实例不可变，可在多线程间共享。
+ */
+public final class CancellableCanonicalizer {
+
+    /** 一次规范化的结果。 */
+    public sealed interface Result permits Completed, Cancelled {
+
+        /** 从开始到完成或中止的耗时（纳秒）。 */
+        long elapsedNanos();
+    }
+
+    /** 正常完成。 */
+    public record Completed(String canonical, long elapsedNanos) implements Result {
+    }
+
+    /**
+     * 被取消。
+     *
+     * @param expired 因截止时间到达而取消；false 表示手动取消
+     */
+    public record Cancelled(boolean expired, long elapsedNanos) implements Result {
+    }
+
+    private final UnaryOperator<String> pipeline;
+
+    private CancellableCanonicalizer(UnaryOperator<String> pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /** zh-CN 规范化，规范化器进程内只构建一次。 */
+    public static CancellableCanonicalizer zhCn() {
+        return Holder.ZH_CN;
+    }
+
+    /**
+     * 使用自定义流水线构建。流水线内调用 {@link CancellationToken#checkpoint()} 的位置即为检查点。
+     */
+    public static CancellableCanonicalizer of(UnaryOperator<String> pipeline) {
+        return new CancellableCanonicalizer(pipeline);
+    }
+
+    /**
+     * 在 {@code token} 作用域内规范化 {@code source}。
+     */
+    public Result canonicalize(String source, CancellationToken token) {
+        long start = System.nanoTime();
+        if (token.isCancelled()) {
+            return new Cancelled(token.isExpired(), 0);
+        }
+        String[] out = new String[1];
+        try {
+            ScopedValue.where(CancellationToken.CURRENT, token).run(() -> out[0] = pipeline.apply(source));
+        } catch (RuntimeException e) {
+            if (!isCancellation(e)) {
+                throw e;
+            }
+            return new Cancelled(token.isExpired(), System.nanoTime() - start);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (token.isCancelled()) {
+            return new Cancelled(token.isExpired(), elapsed);
+        }
+        return new Completed(out[0], elapsed);
+    }
+
+    /** core 可能把变换器抛出的异常包装后重新抛出，沿原因链查找。 */
+    private static boolean isCancellation(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof CanonicalizationCancelledException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Holder {
+        static final CancellableCanonicalizer ZH_CN = new CancellableCanonicalizer(
+                new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN"))::canonicalize);
+    }
+}
@@ -0,0 +1,63 @@
+package aster.lang.zh.cancel;
+
+import java.time.Duration;
+
+/**
+ * 规范化取消令牌，可手动取消或带截止时间。
+ * <p>
+ * {@link CancellableCanonicalizer} 在运行流水线期间通过 {@link ScopedValue} 绑定当前令牌；
+ * 中文变换器在语句粒度（每个变换器入口、每个字符串外片段、每个语句终止符、每个规则头、每行）调用
+ * {@link #checkpoint()}，令牌已取消时抛出 {@link CanonicalizationCancelledException} 立即中止。
+ * 未绑定令牌时 {@link #checkpoint()} 只做一次 {@link ScopedValue#isBound()} 判断，普通规范化不受影响。
+ * <p>
+ * 线程安全：取消可以由任意线程（如收到新编辑的 LSP 线程）发起。
+ */
+public final class CancellationToken {
+
+    static final ScopedValue<CancellationToken> CURRENT = ScopedValue.newInstance();
+
+    /** 无截止时间。 */
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+
+    private CancellationToken(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /** 只能手动取消的令牌。 */
+    public static CancellationToken create() {
+        return new CancellationToken(NO_DEADLINE);
+    }
+
+    /** 超过 {@code timeout} 后自动视为已取消，也可提前手动取消。 */
+    public static CancellationToken withTimeout(Duration timeout) {
+        return new CancellationToken(System.nanoTime() + timeout.toNanos());
+    }
+
+    /** 请求取消。正在进行的规范化会在下一个检查点中止。 */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /** 已手动取消或已过截止时间。 */
+    public boolean isCancelled() {
+        return cancelled || (deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0);
+    }
+
+    /** 是否因截止时间到达而取消（手动取消优先报告为 false）。 */
+    public boolean isExpired() {
+        return !cancelled && deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * 检查当前线程绑定的令牌，已取消时抛出 {@link CanonicalizationCancelledException}。
+     * 未绑定令牌时立即返回。
+     */
+    public static void checkpoint() {
+        if (CURRENT.isBound() && CURRENT.get().isCancelled()) {
+            throw CanonicalizationCancelledException.INSTANCE;
+        }
+    }
+}
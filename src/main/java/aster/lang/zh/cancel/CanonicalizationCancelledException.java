@@ -0,0 +1,16 @@
+package aster.lang.zh.cancel;
+
+/**
+ * 规范化在检查点被取消。
+ * <p>
+ * 仅用于从变换器内部展开调用栈，由 {@link CancellableCanonicalizer} 捕获并转换为
+ * {@link CancellableCanonicalizer.Cancelled}。不记录栈轨迹，共享单个实例，抛出本身不分配对象。
+ */
+public final class CanonicalizationCancelledException extends RuntimeException {
+
+    static final CanonicalizationCancelledException INSTANCE = new CanonicalizationCancelledException();
+
+    private CanonicalizationCancelledException() {
+        super("Canonicalization cancelled", null, false, false);
+    }
+}
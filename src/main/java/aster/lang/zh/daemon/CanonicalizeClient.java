@@ -0,0 +1,104 @@
+package aster.lang.zh.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link CanonicalizeDaemon} 的轻量客户端。
+ * <p>
+ * 一个实例对应一个连接，可顺序发送多个请求；不是线程安全的。
+ * <p>
+ * 命令行：{@code CanonicalizeClient [--socket 路径] [--out-dir 目录] 文件...}。
+ * 指定 {@code --out-dir} 时按文件名写出结果，否则输出到标准输出。
+ */
+public final class CanonicalizeClient implements AutoCloseable {
+
+    private final SocketChannel channel;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    private CanonicalizeClient(SocketChannel channel) {
+        this.channel = channel;
+        this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+    }
+
+    public static CanonicalizeClient connect(Path socketPath) throws IOException {
+        SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new CanonicalizeClient(channel);
+    }
+
+    /**
+     * 发送一次规范化请求。
+     *
+     * @throws IllegalStateException 守护进程端规范化失败
+     */
+    public String canonicalize(String source) throws IOException {
+        DaemonProtocol.writeFrame(out, source);
+        out.flush();
+        int status = in.read();
+        if (status < 0) {
+            throw new EOFException("Daemon closed the connection");
+        }
+        String payload = DaemonProtocol.readFrame(in);
+        if (payload == null) {
+            throw new EOFException("Daemon closed the connection");
+        }
+        if (status != DaemonProtocol.OK) {
+            throw new IllegalStateException("Daemon canonicalization failed: " + payload);
+        }
+        return payload;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path socketPath = CanonicalizeDaemon.defaultSocketPath();
+        Path outDir = null;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--socket" -> socketPath = Path.of(args[++i]);
+                case "--out-dir" -> outDir = Path.of(args[++i]);
+                default -> files.add(Path.of(args[i]));
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("usage: CanonicalizeClient [--socket path] [--out-dir dir] file...");
+            System.exit(2);
+        }
+        try (CanonicalizeClient client = connect(socketPath)) {
+            for (Path file : files) {
+                String result = client.canonicalize(Files.readString(file, StandardCharsets.UTF_8));
+                if (outDir == null) {
+                    System.out.print(result);
+                } else {
+                    Files.createDirectories(outDir);
+                    Files.writeString(outDir.resolve(file.getFileName()), result, StandardCharsets.UTF_8);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package aster.lang.zh.daemon;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.lexicon.LexiconRegistry;
+import aster.lang.zh.ZhCnPlugin;
+import aster.lang.zh.ZhCnWarmup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * 常驻的 zh-CN 规范化守护进程，通过 Unix domain socket 提供服务。
+ * <p>
+ * 构建脚本逐文件启动 JVM 时，每次都要支付 JVM 启动、{@code ZhCnPlugin} 的 SPI 发现、词法表与词汇表解析，
+ * 且变换器始终停留在解释执行阶段。守护进程只加载一次流水线，每个连接由一个虚拟线程处理。
+ * 帧格式见 {@link DaemonProtocol}，客户端见 {@link CanonicalizeClient}。
+ * <p>
+ * 启动后立即开始监听，同时经 {@link ZhCnPlugin#warmUp()} 在后台预热流水线直到 JIT 编译稳定；
+ * 预热期间的请求照常处理，只是较慢。就绪状态见 {@link #warmup()} 与 {@link #isWarm()}，
+ * {@link #main} 在预热结束时记录日志。
+ * <p>
+ * 接受连接失败（除关闭外）时记录错误日志，关闭监听并删除 socket 文件，{@link #awaitTermination()} 随之返回。
+ * <p>
+ * 启动时若 socket 路径已存在：不是 socket 文件则拒绝启动；能连上（另一个守护进程仍在监听）也拒绝启动；
+ * 只有连接被拒绝的残留 socket 才会被删除。socket 所在目录不存在时以 {@code 0700} 权限创建，
+ * 默认目录还会校验属主与权限，其他用户无法连接或替换 socket。
+ * <p>
+ * 用法：{@code java -cp ... aster.lang.zh.daemon.CanonicalizeDaemon [socket路径]}
+ */
+public final class CanonicalizeDaemon implements AutoCloseable {
+
+    private static final System.Logger LOG = System.getLogger(CanonicalizeDaemon.class.getName());
+
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    /**
+     * 默认 socket 路径，位于当前用户独占的目录中：设置了 {@code XDG_RUNTIME_DIR} 时为
+     * {@code $XDG_RUNTIME_DIR/aster-zh/canonicalize.sock}，否则为
+     * {@code ${java.io.tmpdir}/aster-zh-${user.name}/canonicalize.sock}。
+     */
+    public static Path defaultSocketPath() {
+        return defaultDirectory().resolve("canonicalize.sock");
+    }
+
+    private static Path defaultDirectory() {
+        String runtime = System.getenv("XDG_RUNTIME_DIR");
+        if (runtime != null && !runtime.isBlank()) {
+            return Path.of(runtime, "aster-zh");
+        }
+        return Path.of(System.getProperty("java.io.tmpdir"), "aster-zh-" + System.getProperty("user.name"));
+    }
+
+    private final Path socketPath;
+    private final UnaryOperator<String> pipeline;
+    private final ServerSocketChannel server;
+    private final Thread acceptor;
+    private final CompletableFuture<ZhCnWarmup.Report> warmup;
+    private final AtomicLong requests = new AtomicLong();
+
+    private CanonicalizeDaemon(Path socketPath, UnaryOperator<String> pipeline) throws IOException {
+        this.socketPath = socketPath;
+        this.pipeline = pipeline;
+        prepareDirectory(socketPath.toAbsolutePath().getParent());
+        removeStaleSocket(socketPath);
+        this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socketPath));
+        this.warmup = ZhCnPlugin.warmUp();
+        this.acceptor = Thread.ofPlatform()
+                .name("zh-canonicalize-acceptor")
+                .daemon(true)
+                .start(this::acceptLoop);
+    }
+
+    /**
+     * 使用 zh-CN 词法表启动守护进程。流水线在返回前完成加载，JIT 预热在后台进行。
+     */
+    public static CanonicalizeDaemon start(Path socketPath) throws IOException {
+        Canonicalizer canonicalizer = new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN"));
+        return start(socketPath, canonicalizer::canonicalize);
+    }
+
+    /**
+     * 使用自定义流水线启动守护进程（例如带缓存或带取消支持的包装）。
+     * 流水线会被多个连接线程并发调用，必须线程安全。后台预热的仍是 zh-CN 流水线。
+     */
+    public static CanonicalizeDaemon start(Path socketPath, UnaryOperator<String> pipeline) throws IOException {
+        return new CanonicalizeDaemon(socketPath, pipeline);
+    }
+
+    public Path socketPath() {
+        return socketPath;
+    }
+
+    /** 后台预热的 future（进程内共享，见 {@link ZhCnPlugin#warmUp()}）。 */
+    public CompletableFuture<ZhCnWarmup.Report> warmup() {
+        return warmup;
+    }
+
+    /** 预热是否已结束且 JIT 编译已稳定，供就绪探针轮询。 */
+    public boolean isWarm() {
+        return ZhCnPlugin.isWarm();
+    }
+
+    /** 已处理的请求数。 */
+    public long requestCount() {
+        return requests.get();
+    }
+
+    /** 阻塞直到守护进程被关闭。 */
+    public void awaitTermination() throws InterruptedException {
+        acceptor.join();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        Files.deleteIfExists(socketPath);
+    }
+
+    /** 目录不存在时以 0700 创建；默认目录已存在时要求属于当前用户且不对其他用户开放。 */
+    private static void prepareDirectory(Path dir) throws IOException {
+        if (!Files.getFileStore(existingAncestor(dir)).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            Files.createDirectories(dir);
+            return;
+        }
+        if (Files.notExists(dir, LinkOption.NOFOLLOW_LINKS)) {
+            Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+            // umask 可能去掉了部分位，这里再显式设置一次
+            Files.setPosixFilePermissions(dir, OWNER_ONLY);
+            return;
+        }
+        if (!dir.equals(defaultDirectory().toAbsolutePath())) {
+            return;
+        }
+        PosixFileAttributes attrs = Files.readAttributes(dir, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        UserPrincipal self = dir.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        if (!attrs.isDirectory() || !attrs.owner().equals(self) || !OWNER_ONLY.containsAll(attrs.permissions())) {
+            throw new IllegalStateException("Refusing to use socket directory " + dir
+                    + ": must be a directory owned by " + self.getName() + " with mode 0700");
+        }
+    }
+
+    private static Path existingAncestor(Path dir) {
+        Path p = dir;
+        while (p != null && Files.notExists(p)) {
+            p = p.getParent();
+        }
+        return p != null ? p : dir.getRoot();
+    }
+
+    /**
+     * socket 路径已存在时：不是 socket 文件或仍有守护进程在监听则拒绝启动，否则视为上次异常退出的残留并删除。
+     */
+    private static void removeStaleSocket(Path socketPath) throws IOException {
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(socketPath, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        if (!attrs.isOther()) {
+            throw new IllegalStateException("Refusing to replace non-socket file: " + socketPath);
+        }
+        try (SocketChannel probe = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            probe.connect(UnixDomainSocketAddress.of(socketPath));
+            throw new IllegalStateException("Canonicalize daemon already listening on " + socketPath);
+        } catch (ConnectException e) {
+            LOG.log(System.Logger.Level.INFO, "Removing stale canonicalize socket {0}", socketPath);
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    private void acceptLoop() {
+        try {
+            while (server.isOpen()) {
+                SocketChannel channel = server.accept();
+                Thread.ofVirtual().name("zh-canonicalize-conn").start(() -> serve(channel));
+            }
+        } catch (ClosedChannelException e) {
+            // close() 结束监听
+        } catch (IOException e) {
+            stopAfterAcceptFailure(e);
+        }
+    }
+
+    /** 接受连接失败后记录日志，关闭监听并删除 socket，避免客户端连到一个不再接受连接的 socket。 */
+    void stopAfterAcceptFailure(IOException failure) {
+        LOG.log(System.Logger.Level.ERROR, "Canonicalize daemon stopped accepting connections on " + socketPath, failure);
+        try {
+            close();
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.WARNING, "Failed to remove canonicalize socket " + socketPath, e);
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        try (channel;
+             var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+             var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            String source;
+            while ((source = DaemonProtocol.readFrame(in)) != null) {
+                requests.incrementAndGet();
+                String result;
+                byte status;
+                try {
+                    result = pipeline.apply(source);
+                    status = DaemonProtocol.OK;
+                } catch (RuntimeException e) {
+                    result = e.getClass().getSimpleName() + ": " + e.getMessage();
+                    status = DaemonProtocol.ERROR;
+                }
+                out.writeByte(status);
+                DaemonProtocol.writeFrame(out, result);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // 客户端异常断开只影响该连接
+            LOG.log(System.Logger.Level.DEBUG, "Canonicalize connection closed abnormally", e);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path socketPath = args.length > 0 ? Path.of(args[0]) : defaultSocketPath();
+        CanonicalizeDaemon daemon = start(socketPath);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                daemon.close();
+            } catch (IOException ignored) {
+                // 进程退出中，忽略
+            }
+        }));
+        LOG.log(System.Logger.Level.INFO, "aster zh-CN canonicalize daemon listening on {0}", socketPath);
+        daemon.warmup().whenComplete((report, e) -> {
+            if (e != null) {
+                LOG.log(System.Logger.Level.WARNING, "aster zh-CN warm-up failed", e);
+            } else if (report.settled()) {
+                LOG.log(System.Logger.Level.INFO, "aster zh-CN canonicalize daemon warm after {0} ms ({1} iterations)",
+                        report.elapsedMillis(), report.iterations());
+            } else {
+                LOG.log(System.Logger.Level.WARNING, "aster zh-CN warm-up ended after {0} ms without JIT settling",
+                        report.elapsedMillis());
+            }
+        });
+        daemon.awaitTermination();
+    }
+}
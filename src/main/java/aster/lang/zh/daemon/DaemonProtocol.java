@@ -0,0 +1,55 @@
+package aster.lang.zh.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 规范化守护进程的帧协议。
+ * <p>
+ * 所有整数为大端序：
+ * <ul>
+ *   <li>请求：{@code int 长度} + UTF-8 源码</li>
+ *   <li>响应：{@code byte 状态}（{@link #OK} / {@link #ERROR}）+ {@code int 长度} + UTF-8 内容
+ *       （成功时为规范化结果，失败时为错误信息）</li>
+ * </ul>
+ * 一个连接上可以顺序发送任意多个请求，客户端关闭输出即结束会话。
+ */
+final class DaemonProtocol {
+
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+
+    /** 单帧上限，防止损坏的长度字段导致分配超大数组。 */
+    static final int MAX_FRAME_BYTES = 256 * 1024 * 1024;
+
+    private DaemonProtocol() {}
+
+    /**
+     * 读取一帧文本；连接在帧边界处正常关闭时返回 null。
+     */
+    static String readFrame(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Truncated frame: expected " + length + " bytes, got " + bytes.length);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeFrame(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
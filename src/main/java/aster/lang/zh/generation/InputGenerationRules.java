@@ -0,0 +1,86 @@
+package aster.lang.zh.generation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * {@code overlays/input-generation-rules.json} 的只读模型：字段名模式 → 示例值。
+ * <p>
+ * 规则按 {@code priority} 从高到低排列（同优先级保持文件顺序），{@link #resolve(String)} 返回第一个命中的规则，
+ * 因此 {@code 信用评分} 命中优先级 10 的 {@code 信用评分|信用分} 而不是优先级 5 的 {@code 评分}。
+ */
+public final class InputGenerationRules {
+
+    public static final String RESOURCE = "overlays/input-generation-rules.json";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * 单条规则。
+     *
+     * @param value 示例值（数字、字符串或布尔的 JSON 节点）
+     */
+    public record Rule(Pattern pattern, JsonNode value, int priority) {
+
+        public boolean matches(String fieldName) {
+            return pattern.matcher(fieldName).find();
+        }
+    }
+
+    private final List<Rule> rules;
+
+    private InputGenerationRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    /** 语言包内置的输入生成规则。 */
+    public static InputGenerationRules bundled() {
+        try (InputStream is = InputGenerationRules.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (is == null) {
+                throw new IllegalStateException("Resource not found: " + RESOURCE);
+            }
+            return fromJson(is);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load resource: " + RESOURCE, e);
+        }
+    }
+
+    public static InputGenerationRules fromJson(InputStream in) throws IOException {
+        JsonNode root = MAPPER.readTree(in);
+        List<Rule> rules = new ArrayList<>();
+        for (JsonNode node : root.path("rules")) {
+            String flags = node.path("flags").asText("");
+            int bits = Pattern.UNICODE_CASE;
+            if (flags.contains("i")) {
+                bits |= Pattern.CASE_INSENSITIVE;
+            }
+            rules.add(new Rule(Pattern.compile(node.get("pattern").asText(), bits),
+                    node.get("value"), node.path("priority").asInt(0)));
+        }
+        rules.sort(Comparator.comparingInt(Rule::priority).reversed());
+        return new InputGenerationRules(List.copyOf(rules));
+    }
+
+    /** 按优先级匹配字段名。 */
+    public Optional<Rule> resolve(String fieldName) {
+        for (Rule rule : rules) {
+            if (rule.matches(fieldName)) {
+                return Optional.of(rule);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<Rule> rules() {
+        return rules;
+    }
+}
@@ -0,0 +1,274 @@
+package aster.lang.zh.generation;
+
+import aster.lang.zh.generation.StructSpec.Field;
+import aster.lang.zh.generation.StructSpec.FieldType;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 基于输入生成规则的批量测试数据生成器，输出 JSONL（每行一个 JSON 对象）。
+ * <p>
+ * <ul>
+ *   <li>每个字段在构建时按 {@link InputGenerationRules} 解析一次，生成阶段不再做正则匹配</li>
+ *   <li>第 i 条记录只由 (seed, i) 决定，与并行度和分块无关，相同参数总是生成逐字节相同的输出</li>
+ *   <li>按块并行生成，写出端按顺序消费，同时在途的块数有上限，内存占用与总条数无关</li>
+ * </ul>
+ * 示例值在规则值附近浮动：数字在 0.5～1.5 倍间取值，电话号码保留号段、随机其余数字，
+ * 姓名从常见姓氏与名字组合，地址随机门牌号。
+ */
+public final class InputGenerator {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private static final String[] SURNAMES = {"王", "李", "张", "刘", "陈", "杨", "赵", "黄", "周", "吴", "徐", "孙", "胡", "朱", "高", "林"};
+    private static final String[] GIVEN_NAMES = {"伟", "芳", "娜", "敏", "静", "磊", "强", "洋", "艳", "勇", "军", "杰", "涛", "明", "超", "秀英", "建国", "晓东"};
+    private static final Pattern HAN_NAME = Pattern.compile("\\p{IsHan}{2,3}");
+    private static final Pattern TRAILING_NUMBER = Pattern.compile("(\\d+)(\\D*)$");
+
+    /** 单个字段的值生成函数，构建时确定。 */
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(JsonGenerator out, SplittableRandom random, long index) throws IOException;
+    }
+
+    private final String[] keys;
+    private final ValueWriter[] writers;
+    private final long seed;
+    private final int parallelism;
+    private final int chunkSize;
+
+    private InputGenerator(Builder b) {
+        List<Field> fields = b.struct.fields();
+        this.keys = new String[fields.size()];
+        this.writers = new ValueWriter[fields.size()];
+        for (int f = 0; f < fields.size(); f++) {
+            keys[f] = fields.get(f).key();
+            writers[f] = resolve(fields.get(f), b.rules);
+        }
+        this.seed = b.seed;
+        this.parallelism = b.parallelism;
+        this.chunkSize = b.chunkSize;
+    }
+
+    public static Builder builder(StructSpec struct) {
+        return new Builder(struct);
+    }
+
+    /**
+     * 生成 {@code count} 条记录写入 {@code out}（不关闭流）。
+     */
+    public void write(long count, OutputStream out) throws IOException {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        long chunks = (count + chunkSize - 1) / chunkSize;
+        int maxInFlight = parallelism * 2;
+        ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>(maxInFlight);
+        try (ExecutorService pool = Executors.newFixedThreadPool(parallelism)) {
+            long next = 0;
+            while (next < chunks || !inFlight.isEmpty()) {
+                while (next < chunks && inFlight.size() < maxInFlight) {
+                    long from = next * chunkSize;
+                    long to = Math.min(count, from + chunkSize);
+                    inFlight.add(pool.submit(() -> generate(from, to)));
+                    next++;
+                }
+                out.write(inFlight.poll().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating inputs", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException("Input generation failed", e.getCause());
+        }
+        out.flush();
+    }
+
+    /** 生成单条记录（不含换行），主要用于调试与抽样。 */
+    public String record(long index) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        try (JsonGenerator g = JSON.createGenerator(buffer)) {
+            writeRecord(g, index);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+    private byte[] generate(long from, long to) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) (to - from) * 32 * keys.length);
+        try (JsonGenerator g = JSON.createGenerator(buffer)) {
+            // 记录之间由本方法写入换行，不使用 Jackson 默认的根值分隔空格
+            g.setRootValueSeparator(null);
+            for (long i = from; i < to; i++) {
+                writeRecord(g, i);
+                g.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private void writeRecord(JsonGenerator g, long index) throws IOException {
+        SplittableRandom random = new SplittableRandom(mix(seed ^ (index * 0x9E3779B97F4A7C15L)));
+        g.writeStartObject();
+        for (int f = 0; f < keys.length; f++) {
+            g.writeFieldName(keys[f]);
+            writers[f].write(g, random, index);
+        }
+        g.writeEndObject();
+    }
+
+    private static ValueWriter resolve(Field field, InputGenerationRules rules) {
+        JsonNode sample = rules.resolve(field.matchName()).map(InputGenerationRules.Rule::value).orElse(null);
+        FieldType type = field.type();
+        if (type == null) {
+            type = sample == null || sample.isTextual() ? FieldType.TEXT
+                    : sample.isBoolean() ? FieldType.BOOL
+                    : sample.isIntegralNumber() ? FieldType.INT
+                    : FieldType.FLOAT;
+        }
+        return switch (type) {
+            case BOOL -> (g, r, i) -> g.writeBoolean(r.nextBoolean());
+            case INT -> intWriter(sample != null && sample.isNumber() ? sample.asLong() : -1);
+            case FLOAT -> floatWriter(sample != null && sample.isNumber() ? sample.asDouble() : -1);
+            case TEXT -> textWriter(sample != null && sample.isTextual() ? sample.textValue() : null, field.matchName());
+        };
+    }
+
+    private static ValueWriter intWriter(long base) {
+        if (base < 0) {
+            return (g, r, i) -> g.writeNumber(r.nextLong(0, 1001));
+        }
+        if (base == 0) {
+            // 计数类字段（事故次数等）以 0 为主，少量非零
+            return (g, r, i) -> g.writeNumber(r.nextInt(10) < 7 ? 0 : r.nextInt(1, 4));
+        }
+        long low = Math.max(0, base / 2);
+        long high = base + base / 2 + 1;
+        return (g, r, i) -> g.writeNumber(r.nextLong(low, high));
+    }
+
+    private static ValueWriter floatWriter(double base) {
+        if (base < 0) {
+            return (g, r, i) -> g.writeNumber(round(r.nextDouble(0, 1000), 100));
+        }
+        if (base < 1) {
+            // 比率类字段保持在 [0, 1)
+            double high = Math.min(1, base * 2);
+            return (g, r, i) -> g.writeNumber(round(r.nextDouble(0, high), 10000));
+        }
+        return (g, r, i) -> g.writeNumber(round(base * r.nextDouble(0.5, 1.5), 100));
+    }
+
+    private static ValueWriter textWriter(String sample, String fieldName) {
+        if (sample == null) {
+            return (g, r, i) -> g.writeString(fieldName + "-" + i);
+        }
+        if (!sample.isEmpty() && sample.chars().allMatch(Character::isDigit)) {
+            String prefix = sample.substring(0, Math.min(3, sample.length()));
+            int digits = sample.length() - prefix.length();
+            return (g, r, i) -> {
+                StringBuilder sb = new StringBuilder(sample.length()).append(prefix);
+                for (int d = 0; d < digits; d++) {
+                    sb.append((char) ('0' + r.nextInt(10)));
+                }
+                g.writeString(sb.toString());
+            };
+        }
+        int at = sample.indexOf('@');
+        if (at > 0) {
+            String local = sample.substring(0, at);
+            String domain = sample.substring(at);
+            return (g, r, i) -> g.writeString(local + i + domain);
+        }
+        if (HAN_NAME.matcher(sample).matches()) {
+            return (g, r, i) -> g.writeString(SURNAMES[r.nextInt(SURNAMES.length)] + GIVEN_NAMES[r.nextInt(GIVEN_NAMES.length)]);
+        }
+        Matcher m = TRAILING_NUMBER.matcher(sample);
+        if (m.find()) {
+            String head = sample.substring(0, m.start(1));
+            String tail = m.group(2);
+            return (g, r, i) -> g.writeString(head + r.nextInt(1, 1000) + tail);
+        }
+        return (g, r, i) -> g.writeString(sample);
+    }
+
+    private static double round(double value, int scale) {
+        return Math.round(value * scale) / (double) scale;
+    }
+
+    /** SplitMix64 终混函数，使相邻下标得到不相关的种子。 */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static final class Builder {
+        private final StructSpec struct;
+        private InputGenerationRules rules;
+        private long seed;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int chunkSize = 4096;
+
+        private Builder(StructSpec struct) {
+            this.struct = struct;
+        }
+
+        /** 生成规则，默认使用语言包内置规则。 */
+        public Builder rules(InputGenerationRules rules) {
+            this.rules = rules;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /** 每个并行任务生成的记录数。 */
+        public Builder chunkSize(int chunkSize) {
+            if (chunkSize < 1) {
+                throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        public InputGenerator build() {
+            if (rules == null) {
+                rules = InputGenerationRules.bundled();
+            }
+            return new InputGenerator(this);
+        }
+    }
+}
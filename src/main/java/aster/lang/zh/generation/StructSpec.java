@@ -0,0 +1,69 @@
+package aster.lang.zh.generation;
+
+import aster.lang.zh.vocabulary.CompactVocabulary;
+import aster.lang.zh.vocabulary.CompactVocabulary.Kind;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 生成输入所用的结构体定义。
+ *
+ * @param name   结构体名
+ * @param fields 字段，按输出顺序排列
+ */
+public record StructSpec(String name, List<Field> fields) {
+
+    /** 声明的字段类型；未声明时由匹配的规则值推断，都没有则按文本处理。 */
+    public enum FieldType {
+        INT, FLOAT, TEXT, BOOL;
+
+        /**
+         * 解析 Aster 类型名，支持中文（{@code 整数 小数 文本 布尔}）与英文（{@code Int Float Text Bool}）。
+         */
+        public static FieldType parse(String type) {
+            return switch (type) {
+                case "整数", "Int" -> INT;
+                case "小数", "Float" -> FLOAT;
+                case "布尔", "Bool" -> BOOL;
+                case "文本", "Text" -> TEXT;
+                default -> throw new IllegalArgumentException("Unsupported field type: " + type);
+            };
+        }
+    }
+
+    /**
+     * @param key        输出 JSON 中的键
+     * @param matchName  用于匹配生成规则的名称（通常为中文本地化名）
+     * @param type       声明类型，可为 null
+     */
+    public record Field(String key, String matchName, FieldType type) {
+    }
+
+    public StructSpec {
+        fields = List.copyOf(fields);
+    }
+
+    public static StructSpec of(String name, List<Field> fields) {
+        return new StructSpec(name, fields);
+    }
+
+    /**
+     * 从词汇表中取某个结构体的全部字段：输出键为规范名，按本地化名匹配生成规则。
+     *
+     * @throws IllegalArgumentException 词汇表中没有该结构体的字段
+     */
+    public static StructSpec fromVocabulary(CompactVocabulary vocabulary, String structCanonical) {
+        List<Field> fields = new ArrayList<>();
+        for (int e = 0; e < vocabulary.size(); e++) {
+            if (vocabulary.kind(e) == Kind.FIELD && structCanonical.equals(vocabulary.parent(e))
+                    && vocabulary.localized(e) != null) {
+                fields.add(new Field(vocabulary.canonical(e), vocabulary.localized(e), null));
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("No fields for struct " + structCanonical + " in " + vocabulary.id());
+        }
+        return new StructSpec(structCanonical, fields);
+    }
+}
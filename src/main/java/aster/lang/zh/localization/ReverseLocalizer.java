@@ -0,0 +1,337 @@
+package aster.lang.zh.localization;
+
+import aster.core.lexicon.Lexicon;
+import aster.core.lexicon.LexiconRegistry;
+import aster.core.lexicon.SemanticTokenKind;
+import aster.lang.zh.vocabulary.BundledVocabularies;
+import aster.lang.zh.vocabulary.CompactVocabulary.Kind;
+import aster.lang.zh.vocabulary.LayeredVocabulary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 规范 IR → 中文的批量反向本地化器。
+ * <p>
+ * 用于 LSP 悬停、代码透镜和报表等需要把规范英文 IR（{@code Let x be …}、{@code Return}、
+ * {@code Applicant.creditScore}）重新展示为中文的场景。构建时一次性预计算反向索引：
+ * <ul>
+ *   <li>关键词：规范词法表关键词 → zh-CN 关键词，存入字符 trie，支持多词短语、最长匹配。匹配区分大小写
+ *       （规范 IR 中的关键词与规范词法表拼写一致），点号之后的单词是成员访问，不查关键词，
+ *       因此 {@code x.to}、{@code Applicant.result} 以及名为 {@code Result} 的结构体都不会被当作关键词</li>
+ *   <li>运算符：{@code >= <= != ==} → {@code 大于等于 小于等于 不等于 等于}（{@code ChineseOperatorTransformer} 的逆）</li>
+ *   <li>标识符：通过 {@link LayeredVocabulary} 的规范名 → 本地化名索引，点号后的标识符按父结构体限定查找字段</li>
+ * </ul>
+ * 每个片段只做一次线性扫描，字符串字面量原样保留。实例不可变，可在多线程间共享。
+ */
+public final class ReverseLocalizer {
+
+    private static final String[][] OPERATORS = {
+            {">=", "大于等于"},
+            {"<=", "小于等于"},
+            {"!=", "不等于"},
+            {"==", "等于"},
+    };
+
+    private final KeywordTrie keywords;
+    private final LayeredVocabulary vocabulary;
+
+    private ReverseLocalizer(KeywordTrie keywords, LayeredVocabulary vocabulary) {
+        this.keywords = keywords;
+        this.vocabulary = vocabulary;
+    }
+
+    /**
+     * 从两套关键词表构建。同一规范关键词对应多个 {@link SemanticTokenKind} 时，按枚举声明顺序取第一个。
+     *
+     * @param canonical 规范（英文 IR）关键词表
+     * @param localized 目标语言关键词表
+     */
+    public static ReverseLocalizer of(Map<SemanticTokenKind, String> canonical,
+                                      Map<SemanticTokenKind, String> localized,
+                                      LayeredVocabulary vocabulary) {
+        KeywordTrie trie = new KeywordTrie();
+        for (SemanticTokenKind kind : SemanticTokenKind.values()) {
+            String from = canonical.get(kind);
+            String to = localized.get(kind);
+            if (from != null && to != null && !from.isBlank()) {
+                trie.putIfAbsent(from, to);
+            }
+        }
+        return new ReverseLocalizer(trie, vocabulary);
+    }
+
+    public static ReverseLocalizer of(Lexicon canonical, Lexicon localized, LayeredVocabulary vocabulary) {
+        return of(canonical.getKeywords(), localized.getKeywords(), vocabulary);
+    }
+
+    /**
+     * en-US 规范 IR → zh-CN，标识符使用全部内置词汇表。
+     */
+    public static ReverseLocalizer zhCn() {
+        LexiconRegistry registry = LexiconRegistry.getInstance();
+        return of(registry.getOrThrow("en-US"), registry.getOrThrow("zh-CN"),
+                LayeredVocabulary.of(BundledVocabularies.all()));
+    }
+
+    /**
+     * 反向本地化单个 IR 片段。
+     */
+    public String localize(String ir) {
+        StringBuilder out = new StringBuilder(ir.length());
+        localizeInto(ir, out, new Slice(ir));
+        return out.toString();
+    }
+
+    /**
+     * 批量反向本地化，复用同一输出缓冲区。
+     */
+    public List<String> localizeAll(List<String> irs) {
+        List<String> results = new ArrayList<>(irs.size());
+        StringBuilder out = new StringBuilder();
+        for (String ir : irs) {
+            out.setLength(0);
+            localizeInto(ir, out, new Slice(ir));
+            results.add(out.toString());
+        }
+        return results;
+    }
+
+    private void localizeInto(String s, StringBuilder out, Slice word) {
+        int n = s.length();
+        // 上一个标识符解析出的结构体规范名，用于限定 "Struct.field" 中的字段
+        String parentStruct = null;
+        int i = 0;
+        while (i < n) {
+            char c = s.charAt(i);
+            if (c == '"') {
+                int end = s.indexOf('"', i + 1);
+                end = end < 0 ? n : end + 1;
+                out.append(s, i, end);
+                i = end;
+                parentStruct = null;
+                continue;
+            }
+            if (isWordStart(c) && (i == 0 || !isWordPart(s.charAt(i - 1)))) {
+                boolean member = i > 0 && s.charAt(i - 1) == '.';
+                long match = member ? 0 : keywords.match(s, i);
+                if (match != 0) {
+                    out.append(keywords.value((int) (match >>> 32)));
+                    i = (int) match;
+                    parentStruct = null;
+                    continue;
+                }
+                int end = i + 1;
+                while (end < n && isWordPart(s.charAt(end))) {
+                    end++;
+                }
+                word.set(i, end);
+                String localized = null;
+                if (member) {
+                    localized = parentStruct == null ? null : vocabulary.localizedOf(Kind.FIELD, word, parentStruct);
+                    if (localized == null) {
+                        localized = vocabulary.localizedOf(Kind.FIELD, word);
+                    }
+                    parentStruct = null;
+                } else {
+                    localized = vocabulary.localizedOf(Kind.STRUCT, word);
+                    parentStruct = localized != null ? word.toString() : null;
+                    if (localized == null) {
+                        localized = firstLocalized(word);
+                    }
+                }
+                if (localized != null) {
+                    out.append(localized);
+                } else {
+                    out.append(s, i, end);
+                }
+                i = end;
+                continue;
+            }
+            int op = operatorAt(s, i);
+            if (op >= 0) {
+                out.append(OPERATORS[op][1]);
+                i += OPERATORS[op][0].length();
+                continue;
+            }
+            if (c != '.') {
+                parentStruct = null;
+            }
+            out.append(c);
+            i++;
+        }
+    }
+
+    private String firstLocalized(CharSequence word) {
+        String localized = vocabulary.localizedOf(Kind.FUNCTION, word);
+        if (localized == null) {
+            localized = vocabulary.localizedOf(Kind.ENUM_VALUE, word);
+        }
+        if (localized == null) {
+            localized = vocabulary.localizedOf(Kind.FIELD, word);
+        }
+        return localized;
+    }
+
+    private static int operatorAt(String s, int i) {
+        for (int k = 0; k < OPERATORS.length; k++) {
+            if (s.startsWith(OPERATORS[k][0], i)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWordStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /** 对源字符串的可复用只读视图，避免为每个标识符分配子串。 */
+    private static final class Slice implements CharSequence {
+        private final String source;
+        private int start;
+        private int end;
+
+        Slice(String source) {
+            this.source = source;
+        }
+
+        void set(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return source.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return source.subSequence(start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            return source.substring(start, end);
+        }
+    }
+
+    /**
+     * 区分大小写的关键词 trie。
+     * <p>
+     * 转移表为 (节点, 字符) → 子节点的 long/int 开放寻址表。构建完成后只读，可被并发查询。
+     * 短语中的单词间以单个空格分隔。
+     */
+    private static final class KeywordTrie {
+        private long[] keys = new long[512];
+        private int[] children = new int[512];
+        private int transitions;
+        private int nodes = 1;
+        private String[] values = new String[64];
+
+        void putIfAbsent(String phrase, String value) {
+            int node = 0;
+            for (int i = 0; i < phrase.length(); i++) {
+                char c = phrase.charAt(i);
+                int next = child(node, c);
+                if (next == 0) {
+                    next = nodes++;
+                    insert(node, c, next);
+                }
+                node = next;
+            }
+            if (node >= values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, node + 1));
+            }
+            if (values[node] == null) {
+                values[node] = value;
+            }
+        }
+
+        /**
+         * 从 {@code start} 起做最长匹配，匹配结束位置必须是单词边界。
+         *
+         * @return 高 32 位为终止节点、低 32 位为结束位置；无匹配返回 0
+         */
+        long match(String s, int start) {
+            int node = 0;
+            long best = 0;
+            for (int i = start; i < s.length(); i++) {
+                node = child(node, s.charAt(i));
+                if (node == 0) {
+                    break;
+                }
+                if (node < values.length && values[node] != null
+                        && (i + 1 == s.length() || !isWordPart(s.charAt(i + 1)))) {
+                    best = ((long) node << 32) | (i + 1);
+                }
+            }
+            return best;
+        }
+
+        String value(int node) {
+            return values[node];
+        }
+
+        private int child(int node, char c) {
+            long key = ((long) node << 16) | c;
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); children[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return children[slot];
+                }
+            }
+            return 0;
+        }
+
+        private void insert(int node, char c, int child) {
+            if ((transitions + 1) * 2 > keys.length) {
+                rehash();
+            }
+            long key = ((long) node << 16) | c;
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (children[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            children[slot] = child;
+            transitions++;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldChildren = children;
+            keys = new long[oldKeys.length * 2];
+            children = new int[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldChildren[i] != 0) {
+                    int slot = slot(oldKeys[i], mask);
+                    while (children[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    children[slot] = oldChildren[i];
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 32) & mask;
+        }
+    }
+}
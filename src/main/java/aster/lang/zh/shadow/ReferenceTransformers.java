@@ -0,0 +1,129 @@
+package aster.lang.zh.shadow;
+
+import aster.core.canonicalizer.SyntaxTransformer;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 中文变换器的冻结参考实现，作为影子校验的默认参考流水线。
+ * <p>
+ * 这里保留各变换器优化前的直接写法：逐字符标点替换、{@link Matcher#replaceAll} 正则重写、
+ * {@link Matcher#find()} + {@code appendReplacement} 的函数语法重写；不含 CJK 旁路、
+ * Vector 扫描、线性所有格解析和取消检查点。生产代码中的变换器可以继续优化，这里的实现不随之修改，
+ * 否则影子校验就成了优化代码与自身比较。唯一的语义变化是所有格链整条展开：此处把原正则
+ * 反复应用到不再变化，与 {@code PossessiveChainResolver} 的定义一致。
+ * <p>
+ * 只有变换器的<em>预期输出</em>改变时才应修改本类，并同步提升 {@code PipelineFingerprint} 的变换器修订号。
+ */
+final class ReferenceTransformers {
+
+    private static final Pattern NO_SPACE_POSSESSIVE = Pattern.compile(
+            "([\\p{IsHan}]{2,})的([\\p{IsHan}]{2,})"
+    );
+
+    private static final Pattern RULE_FUNC = Pattern.compile(
+            "^(\\s*)(?:规则|Rule)\\s+([\\p{L}][\\p{L}0-9_]*)\\s*\\(([^)]*?)\\)\\s*(.*)$",
+            Pattern.MULTILINE | Pattern.UNICODE_CHARACTER_CLASS
+    );
+
+    private static final Pattern CHINESE_LET_BE = Pattern.compile(
+            "^(\\s*)令\\s+([\\p{L}][\\p{L}0-9_]*)\\s+定义为\\s+",
+            Pattern.MULTILINE | Pattern.UNICODE_CHARACTER_CLASS
+    );
+
+    private static final Pattern CHINESE_SET_TO = Pattern.compile(
+            "^(\\s*)将\\s+([\\p{L}][\\p{L}0-9_]*)\\s+设为\\s+",
+            Pattern.MULTILINE | Pattern.UNICODE_CHARACTER_CLASS
+    );
+
+    private static final Pattern CHINESE_RESULT_IS = Pattern.compile(
+            "^(\\s*)结果为\\s+",
+            Pattern.MULTILINE | Pattern.UNICODE_CHARACTER_CLASS
+    );
+
+    /** 注册名 → 参考实现，按 {@code zh-CN.json} 中的执行顺序排列。 */
+    static final Map<String, SyntaxTransformer> ZH_CN = zhCn();
+
+    private ReferenceTransformers() {}
+
+    private static Map<String, SyntaxTransformer> zhCn() {
+        Map<String, SyntaxTransformer> m = new LinkedHashMap<>();
+        m.put("chinese-punctuation",
+                (source, config, segmenter) -> segmenter.transformOutsideStrings(source, ReferenceTransformers::punctuation));
+        m.put("chinese-possessive",
+                (source, config, segmenter) -> segmenter.transformOutsideStrings(source, ReferenceTransformers::possessive));
+        m.put("chinese-operator",
+                (source, config, segmenter) -> segmenter.transformOutsideStrings(source, ReferenceTransformers::operators));
+        m.put("chinese-let-be",
+                (source, config, segmenter) -> segmenter.replaceOutsideStrings(source, CHINESE_LET_BE, "$1Let $2 be "));
+        m.put("chinese-function-syntax",
+                (source, config, segmenter) -> ruleFunc(source));
+        m.put("chinese-set-to",
+                (source, config, segmenter) -> segmenter.replaceOutsideStrings(source, CHINESE_SET_TO, "$1Let $2 be "));
+        m.put("chinese-result-is",
+                (source, config, segmenter) -> segmenter.replaceOutsideStrings(source, CHINESE_RESULT_IS, "$1Return "));
+        return m;
+    }
+
+    /** 按执行顺序排列的参考实现。 */
+    static List<SyntaxTransformer> chain() {
+        return List.copyOf(ZH_CN.values());
+    }
+
+    private static String punctuation(String s) {
+        StringBuilder result = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '。' -> result.append('.');     // 。→ .
+                case '，' -> result.append(',');     // ， → ,
+                case '：' -> result.append(':');     // ： → :
+                case '、' -> result.append(',');     // 、 → ,
+                default -> result.append(ch);
+            }
+        }
+        return result.toString();
+    }
+
+    private static String possessive(String text) {
+        String s = text.replace(" 的 ", ".");
+        String previous;
+        do {
+            previous = s;
+            s = NO_SPACE_POSSESSIVE.matcher(s).replaceAll("$1.$2");
+        } while (!s.equals(previous));
+        return s;
+    }
+
+    private static String operators(String s) {
+        s = s.replace("大于等于", " >= ")
+             .replace("小于等于", " <= ")
+             .replace("不等于", " != ")
+             .replace("等于", " == ");
+        s = s.replaceAll("\\s+则\\s*$", ":");
+        s = s.replaceAll("\\s+则\\s*\\n", ":\n");
+        s = s.replaceAll("设置\\s+([^为]+)\\s+为\\s+", "令 $1 定义为 ");
+        return s;
+    }
+
+    private static String ruleFunc(String s) {
+        Matcher m = RULE_FUNC.matcher(s);
+        StringBuilder sb = new StringBuilder();
+        while (m.find()) {
+            String indent = m.group(1);
+            String funcName = m.group(2);
+            String params = m.group(3).trim();
+            String rest = m.group(4);
+            String replacement = params.isEmpty()
+                    ? indent + "Rule " + funcName + " " + rest
+                    : indent + "Rule " + funcName + " given " + params + " " + rest;
+            m.appendReplacement(sb, Matcher.quoteReplacement(replacement));
+        }
+        m.appendTail(sb);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,327 @@
+package aster.lang.zh.shadow;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.canonicalizer.StringSegmenter;
+import aster.core.canonicalizer.SyntaxTransformer;
+import aster.core.lexicon.CanonicalizationConfig;
+import aster.core.lexicon.LexiconRegistry;
+import aster.lang.zh.ZhCnPlugin;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 优化流水线的影子校验（抽样模式）。
+ * <p>
+ * 请求路径照常只运行优化后的流水线并立即返回结果；按 {@link Builder#sampleRate 抽样率} 选中的调用，
+ * 再把输入和优化结果交给独立的 {@link Executor}，在后台运行参考流水线并逐字节比较
+ * （{@link String#equals} 逐 UTF-16 单元相等，即 UTF-8 编码逐字节相等）。不一致时记录
+ * {@link Mismatch}（附带原始输入），通知 {@link Builder#onMismatch} 监听器并保留最近若干条。
+ * <p>
+ * 后台积压超过 {@link Builder#maxPending} 时直接丢弃新的抽样（计入 {@link Stats#dropped()}），
+ * 保证影子校验不会给请求路径增加延迟或无界内存。
+ * <p>
+ * 默认参考（{@link #zhCn()}、{@link #zhCn(UnaryOperator)}）是冻结的中文变换器链：保留各变换器优化前的直接实现，
+ * 不随生产代码一起优化。它只覆盖中文变换器阶段，不是生产流水线：不经过 core 的关键词翻译与其他变换器，
+ * 使用默认 {@link CanonicalizationConfig} 和 {@code 「」} 界定符，而不是 zh-CN 词法表中的配置。
+ * 常规 {@link Canonicalizer} 内部运行的正是优化后的变换器，只能作为流水线外层优化（缓存、批内去重等）的参考，
+ * 见 {@link #zhCnCanonicalizer}。
+ * 监听器逐个隔离调用，一个监听器抛出异常不影响其余监听器。
+ * <p>
+ * 线程安全。使用内部执行器时，不再需要时应 {@link #close() 关闭}。
+ */
+public final class ShadowVerifier implements UnaryOperator<String>, AutoCloseable {
+
+    /**
+     * 一次不一致的影子校验。
+     *
+     * @param input    原始输入
+     * @param actual   优化流水线的输出
+     * @param expected 参考流水线的输出；参考流水线抛出异常时为 null
+     * @param error    参考流水线抛出的异常，正常时为 null
+     * @param at       记录时间
+     */
+    public record Mismatch(String input, String actual, String expected, Throwable error, Instant at) {
+    }
+
+    /**
+     * 累计统计。
+     *
+     * @param calls            经过本校验器的调用数
+     * @param sampled          被抽中并提交后台校验的调用数
+     * @param verified         已完成比较的次数
+     * @param mismatches       不一致次数
+     * @param dropped          因积压而放弃的抽样数
+     * @param listenerFailures 监听器抛出异常的次数
+     */
+    public record Stats(long calls, long sampled, long verified, long mismatches, long dropped,
+                        long listenerFailures) {
+    }
+
+    private final UnaryOperator<String> primary;
+    private final UnaryOperator<String> reference;
+    private final double sampleRate;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final int maxPending;
+    private final Semaphore pending;
+    private final List<Consumer<Mismatch>> listeners;
+    private final int retained;
+    private final ArrayDeque<Mismatch> recent = new ArrayDeque<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder verified = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder listenerFailures = new LongAdder();
+
+    private ShadowVerifier(Builder b) {
+        this.primary = b.primary;
+        this.reference = b.reference;
+        this.sampleRate = b.sampleRate;
+        if (b.executor != null) {
+            this.executor = b.executor;
+            this.ownedExecutor = null;
+        } else {
+            this.ownedExecutor = Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform().name("zh-shadow-verifier").daemon(true).factory());
+            this.executor = ownedExecutor;
+        }
+        this.maxPending = b.maxPending;
+        this.pending = new Semaphore(b.maxPending);
+        this.listeners = List.copyOf(b.listeners);
+        this.retained = b.retained;
+    }
+
+    /**
+     * @param primary   请求路径上的（优化）流水线
+     * @param reference 参考流水线，必须线程安全
+     */
+    public static Builder builder(UnaryOperator<String> primary, UnaryOperator<String> reference) {
+        return new Builder(primary, reference);
+    }
+
+    /**
+     * 以冻结的参考实现校验插件当前注册的中文变换器（按 {@code zh-CN.json} 中的顺序串联）。
+     * <p>
+     * 两侧都只是 7 个中文变换器经 {@link #transformerChain} 的直接串联，没有 core 的步骤，
+     * 输出与 zh-CN {@link Canonicalizer} 的结果不同；它校验的是变换器本身的优化，不能代替对生产流水线的校验。
+     */
+    public static Builder zhCn() {
+        Map<String, Supplier<SyntaxTransformer>> registered = new ZhCnPlugin().getTransformers();
+        SyntaxTransformer[] optimized = ReferenceTransformers.ZH_CN.keySet().stream()
+                .map(name -> registered.get(name).get())
+                .toArray(SyntaxTransformer[]::new);
+        return zhCn(transformerChain(optimized));
+    }
+
+    /**
+     * 以冻结的参考变换器链校验 {@code optimized}。{@code optimized} 应是中文变换器阶段的等价实现
+     * （输入输出与依次执行 7 个中文变换器相同），而不是完整的规范化流水线。
+     */
+    public static Builder zhCn(UnaryOperator<String> optimized) {
+        return builder(optimized, transformerChain(ReferenceTransformers.chain().toArray(SyntaxTransformer[]::new)));
+    }
+
+    /**
+     * 以常规 zh-CN {@link Canonicalizer} 为参考校验完整流水线 {@code optimized}。
+     * <p>
+     * 参考流水线内运行的是优化后的中文变换器，因此只能发现变换器之外的差异（如结果缓存、批内去重）；
+     * 变换器本身的优化应使用 {@link #zhCn()} 校验。
+     */
+    public static Builder zhCnCanonicalizer(UnaryOperator<String> optimized) {
+        return builder(optimized, new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN"))::canonicalize);
+    }
+
+    /**
+     * 按给定顺序串联变换器，使用默认配置与 {@code 「」} 字符串界定符，可作为变换器级别的参考流水线。
+     */
+    public static UnaryOperator<String> transformerChain(SyntaxTransformer... transformers) {
+        List<SyntaxTransformer> chain = List.of(transformers);
+        CanonicalizationConfig config = CanonicalizationConfig.defaults();
+        StringSegmenter segmenter = new StringSegmenter("「", "」");
+        return source -> {
+            String s = source;
+            for (SyntaxTransformer t : chain) {
+                s = t.transform(s, config, segmenter);
+            }
+            return s;
+        };
+    }
+
+    /**
+     * 运行优化流水线并返回其结果；被抽中时在后台与参考流水线比较。
+     */
+    @Override
+    public String apply(String source) {
+        String result = primary.apply(source);
+        calls.increment();
+        if (sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            submit(source, result);
+        }
+        return result;
+    }
+
+    /** {@link #apply} 的别名。 */
+    public String canonicalize(String source) {
+        return apply(source);
+    }
+
+    public Stats stats() {
+        return new Stats(calls.sum(), sampled.sum(), verified.sum(), mismatches.sum(), dropped.sum(),
+                listenerFailures.sum());
+    }
+
+    /** 最近保留的不一致记录，按时间先后排列。 */
+    public List<Mismatch> recentMismatches() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    /**
+     * 等待已提交的后台校验全部完成（用于测试与停机前排空）。
+     *
+     * @return 超时前是否全部完成
+     */
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!pending.tryAcquire(maxPending, timeout, unit)) {
+            return false;
+        }
+        pending.release(maxPending);
+        return true;
+    }
+
+    /** 关闭内部执行器；使用外部执行器时不做任何事。 */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    private void submit(String source, String actual) {
+        if (!pending.tryAcquire()) {
+            dropped.increment();
+            return;
+        }
+        sampled.increment();
+        try {
+            executor.execute(() -> {
+                try {
+                    verify(source, actual);
+                } finally {
+                    pending.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.release();
+            dropped.increment();
+        }
+    }
+
+    private void verify(String source, String actual) {
+        String expected;
+        Throwable error = null;
+        try {
+            expected = reference.apply(source);
+        } catch (RuntimeException | StackOverflowError e) {
+            // 参考实现在深层输入上栈溢出属于可记录的差异；其他 Error（如 OutOfMemoryError）照常抛出
+            expected = null;
+            error = e;
+        }
+        verified.increment();
+        if (error == null && actual.equals(expected)) {
+            return;
+        }
+        mismatches.increment();
+        Mismatch mismatch = new Mismatch(source, actual, expected, error, Instant.now());
+        synchronized (recent) {
+            if (recent.size() == retained) {
+                recent.removeFirst();
+            }
+            recent.addLast(mismatch);
+        }
+        for (Consumer<Mismatch> listener : listeners) {
+            try {
+                listener.accept(mismatch);
+            } catch (RuntimeException e) {
+                // 监听器的异常不能阻断其余监听器，也不能逃逸到执行器线程
+                listenerFailures.increment();
+            }
+        }
+    }
+
+    public static final class Builder {
+        private final UnaryOperator<String> primary;
+        private final UnaryOperator<String> reference;
+        private double sampleRate = 0.01;
+        private Executor executor;
+        private int maxPending = 64;
+        private int retained = 100;
+        private final List<Consumer<Mismatch>> listeners = new ArrayList<>();
+
+        private Builder(UnaryOperator<String> primary, UnaryOperator<String> reference) {
+            this.primary = primary;
+            this.reference = reference;
+        }
+
+        /** 抽样率，取值 [0, 1]，默认 0.01。 */
+        public Builder sampleRate(double sampleRate) {
+            if (!(sampleRate >= 0 && sampleRate <= 1)) {
+                throw new IllegalArgumentException("sampleRate must be in [0, 1]: " + sampleRate);
+            }
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        /** 运行参考流水线的执行器；默认使用一个内部的后台守护线程。 */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /** 允许积压的后台校验数，超出后丢弃新的抽样，默认 64。 */
+        public Builder maxPending(int maxPending) {
+            if (maxPending < 1) {
+                throw new IllegalArgumentException("maxPending must be >= 1: " + maxPending);
+            }
+            this.maxPending = maxPending;
+            return this;
+        }
+
+        /** 保留的最近不一致记录数，默认 100。 */
+        public Builder retain(int retained) {
+            if (retained < 1) {
+                throw new IllegalArgumentException("retain must be >= 1: " + retained);
+            }
+            this.retained = retained;
+            return this;
+        }
+
+        /** 不一致时在执行器线程上回调；抛出的异常被隔离并计入 {@link Stats#listenerFailures()}。 */
+        public Builder onMismatch(Consumer<Mismatch> listener) {
+            listeners.add(listener);
+            return this;
+        }
+
+        public ShadowVerifier build() {
+            return new ShadowVerifier(this);
+        }
+    }
+}
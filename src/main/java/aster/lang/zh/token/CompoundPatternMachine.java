@@ -0,0 +1,220 @@
+package aster.lang.zh.token;
+
+import aster.core.lexicon.SemanticTokenKind;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * 由词法表 {@code canonicalization.compoundPatterns} 编译出的上下文状态机。
+ * <p>
+ * 复合模式由开启词、上下文关键词和结束条件组成，例如 zh-CN 的
+ * <ul>
+ *   <li>{@code match-when}：{@code 匹配于}（MATCH）开启，{@code 当}（WHEN）仅在其作用域内是关键词，缩进回退（DEDENT）结束</li>
+ *   <li>{@code let-be}：{@code 令}（LET）开启，{@code 定义为}（BE）仅在其作用域内是关键词，行尾（NEWLINE）结束</li>
+ * </ul>
+ * 编译结果是按 {@link SemanticTokenKind} 序号索引的两张位集表（每个种类开启哪些模式、在哪些模式内生效），
+ * 词法扫描时由 {@link Cursor} 随单元推进维护当前打开的作用域：判定一个上下文关键词只需一次表查找和一次位与，
+ * 不需要为开启词和结束条件再扫描源码。作用域外的上下文关键词按普通标识符处理。
+ * <p>
+ * 实例不可变，可在多线程间共享；{@link Cursor} 属于单次扫描。
+ */
+public final class CompoundPatternMachine {
+
+    /** 复合模式的结束条件。 */
+    public enum Closer {
+        /** 开启词所在行结束。 */
+        NEWLINE,
+        /** 之后出现缩进不深于开启行的非空行。 */
+        DEDENT
+    }
+
+    /**
+     * 一个复合模式。
+     *
+     * @param name               模式名
+     * @param opener             开启词种类
+     * @param contextualKeywords 只在作用域内生效的关键词种类
+     * @param closer             结束条件
+     */
+    public record Pattern(String name, SemanticTokenKind opener, Set<SemanticTokenKind> contextualKeywords,
+                          Closer closer) {
+
+        public Pattern {
+            contextualKeywords = Set.copyOf(contextualKeywords);
+        }
+    }
+
+    /** 不含任何模式：所有关键词都不受上下文限制。 */
+    public static final CompoundPatternMachine NONE = compile(List.of());
+
+    private static final int MAX_PATTERNS = Long.SIZE;
+
+    private final List<Pattern> patterns;
+    /** 按种类序号：该种类开启的模式位集。 */
+    private final long[] opens;
+    /** 按种类序号：该种类作为上下文关键词生效的模式位集，0 表示不受限制。 */
+    private final long[] contextual;
+    /** 以行尾结束的模式位集。 */
+    private final long newlineClosed;
+
+    private CompoundPatternMachine(List<Pattern> patterns) {
+        this.patterns = patterns;
+        int kinds = SemanticTokenKind.values().length;
+        this.opens = new long[kinds];
+        this.contextual = new long[kinds];
+        long newline = 0;
+        for (int p = 0; p < patterns.size(); p++) {
+            Pattern pattern = patterns.get(p);
+            long bit = 1L << p;
+            opens[pattern.opener().ordinal()] |= bit;
+            for (SemanticTokenKind kind : pattern.contextualKeywords()) {
+                contextual[kind.ordinal()] |= bit;
+            }
+            if (pattern.closer() == Closer.NEWLINE) {
+                newline |= bit;
+            }
+        }
+        this.newlineClosed = newline;
+    }
+
+    /** 编译一组模式。 */
+    public static CompoundPatternMachine compile(List<Pattern> patterns) {
+        if (patterns.size() > MAX_PATTERNS) {
+            throw new IllegalArgumentException("Too many compound patterns: " + patterns.size());
+        }
+        return new CompoundPatternMachine(List.copyOf(patterns));
+    }
+
+    /**
+     * 从词法表 JSON 的 {@code canonicalization.compoundPatterns} 数组编译；缺失或为空时等价于 {@link #NONE}。
+     */
+    public static CompoundPatternMachine fromJson(JsonNode compoundPatterns) {
+        List<Pattern> patterns = new ArrayList<>();
+        if (compoundPatterns != null) {
+            for (JsonNode node : compoundPatterns) {
+                String name = node.path("name").asText();
+                Set<SemanticTokenKind> contextual = EnumSet.noneOf(SemanticTokenKind.class);
+                for (JsonNode kind : node.path("contextualKeywords")) {
+                    contextual.add(kind(name, kind.asText()));
+                }
+                patterns.add(new Pattern(name, kind(name, node.path("opener").asText()), contextual,
+                        closer(name, node.path("closer").asText())));
+            }
+        }
+        return compile(patterns);
+    }
+
+    public List<Pattern> patterns() {
+        return patterns;
+    }
+
+    /** {@code kind} 是否只在某些复合模式内才是关键词。 */
+    public boolean isContextual(SemanticTokenKind kind) {
+        return contextual[kind.ordinal()] != 0;
+    }
+
+    /** 开始一次扫描。 */
+    public Cursor start() {
+        return new Cursor();
+    }
+
+    private static SemanticTokenKind kind(String pattern, String name) {
+        try {
+            return SemanticTokenKind.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown keyword kind in compound pattern " + pattern + ": " + name, e);
+        }
+    }
+
+    private static Closer closer(String pattern, String name) {
+        try {
+            return Closer.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown closer in compound pattern " + pattern + ": " + name, e);
+        }
+    }
+
+    /**
+     * 单次扫描中的作用域状态。调用方在每个非空行的第一个单元之前调用 {@link #lineStart}，
+     * 产出关键词后调用 {@link #keyword}，遇到换行调用 {@link #newline}。
+     */
+    public final class Cursor {
+        private int[] scopes = new int[8];
+        private int[] indents = new int[8];
+        private int depth;
+        /** 当前打开的模式位集。 */
+        private long active;
+        private int indent;
+
+        private Cursor() {}
+
+        /** 新的非空行开始：关闭缩进不深于开启行的 DEDENT 作用域。 */
+        public void lineStart(int indent) {
+            this.indent = indent;
+            if (depth > 0) {
+                retain(k -> patterns.get(scopes[k]).closer() != Closer.DEDENT || indent > indents[k]);
+            }
+        }
+
+        /** 当前位置是否接受 {@code kind} 作为关键词。 */
+        public boolean accepts(SemanticTokenKind kind) {
+            long allowed = contextual[kind.ordinal()];
+            return allowed == 0 || (active & allowed) != 0;
+        }
+
+        /** 已产出关键词 {@code kind}：它若是开启词，则打开对应作用域。 */
+        public void keyword(SemanticTokenKind kind) {
+            long opened = opens[kind.ordinal()];
+            while (opened != 0) {
+                int p = Long.numberOfTrailingZeros(opened);
+                opened &= opened - 1;
+                push(p);
+            }
+        }
+
+        /** 行结束：关闭以行尾结束的作用域。 */
+        public void newline() {
+            if ((active & newlineClosed) != 0) {
+                retain(k -> (newlineClosed & (1L << scopes[k])) == 0);
+            }
+        }
+
+        /** 当前打开的作用域数。 */
+        public int depth() {
+            return depth;
+        }
+
+        private void push(int pattern) {
+            if (depth == scopes.length) {
+                scopes = Arrays.copyOf(scopes, depth * 2);
+                indents = Arrays.copyOf(indents, depth * 2);
+            }
+            scopes[depth] = pattern;
+            indents[depth] = indent;
+            depth++;
+            active |= 1L << pattern;
+        }
+
+        /** 只保留满足条件的作用域（保持嵌套顺序），并重算打开的模式位集。 */
+        private void retain(IntPredicate keep) {
+            int kept = 0;
+            long mask = 0;
+            for (int k = 0; k < depth; k++) {
+                if (keep.test(k)) {
+                    scopes[kept] = scopes[k];
+                    indents[kept] = indents[k];
+                    mask |= 1L << scopes[kept];
+                    kept++;
+                }
+            }
+            depth = kept;
+            active = mask;
+        }
+    }
+}
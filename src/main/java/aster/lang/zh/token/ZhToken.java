@@ -0,0 +1,41 @@
+package aster.lang.zh.token;
+
+import aster.core.lexicon.SemanticTokenKind;
+
+/**
+ * zh-CN 源码直接产出的词法单元。
+ * <p>
+ * 偏移始终指向原始中文源码（{@code [start, end)}），便于诊断与 LSP 定位；{@code text} 为规范化后的值：
+ * <ul>
+ *   <li>{@link Type#KEYWORD}：源码中的关键词原文，语义见 {@link #keyword()}</li>
+ *   <li>{@link Type#IDENTIFIER}、{@link Type#NUMBER}：全角字符折叠为半角后的原文</li>
+ *   <li>{@link Type#STRING}：去掉引号后的字面量内容</li>
+ *   <li>{@link Type#PUNCTUATION}、{@link Type#OPERATOR}：规范 ASCII 形式（{@code 。} → {@code .}，{@code 大于等于} → {@code >=}）</li>
+ * </ul>
+ * 由变换器合成的单元（例如 {@code 的} → {@code .}、{@code 则} → {@code :}）的偏移覆盖被替换的源码片段。
+ *
+ * @param keyword 仅 {@link Type#KEYWORD} 非空
+ */
+public record ZhToken(Type type, SemanticTokenKind keyword, String text, int start, int end) {
+
+    public enum Type {
+        KEYWORD,
+        IDENTIFIER,
+        NUMBER,
+        STRING,
+        PUNCTUATION,
+        OPERATOR,
+        NEWLINE
+    }
+
+    public boolean is(SemanticTokenKind kind) {
+        return keyword == kind;
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.KEYWORD
+                ? "KEYWORD(" + keyword + ")@" + start
+                : type + "(" + text + ")@" + start;
+    }
+}
@@ -0,0 +1,429 @@
+package aster.lang.zh.token;
+
+import aster.core.lexicon.Lexicon;
+import aster.core.lexicon.SemanticTokenKind;
+import aster.lang.zh.ZhCnResources;
+import aster.lang.zh.transformers.PossessiveChainResolver;
+import aster.lang.zh.token.ZhToken.Type;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * zh-CN 源码的直接词法化模式。
+ * <p>
+ * 常规流水线先生成完整的规范英文字符串，core 词法器再重新扫描一遍找出刚写入的关键词。
+ * 只需要词法单元的调用方（语法高亮、LSP 语义标记、结构化索引）可以直接使用本类：一次线性扫描，
+ * 不构造中间字符串，关键词种类取自 {@code zh-CN.json} 的 {@code keywords}。
+ * <p>
+ * 产出的单元序列与中文变换器的重写保持一致：
+ * <ul>
+ *   <li>中文标点与全角字符折叠为 ASCII 标点（{@code chinese-punctuation}）</li>
+ *   <li>{@code 大于等于 小于等于 不等于 等于} → 运算符，{@code 则}（行尾）→ {@code :}（{@code chinese-operator}）</li>
+ *   <li>{@code 的} → 成员访问 {@code .}（{@code chinese-possessive}）</li>
+ *   <li>{@code 规则 f(参数)} → {@code FUNC_TO f FUNC_GIVEN 参数}（{@code chinese-function-syntax}）</li>
+ *   <li>{@code 结果为} → {@code RETURN}，{@code 将 X 设为}、{@code 设置 X 为} → {@code LET X BE}</li>
+ * </ul>
+ * 词法表的复合模式（{@code compoundPatterns}）编译为 {@link CompoundPatternMachine}，在同一遍扫描中跟踪作用域：
+ * 上下文关键词（zh-CN 的 {@code 当}、{@code 定义为}）只在对应开启词的作用域内产出关键词，之外按标识符处理。
+ * 关键词只在完整单词上匹配，{@code 测试或者} 这类包含关键词的标识符不会被拆开。
+ * 实例不可变，可在多线程间共享。
+ */
+public final class ZhTokenizer {
+
+    private static final String[][] OPERATOR_WORDS = {
+            {"大于等于", ">="},
+            {"小于等于", "<="},
+            {"不等于", "!="},
+            {"等于", "=="},
+    };
+
+    private final Map<String, SemanticTokenKind> keywords;
+    private final CompoundPatternMachine compoundPatterns;
+
+    private ZhTokenizer(Map<String, SemanticTokenKind> keywords, CompoundPatternMachine compoundPatterns) {
+        this.keywords = keywords;
+        this.compoundPatterns = compoundPatterns;
+    }
+
+    /**
+     * 从关键词表构建，不带复合模式（所有关键词不受上下文限制）。
+     * 多个种类共用同一个词时（如 {@code TYPE_HAS}/{@code TYPE_WITH}），取枚举声明顺序中的第一个。
+     */
+    public static ZhTokenizer of(Map<SemanticTokenKind, String> keywords) {
+        return of(keywords, CompoundPatternMachine.NONE);
+    }
+
+    /**
+     * 从关键词表与编译好的复合模式构建。
+     */
+    public static ZhTokenizer of(Map<SemanticTokenKind, String> keywords, CompoundPatternMachine compoundPatterns) {
+        Map<String, SemanticTokenKind> byWord = new HashMap<>();
+        for (SemanticTokenKind kind : SemanticTokenKind.values()) {
+            String word = keywords.get(kind);
+            if (word != null && !word.isBlank()) {
+                byWord.putIfAbsent(word, kind);
+            }
+        }
+        return new ZhTokenizer(Map.copyOf(byWord), compoundPatterns);
+    }
+
+    /**
+     * 从词法表构建。core 的 {@link Lexicon} 接口不暴露复合模式，zh-CN 词法表使用随其一同编译的
+     * {@link ZhCnResources#compoundPatterns()}，其他词法表不带复合模式。
+     */
+    public static ZhTokenizer of(Lexicon lexicon) {
+        return of(lexicon.getKeywords(),
+                "zh-CN".equals(lexicon.getId()) ? ZhCnResources.compoundPatterns() : CompoundPatternMachine.NONE);
+    }
+
+    /** 使用共享的 zh-CN 词法表与复合模式。 */
+    public static ZhTokenizer zhCn() {
+        return of(ZhCnResources.lexicon().getKeywords(), ZhCnResources.compoundPatterns());
+    }
+
+    public List<ZhToken> tokenize(String source) {
+        List<ZhToken> tokens = new ArrayList<>(source.length() / 3 + 8);
+        tokenize(source, tokens::add);
+        return tokens;
+    }
+
+    /**
+     * 逐个推送词法单元，不缓存整个序列。
+     */
+    public void tokenize(String source, Consumer<ZhToken> sink) {
+        new Scan(source, sink).run();
+    }
+
+    /** 单次扫描的可变状态，不跨调用共享。 */
+    private final class Scan {
+        private final String s;
+        private final Consumer<ZhToken> sink;
+        private final int n;
+        private final CompoundPatternMachine.Cursor scopes = compoundPatterns.start();
+        private int i;
+        /** 当前行的起始偏移。 */
+        private int lineBegin;
+        /** 当前行尚未遇到非空白字符。 */
+        private boolean indentPending = true;
+        /** 当前行是否尚未产出任何单元。 */
+        private boolean lineStart = true;
+        /** 行首为 {@code 规则}，下一个标识符是函数名。 */
+        private boolean ruleHeader;
+        /** 上一个单元是函数名，紧随其后的 {@code (} 开启参数列表。 */
+        private boolean afterRuleName;
+        /** 位于函数头参数列表内，第一个 {@code )} 结束。 */
+        private boolean inParams;
+        /** 本行 {@code LET} 对应的 {@code BE} 关键词原文（{@code 设为} 或 {@code 为}）。 */
+        private String pendingBe;
+
+        Scan(String s, Consumer<ZhToken> sink) {
+            this.s = s;
+            this.sink = sink;
+            this.n = s.length();
+        }
+
+        void run() {
+            while (i < n) {
+                char c = s.charAt(i);
+                if (c == '\n') {
+                    emit(Type.NEWLINE, null, "\n", i, i + 1);
+                    i++;
+                    lineBegin = i;
+                    indentPending = true;
+                    ruleHeader = false;
+                    inParams = false;
+                    pendingBe = null;
+                } else if (Character.isWhitespace(c) || c == '　') {
+                    i++;
+                } else if (indentPending) {
+                    indentPending = false;
+                    scopes.lineStart(i - lineBegin);
+                } else if (c == '「' || c == '"') {
+                    string(c == '「' ? '」' : '"');
+                } else if (isDigit(c)) {
+                    number();
+                } else if (isWordStart(c)) {
+                    word();
+                } else {
+                    symbol(c);
+                }
+            }
+        }
+
+        private void string(char close) {
+            int start = i;
+            int end = s.indexOf(close, i + 1);
+            int contentEnd = end < 0 ? n : end;
+            i = end < 0 ? n : end + 1;
+            emit(Type.STRING, null, s.substring(start + 1, contentEnd), start, i);
+        }
+
+        private void number() {
+            int start = i;
+            StringBuilder text = new StringBuilder();
+            while (i < n) {
+                char c = fold(s.charAt(i));
+                if (isDigit(c) || (c == '.' && !text.isEmpty() && i + 1 < n && isDigit(s.charAt(i + 1)))) {
+                    text.append(c);
+                    i++;
+                } else {
+                    break;
+                }
+            }
+            emit(Type.NUMBER, null, text.toString(), start, i);
+        }
+
+        private void word() {
+            int start = i;
+            int op = operatorWordAt(i);
+            if (op >= 0) {
+                i += OPERATOR_WORDS[op][0].length();
+                emit(Type.OPERATOR, null, OPERATOR_WORDS[op][1], start, i);
+                return;
+            }
+            int end = i + 1;
+            while (end < n && isWordPart(s.charAt(end)) && operatorWordAt(end) < 0) {
+                end++;
+            }
+            i = end;
+            String word = s.substring(start, end);
+
+            if (word.equals("则") && restOfLineBlank(end)) {
+                emit(Type.PUNCTUATION, null, ":", start, end);
+                return;
+            }
+            if (word.equals("的")) {
+                emit(Type.PUNCTUATION, null, ".", start, end);
+                return;
+            }
+            if (pendingBe != null && word.equals(pendingBe)) {
+                pendingBe = null;
+                emit(Type.KEYWORD, SemanticTokenKind.BE, word, start, end);
+                return;
+            }
+            if (lineStart) {
+                SemanticTokenKind rewritten = lineStartRewrite(word, end);
+                if (rewritten != null) {
+                    emit(Type.KEYWORD, rewritten, word, start, end);
+                    return;
+                }
+            }
+            SemanticTokenKind kind = keywords.get(word);
+            if (kind != null && scopes.accepts(kind)) {
+                boolean header = kind == SemanticTokenKind.FUNC_TO && lineStart;
+                emit(Type.KEYWORD, kind, word, start, end);
+                ruleHeader = header;
+                return;
+            }
+            if (word.equals("Rule") && lineStart) {
+                emit(Type.KEYWORD, SemanticTokenKind.FUNC_TO, word, start, end);
+                ruleHeader = true;
+                return;
+            }
+            boolean name = ruleHeader;
+            identifier(start, end);
+            afterRuleName = name;
+        }
+
+        /**
+         * 行首重写：{@code 结果为} → RETURN；{@code 将 X 设为} 与 {@code 设置 X 为} → LET … BE。
+         */
+        private SemanticTokenKind lineStartRewrite(String word, int end) {
+            switch (word) {
+                case "结果为" -> {
+                    if (end < n && Character.isWhitespace(s.charAt(end))) {
+                        return SemanticTokenKind.RETURN;
+                    }
+                }
+                case "将" -> {
+                    if (followedByIdentifierThen(end, "设为")) {
+                        pendingBe = "设为";
+                        return SemanticTokenKind.LET;
+                    }
+                }
+                case "设置" -> {
+                    if (lineContainsWord(end, "为")) {
+                        pendingBe = "为";
+                        return SemanticTokenKind.LET;
+                    }
+                }
+                default -> {
+                }
+            }
+            return null;
+        }
+
+        /** 按 {@code chinese-possessive} 展开所有格链：可拆分的 {@code 的} 产出成员访问 {@code .}。 */
+        private void identifier(int start, int end) {
+            int[] pieceStart = {start};
+            PossessiveChainResolver.DEFAULT.splits(s, start, end, split -> {
+                emitIdentifier(pieceStart[0], split);
+                emit(Type.PUNCTUATION, null, ".", split, split + 1);
+                pieceStart[0] = split + 1;
+            });
+            emitIdentifier(pieceStart[0], end);
+        }
+
+        private void emitIdentifier(int start, int end) {
+            if (start < end) {
+                emit(Type.IDENTIFIER, null, foldAll(start, end), start, end);
+            }
+        }
+
+        private void symbol(char raw) {
+            int start = i;
+            char c = fold(raw);
+            if (c == '(' && afterRuleName) {
+                i++;
+                afterRuleName = false;
+                inParams = true;
+                if (!paramsBlank(i)) {
+                    emit(Type.KEYWORD, SemanticTokenKind.FUNC_GIVEN, "(", start, i);
+                }
+                return;
+            }
+            if (c == ')' && inParams) {
+                inParams = false;
+                i++;
+                return;
+            }
+            String op = asciiOperator(start);
+            if (op != null) {
+                i += op.length();
+                emit(Type.OPERATOR, null, op, start, i);
+                return;
+            }
+            i++;
+            emit(Type.PUNCTUATION, null, String.valueOf(c), start, i);
+        }
+
+        private String asciiOperator(int at) {
+            char c = fold(s.charAt(at));
+            char next = at + 1 < n ? fold(s.charAt(at + 1)) : 0;
+            if ((c == '>' || c == '<' || c == '=' || c == '!') && next == '=') {
+                return "" + c + next;
+            }
+            return switch (c) {
+                case '+', '-', '*', '/', '<', '>', '=' -> String.valueOf(c);
+                default -> null;
+            };
+        }
+
+        private boolean paramsBlank(int from) {
+            for (int k = from; k < n; k++) {
+                char c = fold(s.charAt(k));
+                if (c == ')' || c == '\n') {
+                    return true;
+                }
+                if (!Character.isWhitespace(c)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean restOfLineBlank(int from) {
+            for (int k = from; k < n && s.charAt(k) != '\n'; k++) {
+                if (!Character.isWhitespace(s.charAt(k))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean followedByIdentifierThen(int from, String next) {
+            int k = skipSpaces(from);
+            if (k >= n || !isWordStart(s.charAt(k))) {
+                return false;
+            }
+            while (k < n && isWordPart(s.charAt(k))) {
+                k++;
+            }
+            int after = skipSpaces(k);
+            return after > k && s.startsWith(next, after)
+                    && (after + next.length() >= n || Character.isWhitespace(s.charAt(after + next.length())));
+        }
+
+        private boolean lineContainsWord(int from, String word) {
+            for (int k = from; k < n && s.charAt(k) != '\n'; k++) {
+                if (Character.isWhitespace(s.charAt(k)) && s.startsWith(word, k + 1)) {
+                    int after = k + 1 + word.length();
+                    if (after < n && Character.isWhitespace(s.charAt(after))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private int skipSpaces(int k) {
+            while (k < n && s.charAt(k) != '\n' && Character.isWhitespace(s.charAt(k))) {
+                k++;
+            }
+            return k;
+        }
+
+        private int operatorWordAt(int at) {
+            for (int k = 0; k < OPERATOR_WORDS.length; k++) {
+                if (s.startsWith(OPERATOR_WORDS[k][0], at)) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+
+        private String foldAll(int start, int end) {
+            for (int k = start; k < end; k++) {
+                if (fold(s.charAt(k)) != s.charAt(k)) {
+                    StringBuilder sb = new StringBuilder(end - start);
+                    for (int j = start; j < end; j++) {
+                        sb.append(fold(s.charAt(j)));
+                    }
+                    return sb.toString();
+                }
+            }
+            return s.substring(start, end);
+        }
+
+        private void emit(Type type, SemanticTokenKind kind, String text, int start, int end) {
+            lineStart = type == Type.NEWLINE;
+            ruleHeader = false;
+            afterRuleName = false;
+            if (type == Type.KEYWORD) {
+                scopes.keyword(kind);
+            } else if (type == Type.NEWLINE) {
+                scopes.newline();
+            }
+            sink.accept(new ZhToken(type, kind, text, start, end));
+        }
+    }
+
+    /** 全角 ASCII 与中文标点折叠为半角。 */
+    static char fold(char c) {
+        if (c >= '！' && c <= '～') {
+            return (char) (c - 0xFEE0);
+        }
+        return switch (c) {
+            case '。' -> '.';
+            case '、' -> ',';
+            default -> c;
+        };
+    }
+
+    private static boolean isDigit(char c) {
+        char f = fold(c);
+        return f >= '0' && f <= '9';
+    }
+
+    private static boolean isWordStart(char c) {
+        return Character.isLetter(fold(c)) || c == '_' || c == '＿';
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(fold(c)) || fold(c) == '_';
+    }
+}
@@ -3,8 +3,8 @@ package aster.lang.zh.transformers;
 import aster.core.canonicalizer.StringSegmenter;
 import aster.core.canonicalizer.SyntaxTransformer;
 import aster.core.lexicon.CanonicalizationConfig;
+import aster.lang.zh.cancel.CancellationToken;
 
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -29,23 +29,23 @@ public final class ChineseFunctionSyntaxTransformer implements SyntaxTransformer
 
     @Override
     public String transform(String source, CanonicalizationConfig config, StringSegmenter segmenter) {
+        CancellationToken.checkpoint();
+        // 该变换器也接受英文 "Rule f(x)"，因此只有既无 "规则" 也无 "Rule" 时才能跳过
+        if (!source.contains("\u89C4\u5219") && !source.contains("Rule")) {
+            return source;
+        }
         return rewriteRuleFunc(source);
     }
 
     private String rewriteRuleFunc(String s) {
-        Matcher m = RULE_FUNC.matcher(s);
-        StringBuffer sb = new StringBuffer();
-        while (m.find()) {
+        return LineAnchoredRewriter.replaceAll(RULE_FUNC, s, m -> {
             String indent = m.group(1);
             String funcName = m.group(2);
             String params = m.group(3).trim();
             String rest = m.group(4);
-            String replacement = params.isEmpty()
+            return params.isEmpty()
                     ? indent + "Rule " + funcName + " " + rest
                     : indent + "Rule " + funcName + " given " + params + " " + rest;
-            m.appendReplacement(sb, Matcher.quoteReplacement(replacement));
-        }
-        m.appendTail(sb);
-        return sb.toString();
+        });
     }
 }
@@ -3,6 +3,7 @@ package aster.lang.zh.transformers;
 import aster.core.canonicalizer.StringSegmenter;
 import aster.core.canonicalizer.SyntaxTransformer;
 import aster.core.lexicon.CanonicalizationConfig;
+import aster.lang.zh.cancel.CancellationToken;
 
 import java.util.regex.Pattern;
 
@@ -34,6 +35,11 @@ public final class ChineseLetBeTransformer implements SyntaxTransformer {
 
     @Override
     public String transform(String source, CanonicalizationConfig config, StringSegmenter segmenter) {
-        return segmenter.replaceOutsideStrings(source, CHINESE_LET_BE, "$1Let $2 be ");
+        CancellationToken.checkpoint();
+        if (source.indexOf('令') < 0) {
+            return source;
+        }
+        return segmenter.transformOutsideStrings(source, text -> LineAnchoredRewriter.replaceAll(
+                CHINESE_LET_BE, text, m -> m.group(1) + "Let " + m.group(2) + " be "));
     }
 }
@@ -3,6 +3,9 @@ package aster.lang.zh.transformers;
 import aster.core.canonicalizer.StringSegmenter;
 import aster.core.canonicalizer.SyntaxTransformer;
 import aster.core.lexicon.CanonicalizationConfig;
+import aster.lang.zh.cancel.CancellationToken;
+
+import java.util.regex.Pattern;
 
 /**
  * 中文运算符和控制流关键词变换器（v2 关键字）。
@@ -24,14 +27,24 @@ public final class ChineseOperatorTransformer implements SyntaxTransformer {
 
     public static final ChineseOperatorTransformer INSTANCE = new ChineseOperatorTransformer();
 
+    private static final Pattern THEN_AT_END = Pattern.compile("\\s+则\\s*$");
+    private static final Pattern THEN_BEFORE_NEWLINE = Pattern.compile("\\s+则\\s*\\n");
+    /** 注意：{@code [^为]+} 在第一个'为'处停止。 */
+    private static final Pattern SET_AS = Pattern.compile("设置\\s+([^为]+)\\s+为\\s+");
+
     private ChineseOperatorTransformer() {}
 
     @Override
     public String transform(String source, CanonicalizationConfig config, StringSegmenter segmenter) {
+        CancellationToken.checkpoint();
+        if (!source.contains("等于") && source.indexOf('则') < 0 && !source.contains("设置")) {
+            return source;
+        }
         return segmenter.transformOutsideStrings(source, ChineseOperatorTransformer::translateOperators);
     }
 
     private static String translateOperators(String s) {
+        CancellationToken.checkpoint();
         // 比较运算符（先长后短，避免部分匹配）
         s = s.replace("大于等于", " >= ")
              .replace("小于等于", " <= ")
@@ -39,13 +52,15 @@ public final class ChineseOperatorTransformer implements SyntaxTransformer {
              .replace("等于", " == ");
 
         // "则" 在行尾 → ":"
-        s = s.replaceAll("\\s+则\\s*$", ":");
-        s = s.replaceAll("\\s+则\\s*\\n", ":\n");
+        if (s.indexOf('则') >= 0) {
+            s = THEN_AT_END.matcher(s).replaceAll(":");
+            s = THEN_BEFORE_NEWLINE.matcher(s).replaceAll(":\n");
+        }
 
         // "设置 X 为 Y" → "令 X 定义为 Y"（v2: BE='定义为'；sugar 输入仍接受 v1 风格的'为'）
-        // 注意：[^为]+ 非贪婪匹配，因为我们要在第一个'为'处停止
-        s = s.replaceAll("设置\\s+([^为]+)\\s+为\\s+",
-                "令 $1 定义为 ");
+        if (s.contains("设置")) {
+            s = SET_AS.matcher(s).replaceAll("令 $1 定义为 ");
+        }
 
         return s;
     }
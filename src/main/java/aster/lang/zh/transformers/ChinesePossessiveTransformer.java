@@ -3,8 +3,7 @@ package aster.lang.zh.transformers;
 import aster.core.canonicalizer.StringSegmenter;
 import aster.core.canonicalizer.SyntaxTransformer;
 import aster.core.lexicon.CanonicalizationConfig;
-
-import java.util.regex.Pattern;
+import aster.lang.zh.cancel.CancellationToken;
 
 /**
  * 中文结构助词"的" → 成员访问符 {@code .} 的变换器。
@@ -12,27 +11,28 @@ import java.util.regex.Pattern;
  * 支持两种模式：
  * <ul>
  *   <li>带空格：{@code 用户 的 名字} → {@code 用户.名字}</li>
- *   <li>无空格：{@code 用户的名字} → {@code 用户.名字}</li>
+ *   <li>无空格：{@code 用户的名字} → {@code 用户.名字}，任意长度的链
+ *       {@code 申请人的信用报告的评分} → {@code 申请人.信用报告.评分}（见 {@link PossessiveChainResolver}）</li>
  * </ul>
  */
 public final class ChinesePossessiveTransformer implements SyntaxTransformer {
 
     public static final ChinesePossessiveTransformer INSTANCE = new ChinesePossessiveTransformer();
 
-    /** CJK 字符之间的"的"（无空格模式） */
-    private static final Pattern NO_SPACE = Pattern.compile(
-            "([\\p{IsHan}]{2,})\u7684([\\p{IsHan}]{2,})"
-    );
-
     private ChinesePossessiveTransformer() {}
 
     @Override
     public String transform(String source, CanonicalizationConfig config, StringSegmenter segmenter) {
+        CancellationToken.checkpoint();
+        if (source.indexOf('\u7684') < 0) {
+            return source;
+        }
         return segmenter.transformOutsideStrings(source, text -> {
+            CancellationToken.checkpoint();
             // 带空格模式
             String s = text.replace(" \u7684 ", ".");
-            // 无空格模式
-            s = NO_SPACE.matcher(s).replaceAll("$1.$2");
+            // 无空格模式：整条链一遍线性展开
+            s = PossessiveChainResolver.DEFAULT.resolve(s);
             return s;
         });
     }
@@ -3,6 +3,7 @@ package aster.lang.zh.transformers;
 import aster.core.canonicalizer.StringSegmenter;
 import aster.core.canonicalizer.SyntaxTransformer;
 import aster.core.lexicon.CanonicalizationConfig;
+import aster.lang.zh.cancel.CancellationToken;
 
 /**
  * 中文标点 → 英文标点变换器（ANTLR 词法器只识别英文标点）。
@@ -23,21 +24,34 @@ public final class ChinesePunctuationTransformer implements SyntaxTransformer {
 
     @Override
     public String transform(String source, CanonicalizationConfig config, StringSegmenter segmenter) {
+        CancellationToken.checkpoint();
+        if (CjkScanner.indexOfPunctuation(source, 0) < 0) {
+            return source;
+        }
         return segmenter.transformOutsideStrings(source, ChinesePunctuationTransformer::translatePunctuation);
     }
 
-    private static String translatePunctuation(String s) {
-        StringBuilder result = new StringBuilder(s.length());
-        for (int i = 0; i < s.length(); i++) {
-            char ch = s.charAt(i);
-            switch (ch) {
-                case '\u3002' -> result.append('.');     // 。→ .
-                case '\uFF0C' -> result.append(',');     // ， → ,
-                case '\uFF1A' -> result.append(':');     // ： → :
-                case '\u3001' -> result.append(',');     // 、 → ,
-                default -> result.append(ch);
-            }
+    /**
+     * 四个目标标点都是单字符 → 单字符替换，因此先用 {@link CjkScanner} 批量跳过不含标点的区段：
+     * 没有标点时直接返回原字符串（不复制），否则在一次复制出的 {@code char[]} 上原地替换。
+     */
+    static String translatePunctuation(String s) {
+        int i = CjkScanner.indexOfPunctuation(s, 0);
+        if (i < 0) {
+            return s;
+        }
+        char[] chars = s.toCharArray();
+        while (i >= 0) {
+            chars[i] = switch (chars[i]) {
+                case '\u3002' -> {       // 。→ .，每个语句终止符处检查取消
+                    CancellationToken.checkpoint();
+                    yield '.';
+                }
+                case '\uFF1A' -> ':';     // ： → :
+                default -> ',';           // ， 、 → ,
+            };
+            i = CjkScanner.indexOfPunctuation(chars, i + 1, chars.length);
         }
-        return result.toString();
+        return new String(chars);
     }
 }
@@ -3,6 +3,7 @@ package aster.lang.zh.transformers;
 import aster.core.canonicalizer.StringSegmenter;
 import aster.core.canonicalizer.SyntaxTransformer;
 import aster.core.lexicon.CanonicalizationConfig;
+import aster.lang.zh.cancel.CancellationToken;
 
 import java.util.regex.Pattern;
 
@@ -24,6 +25,11 @@ public final class ChineseResultIsTransformer implements SyntaxTransformer {
 
     @Override
     public String transform(String source, CanonicalizationConfig config, StringSegmenter segmenter) {
-        return segmenter.replaceOutsideStrings(source, CHINESE_RESULT_IS, "$1Return ");
+        CancellationToken.checkpoint();
+        if (!source.contains("\u7ED3\u679C\u4E3A")) {
+            return source;
+        }
+        return segmenter.transformOutsideStrings(source, text -> LineAnchoredRewriter.replaceAll(
+                CHINESE_RESULT_IS, text, m -> m.group(1) + "Return "));
     }
 }
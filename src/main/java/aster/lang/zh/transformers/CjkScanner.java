@@ -0,0 +1,148 @@
+package aster.lang.zh.transformers;
+
+/**
+ * 中文变换器共用的字符扫描工具。
+ * <p>
+ * 运行时存在 {@code jdk.incubator.vector} 模块（启动参数 {@code --add-modules jdk.incubator.vector}）时，
+ * 扫描按 SIMD 宽度批量比较；否则回退到逐字符的标量实现，两者结果完全一致。
+ * 可用系统属性 {@code aster.zh.vector=false} 强制使用标量实现。
+ * <p>
+ * 向量实现位于单独的 {@code vector} 源码集（只有那里的编译需要孵化模块），这里按类名反射加载，
+ * 类不存在或无法链接时同样回退到标量实现。
+ */
+public final class CjkScanner {
+
+    /** 字符串按块复制到本地缓冲区后再做向量扫描，避免为扫描复制整个输入。 */
+    private static final int CHUNK = 1024;
+
+    /** CJK 部首补充区起点，其下没有任何中文变换器关心的字符。 */
+    static final char CJK_START = '\u2E80';
+
+    private static final String KERNEL_CLASS = "aster.lang.zh.transformers.VectorizedCjkScanner";
+
+    /** 向量扫描实现；不可用时为 null。 */
+    private static final Kernel KERNEL = loadKernel();
+
+    private static final boolean VECTORIZED = KERNEL != null;
+
+    /** 向量扫描实现需要提供的操作，由 {@code vector} 源码集中的 {@code VectorizedCjkScanner} 实现。 */
+    interface Kernel {
+        /** 每次比较的字符数。 */
+        int lanes();
+
+        /** 在 {@code chars[from, to)} 中查找第一个全角标点，未找到返回 -1。 */
+        int indexOfPunctuation(char[] chars, int from, int to);
+
+        /** 在 {@code chars[from, to)} 中查找第一个 {@code >= U+2E80} 的字符，未找到返回 -1。 */
+        int indexOfCjk(char[] chars, int from, int to);
+    }
+
+    private CjkScanner() {}
+
+    /** 当前是否使用 Vector API 快速路径。 */
+    public static boolean vectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * 源码中是否可能含有需要中文变换器处理的内容。
+     * <p>
+     * 以 U+2E80（CJK 部首补充）为界做保守判断：汉字、CJK 标点、全角字符、代理对等均在其上。
+     * 返回 false 时，所有 {@code Chinese*Transformer} 都是恒等变换，可以直接返回输入。
+     */
+    public static boolean containsCjk(String s) {
+        int n = s.length();
+        if (!VECTORIZED || n < CHUNK / 4) {
+            return indexOfCjkScalar(s, 0, n) >= 0;
+        }
+        char[] buf = new char[Math.min(CHUNK, n)];
+        for (int base = 0; base < n; base += buf.length) {
+            int len = Math.min(buf.length, n - base);
+            s.getChars(base, base + len, buf, 0);
+            if (KERNEL.indexOfCjk(buf, 0, len) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** 是否落在 {@link #containsCjk} 判定的 CJK 区间（U+2E80 及以上）。 */
+    public static boolean isCjk(char c) {
+        return c >= CJK_START;
+    }
+
+    /**
+     * 是否为 {@link ChinesePunctuationTransformer} 处理的全角标点（。，：、）。
+     */
+    public static boolean isPunctuation(char c) {
+        return c == '。' || c == '，' || c == '：' || c == '、';
+    }
+
+    /**
+     * 从 {@code from} 起查找第一个全角标点（。，：、），未找到返回 -1。
+     */
+    public static int indexOfPunctuation(String s, int from) {
+        int n = s.length();
+        if (!VECTORIZED || n - from < CHUNK / 4) {
+            return indexOfPunctuationScalar(s, from, n);
+        }
+        char[] buf = new char[Math.min(CHUNK, n - from)];
+        for (int base = from; base < n; base += buf.length) {
+            int len = Math.min(buf.length, n - base);
+            s.getChars(base, base + len, buf, 0);
+            int i = KERNEL.indexOfPunctuation(buf, 0, len);
+            if (i >= 0) {
+                return base + i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 在 {@code chars[from, to)} 中查找第一个全角标点，未找到返回 -1。
+     */
+    public static int indexOfPunctuation(char[] chars, int from, int to) {
+        if (VECTORIZED) {
+            return KERNEL.indexOfPunctuation(chars, from, to);
+        }
+        for (int i = from; i < to; i++) {
+            if (isPunctuation(chars[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static int indexOfPunctuationScalar(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (isPunctuation(s.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static int indexOfCjkScalar(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) >= CJK_START) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Kernel loadKernel() {
+        if (!Boolean.parseBoolean(System.getProperty("aster.zh.vector", "true"))) {
+            return null;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            Kernel kernel = (Kernel) Class.forName(KERNEL_CLASS).getDeclaredConstructor().newInstance();
+            return kernel.lanes() >= 4 ? kernel : null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package aster.lang.zh.transformers;
+
+import aster.lang.zh.cancel.CancellationToken;
+
+import java.util.function.Function;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 行首锚定正则（{@code ^...}，{@link Pattern#MULTILINE}）的可取消替换。
+ * <p>
+ * 这类模式只可能在行首匹配，因此不用 {@link Matcher#find()} 逐字符搜索，而是逐个行首调用
+ * {@link Matcher#lookingAt()}，并在每个行首调用 {@link CancellationToken#checkpoint()}：
+ * 没有匹配、也没有字符串字面量的大文档同样能在下一行中止。行首的判定与 {@code ^} 在未设置
+ * {@link Pattern#UNIX_LINES} 时一致（{@code \n}、{@code \r}、{@code \r\n}、U+0085、
+ * U+2028、U+2029 之后），结果与 {@code pattern.matcher(text).replaceAll(...)} 相同。
+ */
+final class LineAnchoredRewriter {
+
+    private LineAnchoredRewriter() {}
+
+    /**
+     * 替换 {@code text} 中所有匹配；没有匹配时原样返回（不复制）。
+     *
+     * @param pattern     以 {@code ^} 开头的 MULTILINE 模式，且不匹配空串
+     * @param replacement 由匹配结果生成替换文本（按字面量插入）
+     */
+    static String replaceAll(Pattern pattern, String text, Function<MatchResult, String> replacement) {
+        Matcher m = pattern.matcher(text);
+        int n = text.length();
+        StringBuilder sb = null;
+        int last = 0;
+        int at = 0;
+        while (at < n) {
+            CancellationToken.checkpoint();
+            m.region(at, n);
+            if (m.lookingAt() && m.end() > at) {
+                if (sb == null) {
+                    // 变换器单例被所有请求线程共享，使用非同步的 StringBuilder
+                    sb = new StringBuilder(n + 16);
+                }
+                sb.append(text, last, m.start()).append(replacement.apply(m));
+                last = m.end();
+                at = isLineStart(text, last) ? last : nextLineStart(text, last);
+            } else {
+                at = nextLineStart(text, at);
+            }
+        }
+        if (sb == null) {
+            return text;
+        }
+        return sb.append(text, last, n).toString();
+    }
+
+    private static int nextLineStart(String s, int from) {
+        int n = s.length();
+        for (int i = from; i < n; i++) {
+            char c = s.charAt(i);
+            if (c == '\n' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return i + 1;
+            }
+            if (c == '\r') {
+                return i + 1 < n && s.charAt(i + 1) == '\n' ? i + 2 : i + 1;
+            }
+        }
+        return n;
+    }
+
+    private static boolean isLineStart(String s, int i) {
+        if (i == 0) {
+            return true;
+        }
+        char prev = s.charAt(i - 1);
+        return prev == '\n' || prev == '\u0085' || prev == '\u2028' || prev == '\u2029'
+                || (prev == '\r' && (i == s.length() || s.charAt(i) != '\n'));
+    }
+}
@@ -0,0 +1,159 @@
+package aster.lang.zh.transformers;
+
+import aster.lang.zh.cancel.CancellationToken;
+import aster.lang.zh.vocabulary.CompactVocabulary.Kind;
+import aster.lang.zh.vocabulary.LayeredVocabulary;
+
+import java.nio.CharBuffer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * 无空格所有格链 {@code 甲甲的乙乙的丙丙} → {@code 甲甲.乙乙.丙丙} 的线性解析器。
+ * <p>
+ * 原实现 {@code ([\p{IsHan}]{2,})的([\p{IsHan}]{2,})} + {@code replaceAll} 有两个问题：
+ * "的" 本身也是汉字，贪婪分组在长汉字串上反复回溯（最坏 O(n²)）；且每次替换吞掉整个右侧，
+ * 一遍只能拆开链中的最后一个 "的"，{@code 申请人的信用报告的评分} 需要多遍才能完全展开。
+ * <p>
+ * 本类对每个连续汉字串从右向左扫描一次：当前片段为 {@code [runStart, end)}，遇到 "的" 位于 p 且
+ * 左侧 {@code [runStart, p)}、右侧 {@code [p+1, end)} 都至少有两个汉字时拆分，并令 {@code end = p}。
+ * 结果与反复应用原正则直到不再变化完全一致，总耗时与输入长度成线性关系。
+ * <p>
+ * 可选地提供已知术语（词汇表中的结构体/字段名）：若某个 "的" 与其右侧片段合起来恰好是一个已知术语
+ * （例如字段名本身含 "的"），则不在该处拆分。实例不可变，可在多线程间共享。
+ */
+public final class PossessiveChainResolver {
+
+    private static final char DE = '的';
+
+    /** 不使用词汇表的默认解析器。 */
+    public static final PossessiveChainResolver DEFAULT = new PossessiveChainResolver(null);
+
+    private final Predicate<CharSequence> knownTerm;
+
+    private PossessiveChainResolver(Predicate<CharSequence> knownTerm) {
+        this.knownTerm = knownTerm;
+    }
+
+    /**
+     * @param knownTerm 判断一个片段是否为已知术语；合并后为已知术语的 "的" 不拆分
+     */
+    public static PossessiveChainResolver of(Predicate<CharSequence> knownTerm) {
+        return new PossessiveChainResolver(knownTerm);
+    }
+
+    /** 以词汇表中的结构体与字段（本地化名与别名）作为已知术语。 */
+    public static PossessiveChainResolver withVocabulary(LayeredVocabulary vocabulary) {
+        return of(term -> vocabulary.contains(Kind.FIELD, term) || vocabulary.contains(Kind.STRUCT, term));
+    }
+
+    /**
+     * 把所有可拆分的 "的" 替换为 {@code .}。替换等长，没有可拆分位置时返回原字符串。
+     */
+    public String resolve(String s) {
+        if (s.indexOf(DE) < 0) {
+            return s;
+        }
+        char[][] out = new char[1][];
+        splits(s, 0, s.length(), p -> {
+            if (out[0] == null) {
+                out[0] = s.toCharArray();
+            }
+            out[0][p] = '.';
+        });
+        return out[0] == null ? s : new String(out[0]);
+    }
+
+    /**
+     * 按升序报告 {@code [from, to)} 中所有应拆分的 "的" 的位置。
+     */
+    public void splits(CharSequence s, int from, int to, IntConsumer sink) {
+        int[] found = new int[8];
+        int i = from;
+        while (i < to) {
+            int cp = Character.codePointAt(s, i);
+            if (!isHan(cp)) {
+                if (cp == '\n') {
+                    CancellationToken.checkpoint();
+                }
+                i += Character.charCount(cp);
+                continue;
+            }
+            int runStart = i;
+            boolean hasDe = false;
+            while (i < to) {
+                cp = Character.codePointAt(s, i);
+                if (!isHan(cp)) {
+                    break;
+                }
+                hasDe |= cp == DE;
+                i += Character.charCount(cp);
+            }
+            if (!hasDe) {
+                continue;
+            }
+            int count = resolveRun(s, runStart, i, found);
+            if (count > found.length) {
+                found = new int[count];
+                resolveRun(s, runStart, i, found);
+            }
+            // 从右向左收集，升序输出
+            for (int k = Math.min(count, found.length) - 1; k >= 0; k--) {
+                sink.accept(found[k]);
+            }
+        }
+    }
+
+    /**
+     * 从右向左解析一个汉字串，拆分位置按降序写入 {@code found}。
+     *
+     * @return 拆分位置总数（可能大于数组长度，此时调用方扩容重算）
+     */
+    private int resolveRun(CharSequence s, int runStart, int runEnd, int[] found) {
+        int count = 0;
+        int end = runEnd;
+        // p 是 "的" 的位置；右侧至少两个汉字，"的" 是 BMP 字符，所以 p <= end - 3
+        for (int p = end - 3; p >= runStart + 2; p--) {
+            if (s.charAt(p) != DE) {
+                continue;
+            }
+            if (!atLeastTwoCodePoints(s, p + 1, end) || !atLeastTwoCodePoints(s, runStart, p)) {
+                continue;
+            }
+            if (knownTerm != null && vetoed(s, runStart, p, end)) {
+                continue;
+            }
+            if (count < found.length) {
+                found[count] = p;
+            }
+            count++;
+            end = p;
+            p = end - 2; // 循环末尾 p-- 后为 end - 3
+        }
+        return count;
+    }
+
+    /** 该 "的" 连同右侧片段（向左延伸到上一个 "的" 或串首）是否构成已知术语。 */
+    private boolean vetoed(CharSequence s, int runStart, int p, int end) {
+        int left = p - 1;
+        while (left >= runStart && s.charAt(left) != DE) {
+            left--;
+        }
+        return knownTerm.test(CharBuffer.wrap(s, left + 1, end));
+    }
+
+    private static boolean atLeastTwoCodePoints(CharSequence s, int from, int to) {
+        int length = to - from;
+        if (length >= 4) {
+            return true;
+        }
+        if (length < 2) {
+            return false;
+        }
+        return Character.codePointCount(s, from, to) >= 2;
+    }
+
+    private static boolean isHan(int cp) {
+        return Character.UnicodeScript.of(cp) == Character.UnicodeScript.HAN;
+    }
+}
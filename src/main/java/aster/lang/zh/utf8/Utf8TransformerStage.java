@@ -0,0 +1,196 @@
+package aster.lang.zh.utf8;
+
+import aster.core.canonicalizer.SyntaxTransformer;
+import aster.lang.zh.ZhCnPlugin;
+import aster.lang.zh.cancel.CancellationToken;
+import aster.lang.zh.shadow.ShadowVerifier;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 直接读写 UTF-8 字节的 zh-CN 中文变换器阶段。
+ * <p>
+ * 输入输出都是 UTF-8 字节，结果与把输入解码后依次执行 7 个中文变换器（{@link ZhCnPlugin#CHINESE_TRANSFORMERS}）
+ * 再编码逐字节相同。处理分两段：
+ * <ul>
+ *   <li>字节段：{@code chinese-punctuation} 整个在字节上完成，{@code 。}（{@code E3 80 82}）→ {@code .}，
+ *       {@code 、}（{@code E3 80 81}）与 {@code ，}（{@code EF BC 8C}）→ {@code ,}，{@code ：}（{@code EF BC 9A}）→ {@code :}；
+ *       {@code chinese-possessive} 的第一步 {@code " 的 "}（{@code 20 E7 9A 84 20}）→ {@code .} 也在这里完成。
+ *       两者都只会缩短字节序列，在输入的一份副本上一遍完成；{@code "…"} 与 {@code 「…」} 字符串字面量原样保留，
+ *       非法字节原样保留。</li>
+ *   <li>字符串段：只解码一次，执行其余变换器（无空格所有格链、运算符、令…定义为、函数语法、将…设为、结果为），
+ *       再编码一次。这些改写依赖汉字串边界和词汇表否决，先于所有格链在字节上执行会改变结果。
+ *       标点变换器不再执行。</li>
+ * </ul>
+ * 调用方传入的缓冲区不会被修改。
+ * <p>
+ * 只覆盖中文变换器阶段。完整规范化在 core 的 {@code Canonicalizer} 中进行：英文所有格、全角转半角、
+ * 空白归一化等前置步骤先于中文变换器执行，关键词翻译位于两段中文变换器之间，且 core 只提供 {@code String} 接口。
+ * 因此字节段不能放在 core 之前，完整规范化仍需在 core 边界解码。本类供自行运行中文变换器阶段的调用方使用，
+ * 例如影子校验或阶段指纹。
+ * <p>
+ * 实例不可变，可在多线程间共享。
+ */
+public final class Utf8TransformerStage {
+
+    private static final byte SPACE = ' ';
+    private static final byte QUOTE = '"';
+
+    private final UnaryOperator<String> rest;
+
+    private Utf8TransformerStage(UnaryOperator<String> rest) {
+        this.rest = rest;
+    }
+
+    /** zh-CN 中文变换器阶段。 */
+    public static Utf8TransformerStage zhCn() {
+        return Holder.ZH_CN;
+    }
+
+    /**
+     * 使用自定义的字符串段构建。
+     *
+     * @param rest 字节段之后执行的变换，必须线程安全
+     */
+    public static Utf8TransformerStage of(UnaryOperator<String> rest) {
+        return new Utf8TransformerStage(rest);
+    }
+
+    /**
+     * 变换 {@code [position, limit)} 中的 UTF-8 源码，返回新的缓冲区；{@code utf8} 的内容与位置不变。
+     */
+    public ByteBuffer transform(ByteBuffer utf8) {
+        byte[] copy = new byte[utf8.remaining()];
+        utf8.duplicate().get(copy);
+        return ByteBuffer.wrap(transformOwned(copy));
+    }
+
+    /** 变换 UTF-8 字节数组，不修改入参。 */
+    public byte[] transform(byte[] utf8) {
+        return transformOwned(utf8.clone());
+    }
+
+    /** {@code bytes} 归本方法所有，可原地改写。 */
+    private byte[] transformOwned(byte[] bytes) {
+        int length = (int) normalize(MemorySegment.ofArray(bytes));
+        String decoded = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        return rest.apply(decoded).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 在 {@code [position, limit)} 上原地执行字节段，并把 limit 移到新的结尾。供已拥有缓冲区、
+     * 希望避免复制的调用方使用。
+     *
+     * @return 字节段之后的长度
+     */
+    public static int normalize(ByteBuffer buffer) {
+        int length = (int) normalize(MemorySegment.ofBuffer(buffer));
+        buffer.limit(buffer.position() + length);
+        return length;
+    }
+
+    /**
+     * 在整个内存段上原地执行字节段，结果写在段的开头。
+     *
+     * @return 字节段之后的长度，之后的字节内容未定义
+     */
+    public static long normalize(MemorySegment segment) {
+        long n = segment.byteSize();
+        long r = 0;
+        long w = 0;
+        while (r < n) {
+            byte b = get(segment, r);
+            long end;
+            if (b == QUOTE) {
+                end = skipString(segment, r + 1, n, false);
+            } else if (b == (byte) 0xE3 && r + 2 < n && get(segment, r + 1) == (byte) 0x80) {
+                byte c = get(segment, r + 2);
+                if (c == (byte) 0x8C) {              // 「
+                    end = skipString(segment, r + 3, n, true);
+                } else if (c == (byte) 0x82) {       // 。→ .，每个语句终止符处检查取消
+                    CancellationToken.checkpoint();
+                    put(segment, w++, (byte) '.');
+                    r += 3;
+                    continue;
+                } else if (c == (byte) 0x81) {       // 、 → ,
+                    put(segment, w++, (byte) ',');
+                    r += 3;
+                    continue;
+                } else {
+                    end = r + 1;
+                }
+            } else if (b == (byte) 0xEF && r + 2 < n && get(segment, r + 1) == (byte) 0xBC) {
+                byte c = get(segment, r + 2);
+                if (c == (byte) 0x8C || c == (byte) 0x9A) {   // ， → ,  ： → :
+                    put(segment, w++, c == (byte) 0x8C ? (byte) ',' : (byte) ':');
+                    r += 3;
+                    continue;
+                }
+                end = r + 1;
+            } else if (b == (byte) 0xE7 && r + 3 < n && w > 0
+                    && get(segment, r + 1) == (byte) 0x9A && get(segment, r + 2) == (byte) 0x84
+                    && get(segment, r + 3) == SPACE && get(segment, w - 1) == SPACE) {
+                // " 的 " → "."：前导空格已写出，回退一格覆盖。已被上一次替换吃掉的空格不会再参与匹配，
+                // 与 String.replace 自左向右、互不重叠的语义一致
+                put(segment, w - 1, (byte) '.');
+                r += 4;
+                continue;
+            } else {
+                end = r + 1;
+            }
+            w = copy(segment, r, end, w);
+            r = end;
+        }
+        return w;
+    }
+
+    /** 返回字符串字面量结束后的位置；未闭合时到结尾。 */
+    private static long skipString(MemorySegment segment, long from, long n, boolean cornerBracket) {
+        for (long i = from; i < n; i++) {
+            byte b = get(segment, i);
+            if (!cornerBracket && b == QUOTE) {
+                return i + 1;
+            }
+            if (cornerBracket && b == (byte) 0xE3 && i + 2 < n
+                    && get(segment, i + 1) == (byte) 0x80 && get(segment, i + 2) == (byte) 0x8D) {   // 」
+                return i + 3;
+            }
+        }
+        return n;
+    }
+
+    private static long copy(MemorySegment segment, long from, long to, long w) {
+        if (w == from) {
+            return to;
+        }
+        MemorySegment.copy(segment, from, segment, w, to - from);
+        return w + (to - from);
+    }
+
+    private static byte get(MemorySegment segment, long offset) {
+        return segment.get(ValueLayout.JAVA_BYTE, offset);
+    }
+
+    private static void put(MemorySegment segment, long offset, byte value) {
+        segment.set(ValueLayout.JAVA_BYTE, offset, value);
+    }
+
+    private static final class Holder {
+        static final Utf8TransformerStage ZH_CN = new Utf8TransformerStage(rest());
+
+        /** 去掉标点变换器后的其余中文变换器；所有格变换器中的 {@code " 的 "} 替换此时已无命中。 */
+        private static UnaryOperator<String> rest() {
+            Map<String, Supplier<SyntaxTransformer>> registered = new ZhCnPlugin().getTransformers();
+            return ShadowVerifier.transformerChain(ZhCnPlugin.CHINESE_TRANSFORMERS.stream()
+                    .filter(name -> !name.equals("chinese-punctuation"))
+                    .map(name -> registered.get(name).get())
+                    .toArray(SyntaxTransformer[]::new));
+        }
+    }
+}
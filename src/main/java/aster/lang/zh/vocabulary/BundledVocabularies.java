@@ -0,0 +1,44 @@
+package aster.lang.zh.vocabulary;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 语言包内置词汇表的共享紧凑实例。
+ * <p>
+ * 每个内置词汇表在首次访问时加载一次，之后所有调用方（包括所有租户的 {@link LayeredVocabulary}）
+ * 共享同一个不可变实例。
+ */
+public final class BundledVocabularies {
+
+    public static final String INSURANCE_AUTO = "vocabularies/insurance-auto-zh-CN.json";
+    public static final String FINANCE_LOAN = "vocabularies/finance-loan-zh-CN.json";
+
+    private BundledVocabularies() {}
+
+    /** 汽车保险词汇表（{@code insurance.auto}）。 */
+    public static CompactVocabulary insuranceAuto() {
+        return Holder.ALL.get(INSURANCE_AUTO);
+    }
+
+    /** 贷款金融词汇表（{@code finance.loan}）。 */
+    public static CompactVocabulary financeLoan() {
+        return Holder.ALL.get(FINANCE_LOAN);
+    }
+
+    /** 全部内置词汇表，按资源路径排序。 */
+    public static List<CompactVocabulary> all() {
+        return List.of(insuranceAuto(), financeLoan());
+    }
+
+    private static final class Holder {
+        static final Map<String, CompactVocabulary> ALL = Map.of(
+                INSURANCE_AUTO, load(INSURANCE_AUTO),
+                FINANCE_LOAN, load(FINANCE_LOAN)
+        );
+
+        private static CompactVocabulary load(String path) {
+            return CompactVocabulary.fromResource(BundledVocabularies.class.getClassLoader(), path);
+        }
+    }
+}
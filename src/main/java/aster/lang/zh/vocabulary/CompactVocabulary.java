@@ -0,0 +1,561 @@
+package aster.lang.zh.vocabulary;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 紧凑存储的领域词汇表。
+ * <p>
+ * 与 {@code vocabularies/*.json} 使用同一份 schema（{@code canonical}、{@code localized}、
+ * {@code parent}、{@code aliases}），但不为每个条目创建对象：
+ * <ul>
+ *   <li>所有字符串去重后存放在一个共享的 {@code char[]} 字符池中，按 int 编号引用</li>
+ *   <li>条目的种类、规范名、本地化名、父结构体以平行 int 数组保存</li>
+ *   <li>本地化名/别名 → 条目、规范名 → 条目两张索引使用 int 开放寻址表，查询不分配对象</li>
+ * </ul>
+ * 适用于 10 万级条目的大型私有词汇表；实例不可变，可在多线程和多租户之间共享。
+ */
+public final class CompactVocabulary {
+
+    /** 条目种类，与 JSON 中的分节一一对应。 */
+    public enum Kind {
+        STRUCT("structs"),
+        FIELD("fields"),
+        FUNCTION("functions"),
+        ENUM_VALUE("enumValues");
+
+        private final String section;
+
+        Kind(String section) {
+            this.section = section;
+        }
+
+        /** JSON 中对应的分节名。 */
+        public String section() {
+            return section;
+        }
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final String id;
+    private final String name;
+    private final String locale;
+    private final String version;
+
+    /** 字符池：第 i 个字符串为 {@code pool[offsets[i], offsets[i + 1])}。 */
+    private final char[] pool;
+    private final int[] offsets;
+
+    private final byte[] kinds;
+    private final int[] canonicals;
+    /** 本地化名的字符串编号，-1 表示仅别名条目。 */
+    private final int[] localizeds;
+    /** 父结构体的字符串编号，-1 表示无。 */
+    private final int[] parents;
+    /** 条目 e 的别名为 {@code aliasIds[aliasStarts[e], aliasStarts[e + 1])}。 */
+    private final int[] aliasStarts;
+    private final int[] aliasIds;
+
+    /** 本地化名/别名索引：槽位存放 (字符串编号 + 1)，0 表示空槽；{@code termEntries} 为对应条目。 */
+    private final int[] termKeys;
+    private final int[] termEntries;
+    /** 规范名索引：槽位存放 (条目编号 + 1)。 */
+    private final int[] canonicalSlots;
+
+    private CompactVocabulary(Builder b) {
+        this.id = b.id;
+        this.name = b.name;
+        this.locale = b.locale;
+        this.version = b.version;
+        this.pool = Arrays.copyOf(b.pool, b.poolSize);
+        this.offsets = Arrays.copyOf(b.offsets, b.strings.size() + 1);
+        int n = b.entryCount;
+        this.kinds = Arrays.copyOf(b.kinds, n);
+        this.canonicals = Arrays.copyOf(b.canonicals, n);
+        this.localizeds = Arrays.copyOf(b.localizeds, n);
+        this.parents = Arrays.copyOf(b.parents, n);
+        this.aliasStarts = Arrays.copyOf(b.aliasStarts, n + 1);
+        this.aliasIds = Arrays.copyOf(b.aliasIds, b.aliasCount);
+
+        int termCount = n + b.aliasCount;
+        this.termKeys = new int[tableSize(termCount)];
+        this.termEntries = new int[termKeys.length];
+        this.canonicalSlots = new int[tableSize(n)];
+        for (int e = 0; e < n; e++) {
+            if (localizeds[e] >= 0) {
+                insertTerm(localizeds[e], e);
+                insertCanonical(e);
+            }
+            for (int a = aliasStarts[e]; a < aliasStarts[e + 1]; a++) {
+                insertTerm(aliasIds[a], e);
+            }
+        }
+    }
+
+    // ============================================================
+    // 加载
+    // ============================================================
+
+    /**
+     * 从词汇表 JSON 流构建紧凑词汇表。
+     * <p>
+     * 使用 Jackson 流式解析器逐个读取 token，条目直接写入 {@link Builder}，
+     * 不构造 {@code JsonNode} 树，也不把整个文件读成 {@code String}。
+     * 元数据字段可以出现在分节之前或之后，未知字段整体跳过。
+     */
+    public static CompactVocabulary fromJson(InputStream in) throws IOException {
+        try (JsonParser p = JSON.createParser(in)) {
+            return parse(p);
+        }
+    }
+
+    /**
+     * 从词汇表文件构建紧凑词汇表。
+     * <p>
+     * 文件按窗口内存映射后交给流式解析器，加载期间堆上只有解析器的小缓冲区和构建中的紧凑数组，
+     * 适用于数百 MB 的客户导出词汇表。
+     */
+    public static CompactVocabulary fromFile(Path file) throws IOException {
+        try (InputStream in = MappedFileInputStream.open(file)) {
+            return fromJson(in);
+        }
+    }
+
+    /**
+     * 从 classpath 资源构建紧凑词汇表（流式读取）。
+     */
+    public static CompactVocabulary fromResource(ClassLoader loader, String path) {
+        try (var is = loader.getResourceAsStream(path)) {
+            if (is == null) {
+                throw new IllegalStateException("Resource not found: " + path);
+            }
+            return fromJson(is);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load vocabulary: " + path, e);
+        }
+    }
+
+    private static CompactVocabulary parse(JsonParser p) throws IOException {
+        if (p.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(p, "Vocabulary JSON must be an object");
+        }
+        // id 可能出现在分节之后，先以 null 构建，读完再回填
+        Builder b = new Builder(null);
+        List<String> aliases = new ArrayList<>();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "id" -> b.id = text(p);
+                case "name" -> b.name = text(p);
+                case "locale" -> b.locale = text(p);
+                case "version" -> b.version = text(p);
+                default -> {
+                    Kind kind = kindOf(field);
+                    if (kind == null || value != JsonToken.START_ARRAY) {
+                        p.skipChildren();
+                        continue;
+                    }
+                    while (p.nextToken() == JsonToken.START_OBJECT) {
+                        readEntry(p, kind, b, aliases);
+                    }
+                }
+            }
+        }
+        return b.build();
+    }
+
+    private static void readEntry(JsonParser p, Kind kind, Builder b, List<String> aliases) throws IOException {
+        String canonical = null;
+        String localized = null;
+        String parent = null;
+        aliases.clear();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "canonical" -> canonical = text(p);
+                case "localized" -> localized = text(p);
+                case "parent" -> parent = text(p);
+                case "aliases" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        while (p.nextToken() != JsonToken.END_ARRAY) {
+                            aliases.add(p.getText());
+                        }
+                    }
+                }
+                default -> p.skipChildren();
+            }
+        }
+        if (localized == null && !aliases.isEmpty()) {
+            // 叠加层中只补充别名、不改本地化名的条目
+            b.addAliases(kind, canonical, parent, aliases);
+        } else {
+            b.add(kind, canonical, localized, parent, aliases);
+        }
+    }
+
+    private static String text(JsonParser p) throws IOException {
+        JsonToken t = p.currentToken();
+        if (t == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (t.isStructStart()) {
+            p.skipChildren();
+            return null;
+        }
+        return p.getText();
+    }
+
+    private static Kind kindOf(String section) {
+        for (Kind kind : KINDS) {
+            if (kind.section().equals(section)) {
+                return kind;
+            }
+        }
+        return null;
+    }
+
+    public static Builder builder(String id) {
+        return new Builder(id);
+    }
+
+    // ============================================================
+    // 元数据
+    // ============================================================
+
+    public String id() {
+        return id;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String locale() {
+        return locale;
+    }
+
+    public String version() {
+        return version;
+    }
+
+    /** 条目数。 */
+    public int size() {
+        return kinds.length;
+    }
+
+    /** 字符池中去重后的字符串数。 */
+    public int stringCount() {
+        return offsets.length - 1;
+    }
+
+    // ============================================================
+    // 查询
+    // ============================================================
+
+    /**
+     * 按本地化名或别名查找条目编号，未找到返回 -1。
+     */
+    public int find(Kind kind, CharSequence term) {
+        int mask = termKeys.length - 1;
+        for (int slot = hash(kind, term) & mask; termKeys[slot] != 0; slot = (slot + 1) & mask) {
+            int e = termEntries[slot];
+            if (kinds[e] == kind.ordinal() && poolEquals(termKeys[slot] - 1, term)) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 按规范名查找条目编号，未找到返回 -1。
+     * <p>
+     * {@code parent} 非 null 时只匹配该父结构体下的条目（同名字段可能挂在不同结构体下）。
+     */
+    public int findCanonical(Kind kind, CharSequence canonical, CharSequence parent) {
+        int mask = canonicalSlots.length - 1;
+        for (int slot = hash(kind, canonical) & mask; canonicalSlots[slot] != 0; slot = (slot + 1) & mask) {
+            int e = canonicalSlots[slot] - 1;
+            if (kinds[e] == kind.ordinal()
+                    && poolEquals(canonicals[e], canonical)
+                    && (parent == null || (parents[e] >= 0 && poolEquals(parents[e], parent)))) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(Kind kind, CharSequence term) {
+        return find(kind, term) >= 0;
+    }
+
+    /** 本地化名或别名 → 规范名，未找到返回 null。 */
+    public String canonicalOf(Kind kind, CharSequence term) {
+        int e = find(kind, term);
+        return e < 0 ? null : canonical(e);
+    }
+
+    /** 规范名 → 本地化名，未找到返回 null。 */
+    public String localizedOf(Kind kind, CharSequence canonical) {
+        return localizedOf(kind, canonical, null);
+    }
+
+    /** 规范名（限定父结构体）→ 本地化名，未找到返回 null。 */
+    public String localizedOf(Kind kind, CharSequence canonical, CharSequence parent) {
+        int e = findCanonical(kind, canonical, parent);
+        return e < 0 ? null : localized(e);
+    }
+
+    public Kind kind(int entry) {
+        return KINDS[kinds[entry]];
+    }
+
+    public String canonical(int entry) {
+        return string(canonicals[entry]);
+    }
+
+    /** 本地化名，仅别名条目返回 null。 */
+    public String localized(int entry) {
+        return localizeds[entry] < 0 ? null : string(localizeds[entry]);
+    }
+
+    /** 父结构体规范名，无父结构体时返回 null。 */
+    public String parent(int entry) {
+        return parents[entry] < 0 ? null : string(parents[entry]);
+    }
+
+    public List<String> aliases(int entry) {
+        List<String> result = new ArrayList<>(aliasStarts[entry + 1] - aliasStarts[entry]);
+        for (int a = aliasStarts[entry]; a < aliasStarts[entry + 1]; a++) {
+            result.add(string(aliasIds[a]));
+        }
+        return result;
+    }
+
+    /**
+     * 估算本实例占用的堆内存（字节），包含字符池、条目表和两张索引表。
+     * <p>
+     * 按 64 位 JVM、开启压缩指针计算：对象头 12 字节、数组头 16 字节、按 8 字节对齐。
+     */
+    public long footprintBytes() {
+        long bytes = align(12 + 15 * 4);
+        for (String s : new String[]{id, name, locale, version}) {
+            if (s != null) {
+                bytes += align(24) + arrayBytes(s.length(), 2);
+            }
+        }
+        bytes += arrayBytes(pool.length, 2) + arrayBytes(kinds.length, 1);
+        for (int[] a : new int[][]{offsets, canonicals, localizeds, parents, aliasStarts, aliasIds,
+                termKeys, termEntries, canonicalSlots}) {
+            bytes += arrayBytes(a.length, 4);
+        }
+        return bytes;
+    }
+
+    // ============================================================
+    // 内部实现
+    // ============================================================
+
+    private String string(int sid) {
+        return new String(pool, offsets[sid], offsets[sid + 1] - offsets[sid]);
+    }
+
+    private boolean poolEquals(int sid, CharSequence s) {
+        int start = offsets[sid];
+        int len = offsets[sid + 1] - start;
+        if (len != s.length()) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (pool[start + i] != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int poolHash(Kind kind, int sid) {
+        int h = 0;
+        for (int i = offsets[sid]; i < offsets[sid + 1]; i++) {
+            h = 31 * h + pool[i];
+        }
+        return mix(h, kind);
+    }
+
+    private void insertTerm(int sid, int entry) {
+        int mask = termKeys.length - 1;
+        int slot = poolHash(KINDS[kinds[entry]], sid) & mask;
+        while (termKeys[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        termKeys[slot] = sid + 1;
+        termEntries[slot] = entry;
+    }
+
+    private void insertCanonical(int entry) {
+        int mask = canonicalSlots.length - 1;
+        int slot = poolHash(KINDS[kinds[entry]], canonicals[entry]) & mask;
+        while (canonicalSlots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        canonicalSlots[slot] = entry + 1;
+    }
+
+    private static int hash(Kind kind, CharSequence s) {
+        int h = 0;
+        for (int i = 0; i < s.length(); i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return mix(h, kind);
+    }
+
+    private static int mix(int h, Kind kind) {
+        h = (h ^ kind.ordinal()) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** 负载因子不超过 0.5 的 2 的幂表长。 */
+    private static int tableSize(int count) {
+        return Integer.highestOneBit(Math.max(count, 2) * 2 - 1) << 1;
+    }
+
+    private static long arrayBytes(int length, int elementSize) {
+        return align(16L + (long) length * elementSize);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * 紧凑词汇表构建器。构建期间借助一张临时 HashMap 对字符串去重，
+     * {@link #build()} 之后只保留紧凑数组。
+     */
+    public static final class Builder {
+
+        private String id;
+        private String name;
+        private String locale;
+        private String version;
+
+        private final Map<String, Integer> strings = new HashMap<>();
+        private char[] pool = new char[256];
+        private int poolSize;
+        private int[] offsets = new int[64];
+
+        private byte[] kinds = new byte[64];
+        private int[] canonicals = new int[64];
+        private int[] localizeds = new int[64];
+        private int[] parents = new int[64];
+        private int[] aliasStarts = new int[65];
+        private int[] aliasIds = new int[64];
+        private int entryCount;
+        private int aliasCount;
+
+        private Builder(String id) {
+            this.id = id;
+        }
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder locale(String locale) {
+            this.locale = locale;
+            return this;
+        }
+
+        public Builder version(String version) {
+            this.version = version;
+            return this;
+        }
+
+        /**
+         * 追加一个条目。
+         *
+         * @param parent  父结构体规范名，可为 null
+         * @param aliases 别名列表，可为空
+         */
+        public Builder add(Kind kind, String canonical, String localized, String parent, List<String> aliases) {
+            if (canonical == null || localized == null) {
+                throw new IllegalArgumentException(
+                        "Vocabulary entry requires canonical and localized: " + canonical + " / " + localized);
+            }
+            return append(kind, canonical, localized, parent, aliases);
+        }
+
+        /**
+         * 追加一个仅别名条目：别名可以解析到规范名，但不参与规范名 → 本地化名的反查。
+         * 用于租户叠加层只补充私有别名的场景。
+         */
+        public Builder addAliases(Kind kind, String canonical, String parent, List<String> aliases) {
+            if (canonical == null || aliases.isEmpty()) {
+                throw new IllegalArgumentException("Alias entry requires canonical and aliases: " + canonical);
+            }
+            return append(kind, canonical, null, parent, aliases);
+        }
+
+        private Builder append(Kind kind, String canonical, String localized, String parent, List<String> aliases) {
+            if (entryCount == kinds.length) {
+                int cap = kinds.length * 2;
+                kinds = Arrays.copyOf(kinds, cap);
+                canonicals = Arrays.copyOf(canonicals, cap);
+                localizeds = Arrays.copyOf(localizeds, cap);
+                parents = Arrays.copyOf(parents, cap);
+                aliasStarts = Arrays.copyOf(aliasStarts, cap + 1);
+            }
+            int e = entryCount++;
+            kinds[e] = (byte) kind.ordinal();
+            canonicals[e] = intern(canonical);
+            localizeds[e] = localized == null ? -1 : intern(localized);
+            parents[e] = parent == null ? -1 : intern(parent);
+            for (String alias : aliases) {
+                if (aliasCount == aliasIds.length) {
+                    aliasIds = Arrays.copyOf(aliasIds, aliasCount * 2);
+                }
+                aliasIds[aliasCount++] = intern(alias);
+            }
+            aliasStarts[e + 1] = aliasCount;
+            return this;
+        }
+
+        public CompactVocabulary build() {
+            return new CompactVocabulary(this);
+        }
+
+        private int intern(String s) {
+            Integer existing = strings.get(s);
+            if (existing != null) {
+                return existing;
+            }
+            int sid = strings.size();
+            strings.put(s, sid);
+            if (poolSize + s.length() > pool.length) {
+                pool = Arrays.copyOf(pool, Math.max(pool.length * 2, poolSize + s.length()));
+            }
+            s.getChars(0, s.length(), pool, poolSize);
+            poolSize += s.length();
+            if (sid + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[sid + 1] = poolSize;
+            return sid;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package aster.lang.zh.vocabulary;
+
+import aster.lang.zh.vocabulary.CompactVocabulary.Kind;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 写时复制的分层词汇表视图。
+ * <p>
+ * 底层为共享的不可变基础词汇表（通常是 {@link BundledVocabularies} 中的若干个），其上叠加若干租户私有的
+ * 薄层。查询从最上层开始逐层查找，命中即返回，因此上层可以补充别名，也可以覆盖基础层的本地化名。
+ * <p>
+ * {@link #withLayer} 不修改当前视图，只复制层引用数组并返回新视图：基础层从不复制，
+ * 每个租户的内存开销只与其增量条目数相关，而不是"租户数 × 基础词汇表大小"。
+ */
+public final class LayeredVocabulary {
+
+    /** 查询顺序：下标 0 为最上层，末尾 {@link #baseCount} 个为共享基础层。 */
+    private final CompactVocabulary[] layers;
+    private final int baseCount;
+
+    private LayeredVocabulary(CompactVocabulary[] layers, int baseCount) {
+        this.layers = layers;
+        this.baseCount = baseCount;
+    }
+
+    /** 以单个基础词汇表构建视图。 */
+    public static LayeredVocabulary of(CompactVocabulary base) {
+        return new LayeredVocabulary(new CompactVocabulary[]{base}, 1);
+    }
+
+    /** 以多个基础词汇表构建视图，列表在前者优先。 */
+    public static LayeredVocabulary of(List<CompactVocabulary> bases) {
+        if (bases.isEmpty()) {
+            throw new IllegalArgumentException("LayeredVocabulary requires at least one base vocabulary");
+        }
+        return new LayeredVocabulary(bases.toArray(CompactVocabulary[]::new), bases.size());
+    }
+
+    /**
+     * 在当前视图之上叠加一层，返回新视图；当前视图不受影响。
+     */
+    public LayeredVocabulary withLayer(CompactVocabulary layer) {
+        CompactVocabulary[] next = new CompactVocabulary[layers.length + 1];
+        next[0] = layer;
+        System.arraycopy(layers, 0, next, 1, layers.length);
+        return new LayeredVocabulary(next, baseCount);
+    }
+
+    /** 共享的基础层。 */
+    public List<CompactVocabulary> bases() {
+        return List.of(Arrays.copyOfRange(layers, layers.length - baseCount, layers.length));
+    }
+
+    /** 从上到下的全部层。 */
+    public List<CompactVocabulary> layers() {
+        return List.of(layers);
+    }
+
+    /** 本地化名或别名 → 规范名，上层优先；未找到返回 null。 */
+    public String canonicalOf(Kind kind, CharSequence term) {
+        for (CompactVocabulary layer : layers) {
+            int e = layer.find(kind, term);
+            if (e >= 0) {
+                return layer.canonical(e);
+            }
+        }
+        return null;
+    }
+
+    /** 规范名 → 本地化名，上层优先；未找到返回 null。 */
+    public String localizedOf(Kind kind, CharSequence canonical) {
+        return localizedOf(kind, canonical, null);
+    }
+
+    /** 规范名（限定父结构体）→ 本地化名，上层优先；未找到返回 null。 */
+    public String localizedOf(Kind kind, CharSequence canonical, CharSequence parent) {
+        for (CompactVocabulary layer : layers) {
+            int e = layer.findCanonical(kind, canonical, parent);
+            if (e >= 0) {
+                return layer.localized(e);
+            }
+        }
+        return null;
+    }
+
+    public boolean contains(Kind kind, CharSequence term) {
+        for (CompactVocabulary layer : layers) {
+            if (layer.find(kind, term) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 本视图独占的内存估算（字节）：租户层的 {@link CompactVocabulary#footprintBytes()}
+     * 之和，加上视图对象与层引用数组本身。基础层由所有视图共享，不计入。
+     */
+    public long deltaFootprintBytes() {
+        long bytes = 24 + ((16L + 4L * layers.length + 7) & ~7L);
+        for (int i = 0; i < layers.length - baseCount; i++) {
+            bytes += layers[i].footprintBytes();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,95 @@
+package aster.lang.zh.vocabulary;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 以内存映射窗口顺序读取文件的输入流。
+ * <p>
+ * 每次只映射 {@link #WINDOW_BYTES} 大小的一段，读完再映射下一段；文件内容由页缓存承载，
+ * 不占用 Java 堆，也不受单个 {@link MappedByteBuffer} 2 GB 上限的约束。
+ * 仅供流式解析器顺序读取，不支持 mark/reset。
+ */
+final class MappedFileInputStream extends InputStream {
+
+    /** 单个映射窗口大小。 */
+    static final long WINDOW_BYTES = 64L << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowBytes;
+    private long windowStart;
+    private MappedByteBuffer window;
+
+    private MappedFileInputStream(FileChannel channel, long windowBytes) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.windowBytes = windowBytes;
+    }
+
+    static MappedFileInputStream open(Path file) throws IOException {
+        return open(file, WINDOW_BYTES);
+    }
+
+    static MappedFileInputStream open(Path file, long windowBytes) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new MappedFileInputStream(channel, windowBytes);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        return ensureWindow() ? window.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureWindow()) {
+            return -1;
+        }
+        int n = Math.min(len, window.remaining());
+        window.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public int available() {
+        long remaining = size - position();
+        return (int) Math.min(remaining, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private long position() {
+        return window == null ? windowStart : windowStart + window.position();
+    }
+
+    /** 当前窗口读完时映射下一段，文件末尾返回 false。 */
+    private boolean ensureWindow() throws IOException {
+        if (window != null && window.hasRemaining()) {
+            return true;
+        }
+        long next = position();
+        if (next >= size) {
+            return false;
+        }
+        windowStart = next;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, next, Math.min(windowBytes, size - next));
+        return true;
+    }
+}
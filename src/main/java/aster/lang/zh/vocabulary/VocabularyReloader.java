@@ -0,0 +1,250 @@
+package aster.lang.zh.vocabulary;
+
+import aster.core.identifier.DomainVocabulary;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 可热更新的词汇表目录。
+ * <p>
+ * 监听目录下的 {@code *.json} 词汇表文件（{@link WatchService}），在后台线程中重新解析发生变化的文件，
+ * 然后通过一次 {@link AtomicReference} 交换发布新的不可变 {@link Snapshot}：
+ * <ul>
+ *   <li>读取方只做一次 volatile 读，永不加锁</li>
+ *   <li>正在进行的规范化持有自己取到的快照，整个过程看到的词汇表保持一致</li>
+ *   <li>解析失败的文件保留旧版本，错误通过 {@link #onError} 回调报告</li>
+ *   <li>内容没有实际变化（例如所有变化的文件都解析失败）时不发布新快照，代数不变，也不通知监听者</li>
+ * </ul>
+ * 词汇表以文件名（去掉 {@code .json} 后缀）为键。该模式是可选的，见 {@code ZhCnPlugin#watchVocabularies}。
+ *
+ * @param <V> 词汇表类型
+ */
+public final class VocabularyReloader<V> implements AutoCloseable {
+
+    /** 单个词汇表文件的解析函数。 */
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load(Path file) throws IOException;
+    }
+
+    /**
+     * 某一时刻的词汇表全集，不可变。
+     *
+     * @param generation 每次发布递增，初始加载为 1，尚未加载时为 0
+     */
+    public record Snapshot<V>(Map<String, V> vocabularies, long generation) {
+
+        public V get(String name) {
+            return vocabularies.get(name);
+        }
+    }
+
+    /** 编辑器保存文件时通常连续产生多个事件，等待静默期后再统一重建。 */
+    private static final long QUIET_PERIOD_MILLIS = 100;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Path directory;
+    private final Loader<V> loader;
+    private final AtomicReference<Snapshot<V>> current = new AtomicReference<>(new Snapshot<>(Map.of(), 0));
+    private final CopyOnWriteArrayList<Consumer<Snapshot<V>>> reloadListeners = new CopyOnWriteArrayList<>();
+    private final CopyOnWriteArrayList<BiConsumer<Path, Exception>> errorListeners = new CopyOnWriteArrayList<>();
+
+    private WatchService watchService;
+    private Thread watcher;
+    private volatile boolean closed;
+
+    private VocabularyReloader(Path directory, Loader<V> loader) {
+        this.directory = directory;
+        this.loader = loader;
+    }
+
+    /**
+     * 监听目录中的 {@link DomainVocabulary}（JSON 直接绑定到 core 的词汇表模型）。
+     */
+    public static VocabularyReloader<DomainVocabulary> domainVocabularies(Path directory) {
+        return new VocabularyReloader<>(directory, file -> {
+            try (InputStream in = MappedFileInputStream.open(file)) {
+                return MAPPER.readValue(in, DomainVocabulary.class);
+            }
+        });
+    }
+
+    /**
+     * 监听目录中的词汇表，以 {@link CompactVocabulary} 形式发布。文件经内存映射流式解析，见
+     * {@link CompactVocabulary#fromFile(Path)}。
+     */
+    public static VocabularyReloader<CompactVocabulary> compactVocabularies(Path directory) {
+        return new VocabularyReloader<>(directory, CompactVocabulary::fromFile);
+    }
+
+    /** 使用自定义解析函数监听目录。 */
+    public static <V> VocabularyReloader<V> of(Path directory, Loader<V> loader) {
+        return new VocabularyReloader<>(directory, loader);
+    }
+
+    public VocabularyReloader<V> onReload(Consumer<Snapshot<V>> listener) {
+        reloadListeners.add(listener);
+        return this;
+    }
+
+    public VocabularyReloader<V> onError(BiConsumer<Path, Exception> listener) {
+        errorListeners.add(listener);
+        return this;
+    }
+
+    /**
+     * 同步加载目录中的全部词汇表，然后启动后台监听线程。
+     */
+    public synchronized VocabularyReloader<V> start() {
+        if (watcher != null) {
+            throw new IllegalStateException("VocabularyReloader already started: " + directory);
+        }
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to watch vocabulary directory: " + directory, e);
+        }
+        reload();
+        watcher = Thread.ofPlatform()
+                .name("zh-vocabulary-reloader")
+                .daemon(true)
+                .start(this::watchLoop);
+        return this;
+    }
+
+    /** 当前快照。读取方不加锁，应在一次规范化内复用同一个快照。 */
+    public Snapshot<V> current() {
+        return current.get();
+    }
+
+    /** 当前快照中的某个词汇表，不存在时返回 null。 */
+    public V get(String name) {
+        return current.get().get(name);
+    }
+
+    /** 是否已 {@link #close() 关闭}。关闭后 {@link #current()} 仍返回最后一次发布的快照。 */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 重新扫描整个目录，有变化时发布新快照（不依赖文件事件，可用于手动刷新）。
+     *
+     * @return 当前快照；没有变化时即原快照
+     */
+    public Snapshot<V> reload() {
+        Set<Path> files = new LinkedHashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.json")) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list vocabulary directory: " + directory, e);
+        }
+        Set<String> names = new LinkedHashSet<>(current.get().vocabularies().keySet());
+        files.forEach(f -> names.add(nameOf(f)));
+        Set<Path> all = new LinkedHashSet<>();
+        names.forEach(n -> all.add(directory.resolve(n + ".json")));
+        return rebuild(all);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Set<Path> changed = new LinkedHashSet<>();
+                // 收集本批事件，直到静默期内不再有新事件
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context() instanceof Path p && p.toString().endsWith(".json")) {
+                            changed.add(directory.resolve(p));
+                        }
+                    }
+                    key.reset();
+                    key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (!changed.isEmpty()) {
+                    rebuild(changed);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // close() 结束监听
+        }
+    }
+
+    /**
+     * 在调用线程上解析变化的文件，构造新快照并一次性交换。
+     * 没有词汇表被新增、删除或替换为不相等的新值时保留原快照；初始加载总是发布。
+     * <p>
+     * 只有重建线程会写入 {@link #current}，用 synchronized 串行化手动 reload 与后台重建。
+     */
+    private synchronized Snapshot<V> rebuild(Set<Path> changed) {
+        Snapshot<V> previous = current.get();
+        Map<String, V> next = new HashMap<>(previous.vocabularies());
+        boolean modified = previous.generation() == 0;
+        for (Path file : changed) {
+            String name = nameOf(file);
+            if (!Files.exists(file)) {
+                modified |= next.remove(name) != null;
+                continue;
+            }
+            try {
+                V loaded = loader.load(file);
+                modified |= !Objects.equals(next.put(name, loaded), loaded);
+            } catch (IOException | RuntimeException e) {
+                // 保留旧版本，避免半写入的文件让读取方看到残缺词汇表
+                errorListeners.forEach(l -> l.accept(file, e));
+            }
+        }
+        if (!modified) {
+            return previous;
+        }
+        Snapshot<V> snapshot = new Snapshot<>(Collections.unmodifiableMap(next), previous.generation() + 1);
+        current.set(snapshot);
+        reloadListeners.forEach(l -> l.accept(snapshot));
+        return snapshot;
+    }
+
+    private static String nameOf(Path file) {
+        String fileName = file.getFileName().toString();
+        return fileName.endsWith(".json") ? fileName.substring(0, fileName.length() - ".json".length()) : fileName;
+    }
+}
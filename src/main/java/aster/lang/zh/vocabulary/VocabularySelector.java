@@ -0,0 +1,191 @@
+package aster.lang.zh.vocabulary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 按文档内容自动挑选领域词汇表。
+ * <p>
+ * 事先不知道模块用到哪个领域词汇表时，不必加载并逐个查询全部词汇表：每个候选只登记一个
+ * {@link VocabularySketch} 和一个延迟加载函数。{@link #rank} 对文档做一遍扫描，收集其中不同的汉字二元组，
+ * 再逐个草图统计命中数；达到入选阈值的候选按命中数降序入选，只有入选的词汇表才会被加载（每个候选至多加载一次）。
+ * <p>
+ * 入选阈值随文档规模伸缩：文档有 N 个不同二元组、草图假阳性率为 p 时，无关文档的假命中数近似服从均值
+ * {@code N·p}、方差 {@code N·p·(1-p)} 的二项分布，阈值取 {@link Builder#minHits} 与
+ * {@code ⌈N·p + 3σ⌉} 中的较大者。短片段上阈值退化为 {@code minHits}；数千个不同二元组的整模块中，
+ * 约 1% 的假阳性不会让每个词汇表都入选。实例构建后不可变，可在多线程间共享。
+ */
+public final class VocabularySelector {
+
+    /**
+     * 某个候选词汇表对文档的命中情况。
+     *
+     * @param name 候选名
+     * @param hits 文档中落在该词汇表草图内的不同汉字二元组数
+     */
+    public record Match(String name, int hits) {
+    }
+
+    private final Candidate[] candidates;
+    private final int minHits;
+    private final int maxSelected;
+
+    private VocabularySelector(Builder b) {
+        this.candidates = b.candidates.toArray(Candidate[]::new);
+        this.minHits = b.minHits;
+        this.maxSelected = b.maxSelected;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** 以全部内置词汇表为候选。 */
+    public static VocabularySelector bundled() {
+        Builder b = builder();
+        BundledVocabularies.all().forEach(b::add);
+        return b.build();
+    }
+
+    /**
+     * 对文档评分，返回达到阈值的候选（按命中数降序，至多 {@link Builder#maxSelected} 个）。不加载词汇表。
+     */
+    public List<Match> rank(CharSequence document) {
+        VocabularySketch.IntSet bigrams = new VocabularySketch.IntSet();
+        VocabularySketch.forEachBigram(document, 0, document.length(), bigrams::add);
+        List<Match> matches = new ArrayList<>();
+        for (Candidate c : candidates) {
+            int[] hits = new int[1];
+            bigrams.forEach(key -> {
+                if (c.sketch.mightContain(key)) {
+                    hits[0]++;
+                }
+            });
+            if (hits[0] >= threshold(bigrams.size(), c.sketch.falsePositiveRate())) {
+                matches.add(new Match(c.name, hits[0]));
+            }
+        }
+        matches.sort(Comparator.comparingInt(Match::hits).reversed());
+        return matches.size() > maxSelected ? List.copyOf(matches.subList(0, maxSelected)) : matches;
+    }
+
+    /** 文档有 {@code bigrams} 个不同二元组时，候选草图入选所需的命中数。 */
+    int threshold(int bigrams, double falsePositiveRate) {
+        double expected = bigrams * falsePositiveRate;
+        double sigma = Math.sqrt(expected * (1 - falsePositiveRate));
+        return Math.max(minHits, (int) Math.ceil(expected + 3 * sigma));
+    }
+
+    /** 挑选并加载与文档相关的词汇表，顺序与 {@link #rank} 一致。 */
+    public List<CompactVocabulary> select(CharSequence document) {
+        List<CompactVocabulary> selected = new ArrayList<>();
+        for (Match m : rank(document)) {
+            selected.add(candidate(m.name()).load());
+        }
+        return selected;
+    }
+
+    /** 以入选词汇表构建分层视图，命中最多者优先；没有相关词汇表时返回空。 */
+    public Optional<LayeredVocabulary> layered(CharSequence document) {
+        List<CompactVocabulary> selected = select(document);
+        return selected.isEmpty() ? Optional.empty() : Optional.of(LayeredVocabulary.of(selected));
+    }
+
+    /** 候选是否已被加载过。 */
+    public boolean isLoaded(String name) {
+        return candidate(name).loaded != null;
+    }
+
+    private Candidate candidate(String name) {
+        for (Candidate c : candidates) {
+            if (c.name.equals(name)) {
+                return c;
+            }
+        }
+        throw new IllegalArgumentException("Unknown vocabulary candidate: " + name);
+    }
+
+    private static final class Candidate {
+        final String name;
+        final VocabularySketch sketch;
+        final Supplier<CompactVocabulary> loader;
+        volatile CompactVocabulary loaded;
+
+        Candidate(String name, VocabularySketch sketch, Supplier<CompactVocabulary> loader) {
+            this.name = name;
+            this.sketch = sketch;
+            this.loader = loader;
+        }
+
+        CompactVocabulary load() {
+            CompactVocabulary v = loaded;
+            if (v == null) {
+                synchronized (this) {
+                    v = loaded;
+                    if (v == null) {
+                        v = loader.get();
+                        loaded = v;
+                    }
+                }
+            }
+            return v;
+        }
+    }
+
+    public static final class Builder {
+        private final List<Candidate> candidates = new ArrayList<>();
+        private int minHits = 2;
+        private int maxSelected = Integer.MAX_VALUE;
+
+        private Builder() {}
+
+        /**
+         * 登记一个延迟加载的候选。草图通常由 {@link VocabularySketch#fromBytes} 从词汇表旁的草图文件恢复。
+         */
+        public Builder add(String name, VocabularySketch sketch, Supplier<CompactVocabulary> loader) {
+            return register(new Candidate(name, sketch, loader));
+        }
+
+        /** 登记一个已加载的词汇表，以其 id 为候选名。 */
+        public Builder add(CompactVocabulary vocabulary) {
+            Candidate c = new Candidate(vocabulary.id(), VocabularySketch.of(vocabulary), () -> vocabulary);
+            c.loaded = vocabulary;
+            return register(c);
+        }
+
+        /** 入选所需的最少命中二元组数（文档较大时阈值按假阳性期望上调），默认 2。 */
+        public Builder minHits(int minHits) {
+            if (minHits < 1) {
+                throw new IllegalArgumentException("minHits must be >= 1: " + minHits);
+            }
+            this.minHits = minHits;
+            return this;
+        }
+
+        /** 最多入选的词汇表数，默认不限。 */
+        public Builder maxSelected(int maxSelected) {
+            if (maxSelected < 1) {
+                throw new IllegalArgumentException("maxSelected must be >= 1: " + maxSelected);
+            }
+            this.maxSelected = maxSelected;
+            return this;
+        }
+
+        private Builder register(Candidate candidate) {
+            for (Candidate c : candidates) {
+                if (c.name.equals(candidate.name)) {
+                    throw new IllegalArgumentException("Duplicate vocabulary candidate: " + c.name);
+                }
+            }
+            candidates.add(candidate);
+            return this;
+        }
+
+        public VocabularySelector build() {
+            return new VocabularySelector(this);
+        }
+    }
+}
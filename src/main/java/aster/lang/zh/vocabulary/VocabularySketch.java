@@ -0,0 +1,224 @@
+package aster.lang.zh.vocabulary;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * 词汇表术语的紧凑汉字二元组草图（Bloom 过滤器）。
+ * <p>
+ * 把词汇表中所有本地化名与别名里相邻的两个汉字（如 {@code 驾驶员} → {@code 驾驶}、{@code 驶员}）
+ * 插入一个按每个二元组 {@link #BITS_PER_BIGRAM} 位、{@link #HASHES} 个哈希函数配置的 Bloom 过滤器，
+ * 假阳性率约 1%。一个数千条目的词汇表草图只有几 KB，可以和词汇表文件一起保存（{@link #toBytes()}），
+ * 在不加载词汇表本身的情况下判断文档是否可能用到它，见 {@link VocabularySelector}。
+ * <p>
+ * 只有一个汉字的术语不产生二元组，不参与检测。实例不可变，可在多线程间共享。
+ */
+public final class VocabularySketch {
+
+    static final int BITS_PER_BIGRAM = 10;
+    static final int HASHES = 7;
+
+    private static final int MAGIC = 0x415A5653;
+
+    private final long[] bits;
+    private final int bigramCount;
+    private final double falsePositiveRate;
+
+    private VocabularySketch(long[] bits, int bigramCount) {
+        this.bits = bits;
+        this.bigramCount = bigramCount;
+        long set = 0;
+        for (long word : bits) {
+            set += Long.bitCount(word);
+        }
+        this.falsePositiveRate = Math.pow(set / (double) ((long) bits.length << 6), HASHES);
+    }
+
+    /** 由紧凑词汇表的本地化名与别名构建。 */
+    public static VocabularySketch of(CompactVocabulary vocabulary) {
+        List<String> terms = new ArrayList<>();
+        for (int e = 0; e < vocabulary.size(); e++) {
+            String localized = vocabulary.localized(e);
+            if (localized != null) {
+                terms.add(localized);
+            }
+            terms.addAll(vocabulary.aliases(e));
+        }
+        return of(terms);
+    }
+
+    /** 由任意术语集合构建。 */
+    public static VocabularySketch of(Iterable<? extends CharSequence> terms) {
+        IntSet bigrams = new IntSet();
+        for (CharSequence term : terms) {
+            forEachBigram(term, 0, term.length(), bigrams::add);
+        }
+        int n = Math.max(1, bigrams.size());
+        long[] bits = new long[(int) Math.max(1, ((long) n * BITS_PER_BIGRAM + 63) >>> 6)];
+        bigrams.forEach(key -> insert(bits, key));
+        return new VocabularySketch(bits, bigrams.size());
+    }
+
+    /**
+     * 从 {@link #toBytes()} 的结果恢复。
+     */
+    public static VocabularySketch fromBytes(byte[] bytes) {
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        if (bytes.length < 12 || buf.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a vocabulary sketch");
+        }
+        int bigramCount = buf.getInt();
+        int words = buf.getInt();
+        if (words <= 0 || buf.remaining() != words * 8L) {
+            throw new IllegalArgumentException("Truncated vocabulary sketch: " + bytes.length + " bytes");
+        }
+        long[] bits = new long[words];
+        buf.asLongBuffer().get(bits);
+        return new VocabularySketch(bits, bigramCount);
+    }
+
+    /** 序列化为字节数组（魔数、二元组数、位图）。 */
+    public byte[] toBytes() {
+        ByteBuffer buf = ByteBuffer.allocate(12 + bits.length * 8);
+        buf.putInt(MAGIC).putInt(bigramCount).putInt(bits.length);
+        buf.asLongBuffer().put(bits);
+        return buf.array();
+    }
+
+    /** 二元组 {@code (a, b)} 是否可能出现在词汇表术语中（可能假阳性，不会假阴性）。 */
+    public boolean mightContain(char a, char b) {
+        return mightContain(key(a, b));
+    }
+
+    /** 插入草图的不同二元组数。 */
+    public int bigramCount() {
+        return bigramCount;
+    }
+
+    /**
+     * 对不在词汇表中的二元组报告命中的概率，由位图实际置位比例估算：{@code (置位数 / 总位数)^HASHES}。
+     */
+    public double falsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /** 位图占用的字节数。 */
+    public int sizeBytes() {
+        return bits.length * 8;
+    }
+
+    boolean mightContain(int key) {
+        long h = mix(key);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        long m = (long) bits.length << 6;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % m;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void insert(long[] bits, int key) {
+        long h = mix(key);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32) | 1;
+        long m = (long) bits.length << 6;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % m;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * 对 {@code [from, to)} 中每对相邻汉字回调其二元组键。非 BMP 汉字（扩展 B 区以后）不参与。
+     */
+    static void forEachBigram(CharSequence s, int from, int to, IntConsumer sink) {
+        char prev = 0;
+        boolean prevHan = false;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            boolean han = Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN;
+            if (han && prevHan) {
+                sink.accept(key(prev, c));
+            }
+            prev = c;
+            prevHan = han;
+        }
+    }
+
+    static int key(char a, char b) {
+        return (a << 16) | b;
+    }
+
+    private static long mix(int key) {
+        long z = key * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** int 开放寻址集合，用于构建期和文档扫描期的二元组去重。 */
+    static final class IntSet {
+        private int[] slots = new int[64];
+        private boolean hasZero;
+        private int size;
+
+        boolean add(int key) {
+            if (key == 0) {
+                boolean added = !hasZero;
+                hasZero = true;
+                size += added ? 1 : 0;
+                return added;
+            }
+            if ((size + 1) * 2 > slots.length) {
+                grow();
+            }
+            int mask = slots.length - 1;
+            int slot = (int) mix(key) & mask;
+            while (slots[slot] != 0) {
+                if (slots[slot] == key) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = key;
+            size++;
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void forEach(IntConsumer action) {
+            if (hasZero) {
+                action.accept(0);
+            }
+            for (int key : slots) {
+                if (key != 0) {
+                    action.accept(key);
+                }
+            }
+        }
+
+        private void grow() {
+            int[] old = slots;
+            slots = new int[old.length * 2];
+            int mask = slots.length - 1;
+            for (int key : old) {
+                if (key != 0) {
+                    int slot = (int) mix(key) & mask;
+                    while (slots[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    slots[slot] = key;
+                }
+            }
+        }
+    }
+}
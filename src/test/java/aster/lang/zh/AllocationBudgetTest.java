@@ -0,0 +1,145 @@
+package aster.lang.zh;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.canonicalizer.StringSegmenter;
+import aster.core.canonicalizer.SyntaxTransformer;
+import aster.core.lexicon.CanonicalizationConfig;
+import aster.core.lexicon.LexiconRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 分配预算回归测试。
+ * <p>
+ * 用 {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()} 测量每个
+ * {@code Chinese*Transformer} 以及完整 zh-CN 规范化处理每 KB（1024 字符）输入分配的字节数，
+ * 超过 {@code src/test/resources/allocation-budgets.properties} 中的预算即失败。
+ * 例如把 {@code StringBuilder} 换成 {@code StringBuffer} 不会触发，但多一次 {@code replaceAll}
+ * 或多一次整串复制会让对应条目超标。
+ * <p>
+ * 每个条目（含完整流水线）都是各自实测值的 1.5 倍，预算文件的 {@code calibrated.jdk} 记录校准所用的 JDK。
+ * 超标时断言消息给出实测值与两端 JDK；有意增加分配或更换工具链时，运行标记为 benchmark 的
+ * {@link #calibrate()} 重新校准。
+ */
+@DisplayName("分配预算")
+class AllocationBudgetTest {
+
+    /** 覆盖全部变换器的代表性源码片段，重复到约 64K 字符后测量。 */
+    private static final String SNIPPET = """
+            模块 保险.汽车。
+            规则 评估报价(驾驶员: 驾驶员信息, 车辆: 车辆信息)：
+              令 基础保费 定义为 1000。
+              如果 驾驶员的年龄 小于 25 并且 车辆 的 价格 大于等于 200000：
+                将 基础保费 设为 基础保费 乘以 2。
+              如果 驾驶员的事故次数 不等于 0：
+                返回 「拒保：事故记录，需人工审核。」。
+              结果为 基础保费 加上 车辆的价格 除以 100。
+            规则 评估贷款 给定 申请人，产出：
+              如果 申请人.信用评分 大于 700 或者 申请人.收入 等于 0，返回 审批结果.批准。
+              否则 返回 审批结果、拒绝。
+            """;
+    private static final int INPUT_CHARS = 64 * 1024;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final String PIPELINE = "zh-CN-canonicalize";
+    private static final double MARGIN = 1.5;
+    private static final int MEASURE_ROUNDS = 20;
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static Properties budgets;
+    private static String input;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "当前 JVM 不支持线程分配计数");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "当前 JVM 不支持线程分配计数");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        budgets = new Properties();
+        try (InputStream is = AllocationBudgetTest.class.getResourceAsStream("/allocation-budgets.properties")) {
+            assertThat(is).as("allocation-budgets.properties 应存在于 classpath").isNotNull();
+            budgets.load(is);
+        }
+        input = SNIPPET.repeat(INPUT_CHARS / SNIPPET.length() + 1);
+    }
+
+    @TestFactory
+    @DisplayName("每 KB 输入的分配量不超过预算")
+    Stream<DynamicTest> allocationBudgets() {
+        List<DynamicTest> tests = new ArrayList<>();
+        subjects().forEach((name, subject) -> tests.add(DynamicTest.dynamicTest(name, () -> {
+            String budget = budgets.getProperty(name);
+            assumeTrue(budget != null, name + " 尚未校准，运行 calibrate() 后写入 allocation-budgets.properties");
+            double perKb = measureBytesPerKb(subject);
+            assertThat(perKb)
+                    .as("%s 每 KB 输入分配 %.0f 字节，超过预算 %s（预算校准于 %s，当前 %s）",
+                            name, perKb, budget, budgets.getProperty("calibrated.jdk"), currentJdk())
+                    .isLessThanOrEqualTo(Double.parseDouble(budget));
+        })));
+        return tests.stream();
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("校准：输出实测值与按余量计算的预算")
+    void calibrate() {
+        System.out.printf("calibrated.jdk=%s%n", currentJdk());
+        subjects().forEach((name, subject) -> {
+            double perKb = measureBytesPerKb(subject);
+            long suggested = (long) Math.ceil(perKb * MARGIN / 1024) * 1024;
+            System.out.printf("# %-26s %8.0f B/KB%n%s=%d%n", name, perKb, name, suggested);
+        });
+    }
+
+    private static Map<String, UnaryOperator<String>> subjects() {
+        CanonicalizationConfig config = CanonicalizationConfig.defaults();
+        StringSegmenter segmenter = new StringSegmenter("「", "」");
+        Map<String, UnaryOperator<String>> subjects = new TreeMap<>();
+        new ZhCnPlugin().getTransformers().forEach((name, supplier) -> {
+            SyntaxTransformer transformer = supplier.get();
+            subjects.put(name, s -> transformer.transform(s, config, segmenter));
+        });
+        subjects.put(PIPELINE,
+                new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN"))::canonicalize);
+        return subjects;
+    }
+
+    private static String currentJdk() {
+        return System.getProperty("java.vendor") + " " + System.getProperty("java.runtime.version");
+    }
+
+    private static double measureBytesPerKb(UnaryOperator<String> subject) {
+        // 用整段输入预热到 C2 编译，测量稳态下（逃逸分析生效、Vector 内联后）的分配
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            subject.apply(input);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            String result = subject.apply(input);
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            assertThat(result).isNotNull();
+            best = Math.min(best, allocated);
+        }
+        return best / (input.length() / 1024.0);
+    }
+}
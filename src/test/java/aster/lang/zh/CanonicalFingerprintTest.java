@@ -0,0 +1,85 @@
+package aster.lang.zh;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.canonicalizer.SyntaxTransformer;
+import aster.core.lexicon.LexiconRegistry;
+import aster.lang.zh.shadow.ShadowVerifier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 规范形式指纹单元测试。
+ */
+@DisplayName("CanonicalFingerprint")
+class CanonicalFingerprintTest {
+
+    @Test
+    @DisplayName("zh-CN 指纹与对规范化结果整体哈希一致")
+    void testMatchesMaterializedHash() throws NoSuchAlgorithmException {
+        Canonicalizer canonicalizer = new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN"));
+        for (String source : SyntheticCorpus.modules(16)) {
+            byte[] expected = MessageDigest.getInstance("SHA-256")
+                    .digest(canonicalizer.canonicalize(source).getBytes(StandardCharsets.UTF_8));
+            assertThat(CanonicalFingerprint.zhCn().digest(source)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("变换器阶段指纹与对串联变换器输出整体哈希一致，且不同于完整规范形式")
+    void testStageMatchesTransformerChain() throws NoSuchAlgorithmException {
+        Map<String, Supplier<SyntaxTransformer>> registered = new ZhCnPlugin().getTransformers();
+        UnaryOperator<String> chain = ShadowVerifier.transformerChain(ZhCnPlugin.CHINESE_TRANSFORMERS.stream()
+                .map(name -> registered.get(name).get())
+                .toArray(SyntaxTransformer[]::new));
+        for (String source : SyntheticCorpus.modules(16)) {
+            byte[] expected = MessageDigest.getInstance("SHA-256")
+                    .digest(chain.apply(source).getBytes(StandardCharsets.UTF_8));
+            assertThat(CanonicalFingerprint.zhCnStage().digest(source)).isEqualTo(expected);
+        }
+        assertThat(CanonicalFingerprint.zhCnStage().hex("结果为 甲 加上 乙。"))
+                .isNotEqualTo(CanonicalFingerprint.zhCnStage().hex("结果为 甲 加上 丙。"));
+    }
+
+    @Test
+    @DisplayName("分块 UTF-8 编码与 String.getBytes 逐字节等价")
+    void testUtf8Equivalence() throws NoSuchAlgorithmException {
+        SplittableRandom random = new SplittableRandom(45);
+        char[] alphabet = {'a', 'Z', ' ', '\n', 'é', 'Ω', '中', '「', '：', '\uD83D', '\uDE00', '\uD800', '\uDFFF'};
+        for (int round = 0; round < 500; round++) {
+            int length = round < 100 ? round : random.nextInt(40_000);
+            StringBuilder sb = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String text = sb.toString();
+
+            MessageDigest streamed = MessageDigest.getInstance("SHA-256");
+            CanonicalFingerprint.updateUtf8(streamed, text);
+            byte[] expected = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            assertThat(streamed.digest()).as("length %d", length).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("自定义流水线与摘要算法")
+    void testCustomPipeline() throws NoSuchAlgorithmException {
+        CanonicalFingerprint fingerprint = CanonicalFingerprint.of(s -> s.replace("。", "."), "SHA-512");
+
+        byte[] expected = MessageDigest.getInstance("SHA-512").digest("令 x 定义为 1.".getBytes(StandardCharsets.UTF_8));
+        assertThat(fingerprint.digest("令 x 定义为 1。")).isEqualTo(expected);
+        assertThat(fingerprint.hex("令 x 定义为 1。")).hasSize(128);
+        assertThatThrownBy(() -> CanonicalFingerprint.of(s -> s, "NO-SUCH-HASH"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
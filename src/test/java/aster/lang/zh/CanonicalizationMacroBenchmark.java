@@ -0,0 +1,208 @@
+package aster.lang.zh;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.lexicon.LexiconRegistry;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 宏观扩展基准：1 KB 到 100 MB 的生成模块。
+ * <p>
+ * 对每个规模（按 10 倍递增）生成一个 zh-CN 模块并完整规范化，输出墙钟时间、吞吐量（MB/s）、
+ * 每字节耗时、峰值堆增量及其与输入字节数之比、GC 次数/时间和最长停顿。以下情况会被标记并使基准失败：
+ * <ul>
+ *   <li>超线性：每字节耗时超过基准规模的 {@code superlinear-tolerance} 倍</li>
+ *   <li>堆超限：峰值堆增量超过输入字节数的 {@code heap-ratio-ceiling} 倍</li>
+ * </ul>
+ * 阈值见 {@code src/test/resources/macro-benchmark.properties}。峰值堆取各堆内存池峰值之和，
+ * 是运行期间真实峰值的上界。
+ * <p>
+ * 通过 {@code ./gradlew benchmark --tests '*CanonicalizationMacroBenchmark'} 运行。
+ */
+@Tag("benchmark")
+@DisplayName("规范化宏观扩展基准")
+class CanonicalizationMacroBenchmark {
+
+    private static final long MIN_BYTES = 1024;
+    /** 小规模输入重复测量，直到累计耗时超过该值。 */
+    private static final long MIN_MEASURE_NANOS = 500_000_000L;
+    private static final int MAX_ROUNDS = 50;
+
+    private record Result(long bytes, long bestNanos, long peakHeapBytes,
+                          long gcCount, long gcMillis, long maxPauseMillis, List<String> flags) {
+
+        double nanosPerByte() {
+            return (double) bestNanos / bytes;
+        }
+
+        double heapRatio() {
+            return (double) peakHeapBytes / bytes;
+        }
+    }
+
+    @Test
+    @DisplayName("1 KB 到 100 MB 的耗时、吞吐与堆占用")
+    void benchmarkMacroScaling() throws IOException {
+        Properties config = new Properties();
+        try (InputStream is = getClass().getResourceAsStream("/macro-benchmark.properties")) {
+            assertThat(is).as("macro-benchmark.properties 应存在于 classpath").isNotNull();
+            config.load(is);
+        }
+        long maxBytes = Long.getLong("aster.benchmark.maxBytes", Long.parseLong(config.getProperty("max-bytes")));
+        double heapCeiling = Double.parseDouble(config.getProperty("heap-ratio-ceiling"));
+        double tolerance = Double.parseDouble(config.getProperty("superlinear-tolerance"));
+        long minChecked = Long.parseLong(config.getProperty("min-checked-bytes"));
+
+        Canonicalizer canonicalizer = new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN"));
+        String warmup = SyntheticCorpus.module(1 << 20);
+        for (int i = 0; i < 5; i++) {
+            canonicalizer.canonicalize(warmup);
+        }
+        warmup = null;
+
+        PauseRecorder pauses = PauseRecorder.install();
+        List<Result> results = new ArrayList<>();
+        double reference = Double.NaN;
+        System.out.printf("%n%10s %10s %9s %8s %10s %7s %6s %8s %9s  %s%n",
+                "bytes", "best ms", "MB/s", "ns/B", "peak MB", "heap×", "gc", "gc ms", "pause ms", "flags");
+        for (long target = MIN_BYTES; target <= maxBytes; target *= 10) {
+            String source = SyntheticCorpus.module(target);
+            long bytes = source.getBytes(StandardCharsets.UTF_8).length;
+            Result r = measure(canonicalizer, source, bytes, pauses);
+            // 生成下一个规模前释放本轮输入，避免两份大字符串同时占用堆
+            source = null;
+
+            if (bytes >= minChecked) {
+                if (Double.isNaN(reference)) {
+                    reference = r.nanosPerByte();
+                } else if (r.nanosPerByte() > reference * tolerance) {
+                    r.flags().add(String.format("SUPER-LINEAR ×%.2f", r.nanosPerByte() / reference));
+                }
+                if (r.heapRatio() > heapCeiling) {
+                    r.flags().add(String.format("HEAP %.1f× > %.1f×", r.heapRatio(), heapCeiling));
+                }
+            }
+            results.add(r);
+            System.out.printf("%10d %10.2f %9.1f %8.1f %10.1f %7.2f %6d %8d %9d  %s%n",
+                    r.bytes(), r.bestNanos() / 1e6, r.bytes() / 1e6 / (r.bestNanos() / 1e9), r.nanosPerByte(),
+                    r.peakHeapBytes() / 1048576.0, r.heapRatio(), r.gcCount(), r.gcMillis(), r.maxPauseMillis(),
+                    String.join(", ", r.flags()));
+        }
+        pauses.uninstall();
+
+        assertThat(results.stream().filter(r -> !r.flags().isEmpty()).map(r -> r.bytes() + " B: " + r.flags()))
+                .as("超线性增长或堆超限的规模")
+                .isEmpty();
+    }
+
+    private static Result measure(Canonicalizer canonicalizer, String source, long bytes, PauseRecorder pauses) {
+        // 单独一次运行测峰值堆：先回收到稳定基线，再清零各内存池峰值
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(p -> p.getType() == MemoryType.HEAP && p.isValid())
+                .toList();
+        System.gc();
+        long baseline = heapPools.stream().mapToLong(p -> p.getUsage().getUsed()).sum();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        String output = canonicalizer.canonicalize(source);
+        long peak = heapPools.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+        assertThat(output).isNotEmpty();
+        output = null;
+
+        long gcCount = gcCount();
+        long gcMillis = gcMillis();
+        pauses.reset();
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        int rounds = 0;
+        while (rounds < MAX_ROUNDS && (rounds == 0 || total < MIN_MEASURE_NANOS)) {
+            long start = System.nanoTime();
+            canonicalizer.canonicalize(source);
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+            rounds++;
+        }
+        return new Result(bytes, best, Math.max(0, peak - baseline),
+                (gcCount() - gcCount) / rounds, (gcMillis() - gcMillis) / rounds, pauses.max(), new ArrayList<>());
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    /**
+     * 通过 GC 通知记录最长的单次停顿；并发收集周期（与应用线程并行）不计入。
+     */
+    private static final class PauseRecorder implements NotificationListener {
+        private final AtomicLong max = new AtomicLong();
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+        static PauseRecorder install() {
+            PauseRecorder recorder = new PauseRecorder();
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (gc instanceof NotificationEmitter emitter) {
+                    emitter.addNotificationListener(recorder, null, null);
+                    recorder.emitters.add(emitter);
+                }
+            }
+            return recorder;
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+            var info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            if (info.getGcAction().contains("concurrent") || info.getGcName().contains("Concurrent")) {
+                return;
+            }
+            max.accumulateAndGet(info.getGcInfo().getDuration(), Math::max);
+        }
+
+        void reset() {
+            max.set(0);
+        }
+
+        long max() {
+            return max.get();
+        }
+
+        void uninstall() {
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (ListenerNotFoundException e) {
+                    // 已移除
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package aster.lang.zh;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.lexicon.LexiconRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 多线程扩展与争用压力基准。
+ * <p>
+ * 在 1..N 个平台线程以及同等数量的虚拟线程上运行共享的 zh-CN 规范化，输出吞吐量与扩展效率
+ * （N 线程吞吐 / (N × 单线程吞吐)），并校验所有结果与单线程输出一致。
+ * 效率明显低于 1 且随线程数下降，通常意味着共享单例上存在隐藏的锁或伪共享。
+ * <p>
+ * 通过 {@code ./gradlew benchmark --tests '*CanonicalizationScalingBenchmark'} 运行。
+ */
+@Tag("benchmark")
+@DisplayName("规范化多线程扩展基准")
+class CanonicalizationScalingBenchmark {
+
+    private static final int CORPUS_SIZE = 512;
+    private static final int OPS_PER_THREAD = 4000;
+
+    @Test
+    @DisplayName("平台线程与虚拟线程扩展效率")
+    void benchmarkScaling() throws Exception {
+        Canonicalizer canonicalizer = new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN"));
+        List<String> corpus = SyntheticCorpus.modules(CORPUS_SIZE);
+        List<String> expected = corpus.stream().map(canonicalizer::canonicalize).toList();
+
+        // 预热到稳态，避免单线程基线包含 JIT 时间
+        run(Thread.ofPlatform().factory(), Runtime.getRuntime().availableProcessors(), canonicalizer, corpus, expected);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> counts = new ArrayList<>();
+        for (int n = 1; n < cores; n *= 2) {
+            counts.add(n);
+        }
+        counts.add(cores);
+
+        for (String kind : List.of("platform", "virtual")) {
+            double base = 0;
+            System.out.printf("%n%-8s %8s %14s %10s%n", kind, "threads", "ops/s", "efficiency");
+            for (int n : counts) {
+                ThreadFactory factory = kind.equals("platform") ? Thread.ofPlatform().factory() : Thread.ofVirtual().factory();
+                double throughput = run(factory, n, canonicalizer, corpus, expected);
+                if (n == 1) {
+                    base = throughput;
+                }
+                System.out.printf("%-8s %8d %14.0f %9.0f%%%n", kind, n, throughput, 100 * throughput / (n * base));
+            }
+        }
+    }
+
+    /**
+     * @return 每秒完成的规范化次数
+     */
+    private static double run(ThreadFactory factory, int threads, Canonicalizer canonicalizer,
+                              List<String> corpus, List<String> expected) throws Exception {
+        try (ExecutorService pool = Executors.newThreadPerTaskExecutor(factory)) {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t * 31;
+                tasks.add(() -> {
+                    boolean consistent = true;
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        int k = (i + offset) % corpus.size();
+                        consistent &= canonicalizer.canonicalize(corpus.get(k)).equals(expected.get(k));
+                    }
+                    return consistent;
+                });
+            }
+            long start = System.nanoTime();
+            List<Future<Boolean>> results = pool.invokeAll(tasks);
+            long elapsed = System.nanoTime() - start;
+            for (Future<Boolean> f : results) {
+                assertThat(f.get()).as("并发输出与单线程输出不一致").isTrue();
+            }
+            return (double) threads * OPS_PER_THREAD / (elapsed / 1e9);
+        }
+    }
+}
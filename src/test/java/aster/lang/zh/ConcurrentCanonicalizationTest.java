@@ -0,0 +1,78 @@
+package aster.lang.zh;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.lexicon.LexiconRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 多线程规范化一致性测试。
+ * <p>
+ * 变换器单例、{@code LexiconRegistry.getInstance()} 和共享的 {@link Canonicalizer} 被所有请求线程共用；
+ * 本测试在平台线程与虚拟线程上并发规范化，断言每个结果都与单线程输出一致。
+ * 扩展效率见 {@code CanonicalizationScalingBenchmark}。
+ */
+@DisplayName("并发规范化")
+class ConcurrentCanonicalizationTest {
+
+    private static final int CORPUS_SIZE = 256;
+
+    private static Canonicalizer shared;
+    private static List<String> corpus;
+    private static List<String> expected;
+
+    @BeforeAll
+    static void setUp() {
+        shared = new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN"));
+        corpus = SyntheticCorpus.modules(CORPUS_SIZE);
+        expected = corpus.stream().map(shared::canonicalize).toList();
+    }
+
+    @Test
+    @DisplayName("平台线程并发结果与单线程一致")
+    void testPlatformThreads() throws Exception {
+        assertMatchesSingleThreaded(Thread.ofPlatform().factory(), Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    @Test
+    @DisplayName("虚拟线程并发结果与单线程一致")
+    void testVirtualThreads() throws Exception {
+        assertMatchesSingleThreaded(Thread.ofVirtual().factory(), 64);
+    }
+
+    private static void assertMatchesSingleThreaded(ThreadFactory factory, int threads) throws Exception {
+        try (ExecutorService pool = Executors.newThreadPerTaskExecutor(factory)) {
+            List<Callable<List<Integer>>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                tasks.add(() -> {
+                    List<Integer> mismatches = new ArrayList<>();
+                    for (int i = 0; i < CORPUS_SIZE; i++) {
+                        int k = (i + offset) % CORPUS_SIZE;
+                        // 每次都经由注册中心取词法表，覆盖单例查找路径
+                        String actual = new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN"))
+                                .canonicalize(corpus.get(k));
+                        if (!actual.equals(expected.get(k)) || !shared.canonicalize(corpus.get(k)).equals(expected.get(k))) {
+                            mismatches.add(k);
+                        }
+                    }
+                    return mismatches;
+                });
+            }
+            for (Future<List<Integer>> f : pool.invokeAll(tasks)) {
+                assertThat(f.get()).as("并发输出与单线程输出不一致的输入下标").isEmpty();
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package aster.lang.zh;
+
+import aster.lang.zh.transformers.PossessiveChainResolver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 流水线指纹单元测试。
+ */
+@DisplayName("PipelineFingerprint")
+class PipelineFingerprintTest {
+
+    @Test
+    @DisplayName("所有格链展开改变了规范输出，修订号随之递增，旧指纹失效")
+    void testRevisionCoversPossessiveChains() {
+        // 修订 2 引入的输出变化；修订 1 时该输入保持原样
+        assertThat(PossessiveChainResolver.DEFAULT.resolve("申请人的信用报告的评分")).isEqualTo("申请人.信用报告.评分");
+
+        assertThat(PipelineFingerprint.TRANSFORMER_REVISION).isEqualTo(2);
+        assertThat(PipelineFingerprint.zhCn())
+                .isEqualTo(PipelineFingerprint.compute(PipelineFingerprint.TRANSFORMER_REVISION))
+                .isNotEqualTo(PipelineFingerprint.compute(1))
+                .hasSize(64);
+    }
+
+    @Test
+    @DisplayName("core 版本变化时指纹随之变化")
+    void testCoreVersionIsHashed() {
+        assertThat(PipelineFingerprint.compute(2, "1.0.2"))
+                .isNotEqualTo(PipelineFingerprint.compute(2, "1.0.3"))
+                .isEqualTo(PipelineFingerprint.compute(2, "1.0.2"));
+    }
+
+    @Test
+    @DisplayName("构件版本取清单版本，没有时取 jar 摘要，从目录加载时为 unknown")
+    void testComponentVersion() {
+        // 测试类从构建目录加载
+        assertThat(PipelineFingerprint.componentVersion(PipelineFingerprintTest.class)).isEqualTo("unknown");
+        // 依赖 jar：清单版本或 jar 摘要，二者都不会是 unknown
+        assertThat(PipelineFingerprint.componentVersion(Test.class)).isNotEqualTo("unknown").isNotBlank();
+    }
+}
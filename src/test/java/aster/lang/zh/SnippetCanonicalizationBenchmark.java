@@ -0,0 +1,102 @@
+package aster.lang.zh;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.canonicalizer.SyntaxTransformer;
+import aster.core.lexicon.LexiconRegistry;
+import aster.lang.zh.shadow.ShadowVerifier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 单行片段规范化的每次调用开销基准。
+ * <p>
+ * 比较几种调用方式的平均耗时：每次新建 {@link Canonicalizer}、共享一个 {@link Canonicalizer}、
+ * 不带缓存与带缓存的 {@link SnippetCanonicalizer}，另外单独测量 7 个 {@code chinese-*} 变换器串联的阶段
+ * （不经过 core，用于对比变换器本身的改动）。分两种负载：
+ * <ul>
+ *   <li>重复：{@value #DISTINCT} 个条件循环出现，带缓存时全部命中</li>
+ *   <li>互不相同：每次调用都是新条件，缓存全部未命中，衡量缓存的额外开销</li>
+ * </ul>
+ * <p>
+ * 通过 {@code ./gradlew benchmark --tests '*SnippetCanonicalizationBenchmark'} 运行。
+ */
+@Tag("benchmark")
+@DisplayName("片段规范化开销基准")
+class SnippetCanonicalizationBenchmark {
+
+    private static final int DISTINCT = 200;
+    private static final int OPS = 200_000;
+
+    @Test
+    @DisplayName("每片段平均耗时")
+    void benchmarkPerSnippet() {
+        List<String> repeated = conditions(DISTINCT);
+        List<String> distinct = conditions(OPS);
+        Canonicalizer shared = new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN"));
+        SnippetCanonicalizer uncached = SnippetCanonicalizer.zhCn();
+        SnippetCanonicalizer cached = SnippetCanonicalizer.zhCn(1024);
+        for (String c : repeated) {
+            assertThat(cached.canonicalize(c)).isEqualTo(shared.canonicalize(c));
+        }
+
+        System.out.printf("%n%-36s %12s%n", "mode (repeated snippets)", "ns/snippet");
+        report("new Canonicalizer per call", repeated, OPS / 20,
+                s -> new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN")).canonicalize(s));
+        report("shared Canonicalizer", repeated, OPS, shared::canonicalize);
+        report("SnippetCanonicalizer (no cache)", repeated, OPS, uncached::canonicalize);
+        report("SnippetCanonicalizer (cache 1024)", repeated, OPS, cached::canonicalize);
+
+        System.out.printf("%n%-36s %12s%n", "mode (distinct snippets)", "ns/snippet");
+        report("shared Canonicalizer", distinct, OPS, shared::canonicalize);
+        report("SnippetCanonicalizer (no cache)", distinct, OPS, uncached::canonicalize);
+        report("SnippetCanonicalizer (cache 1024)", distinct, OPS, cached::canonicalize);
+
+        UnaryOperator<String> stage = zhCnStage();
+        System.out.printf("%n%-36s %12s%n", "mode (zh-CN transformer stage)", "ns/snippet");
+        report("distinct snippets", distinct, OPS, stage);
+        report("distinct snippets (ASCII only)", asciiConditions(OPS), OPS, stage);
+    }
+
+    private static UnaryOperator<String> zhCnStage() {
+        Map<String, Supplier<SyntaxTransformer>> registered = new ZhCnPlugin().getTransformers();
+        return ShadowVerifier.transformerChain(ZhCnPlugin.CHINESE_TRANSFORMERS.stream()
+                .map(name -> registered.get(name).get())
+                .toArray(SyntaxTransformer[]::new));
+    }
+
+    private static List<String> asciiConditions(int n) {
+        List<String> conditions = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            conditions.add("creditScore >= " + (600 + i) + " and age < " + (18 + i % 50));
+        }
+        return conditions;
+    }
+
+    private static List<String> conditions(int n) {
+        List<String> conditions = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            conditions.add("信用评分 大于等于 " + (600 + i) + " 并且 年龄 小于 " + (18 + i % 50));
+        }
+        return conditions;
+    }
+
+    private static void report(String label, List<String> conditions, int ops, UnaryOperator<String> f) {
+        for (int i = 0; i < ops; i++) {
+            f.apply(conditions.get(i % conditions.size()));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            f.apply(conditions.get(i % conditions.size()));
+        }
+        System.out.printf("%-36s %12.1f%n", label, (double) (System.nanoTime() - start) / ops);
+    }
+}
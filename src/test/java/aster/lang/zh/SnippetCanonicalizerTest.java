@@ -0,0 +1,140 @@
+package aster.lang.zh;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.lexicon.LexiconRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 片段规范化入口单元测试。
+ */
+@DisplayName("SnippetCanonicalizer")
+class SnippetCanonicalizerTest {
+
+    private static final List<String> SNIPPETS = List.of(
+            "信用评分 大于等于 700 并且 年龄 小于 60",
+            "如果 驾驶员的年龄 小于 25，返回 「拒保」。",
+            "申请人.收入 不等于 0 或者 申请人.负债 等于 0",
+            "令 保费 定义为 1000。",
+            "结果为 保费 加上 车辆的价格。");
+
+    @Test
+    @DisplayName("zh-CN 片段结果与 Canonicalizer 一致")
+    void testMatchesCanonicalizer() {
+        Canonicalizer canonicalizer = new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN"));
+        SnippetCanonicalizer snippets = SnippetCanonicalizer.zhCn(64);
+        assertThat(SnippetCanonicalizer.zhCn().cacheCapacity()).isZero();
+        for (String s : SNIPPETS) {
+            assertThat(snippets.canonicalize(s)).isEqualTo(canonicalizer.canonicalize(s));
+            // 第二次命中缓存
+            assertThat(snippets.canonicalize(s)).isEqualTo(canonicalizer.canonicalize(s));
+            assertThat(SnippetCanonicalizer.zhCn().canonicalize(s)).isEqualTo(canonicalizer.canonicalize(s));
+        }
+        assertThat(snippets.canonicalizeAll(SNIPPETS))
+                .isEqualTo(SNIPPETS.stream().map(canonicalizer::canonicalize).toList());
+    }
+
+    @Test
+    @DisplayName("重复片段只规范化一次，超长输入不缓存")
+    void testCaching() {
+        AtomicInteger calls = new AtomicInteger();
+        SnippetCanonicalizer snippets = SnippetCanonicalizer.of(counting(calls), 16);
+
+        snippets.canonicalize("年龄 大于 18");
+        snippets.canonicalize("年龄 大于 18");
+        assertThat(calls).hasValue(1);
+
+        String large = "年龄 大于 18。".repeat(SnippetCanonicalizer.MAX_CACHED_LENGTH);
+        snippets.canonicalize(large);
+        snippets.canonicalize(large);
+        assertThat(calls).hasValue(3);
+        assertThat(snippets.cachedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("缓存按最近使用淘汰")
+    void testLruEviction() {
+        AtomicInteger calls = new AtomicInteger();
+        SnippetCanonicalizer snippets = SnippetCanonicalizer.of(counting(calls), 2);
+
+        snippets.canonicalize("甲");
+        snippets.canonicalize("乙");
+        snippets.canonicalize("甲");
+        snippets.canonicalize("丙");   // 淘汰最久未用的 "乙"
+        assertThat(calls).hasValue(3);
+        snippets.canonicalize("甲");
+        assertThat(calls).hasValue(3);
+        snippets.canonicalize("乙");
+        assertThat(calls).hasValue(4);
+        assertThat(snippets.cachedCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("批量接口批内去重且保持输入顺序")
+    void testBatchDeduplicates() {
+        AtomicInteger calls = new AtomicInteger();
+        SnippetCanonicalizer snippets = SnippetCanonicalizer.of(counting(calls), 0);
+        List<String> batch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            batch.add("年龄 大于 " + (i % 10));
+        }
+
+        List<String> results = snippets.canonicalizeAll(batch);
+        assertThat(calls).hasValue(10);
+        assertThat(results).hasSize(1000);
+        assertThat(results.get(123)).isEqualTo("[年龄 大于 3]");
+    }
+
+    @Test
+    @DisplayName("缓存由所有线程共享，虚拟线程同样命中")
+    void testSharedAcrossThreads() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        SnippetCanonicalizer snippets = SnippetCanonicalizer.of(counting(calls), 16);
+        snippets.canonicalize("年龄 大于 18");
+        Thread.ofVirtual().start(() -> snippets.canonicalize("年龄 大于 18")).join();
+        Thread.ofPlatform().start(() -> snippets.canonicalize("年龄 大于 18")).join();
+
+        assertThat(calls).hasValue(1);
+        assertThat(snippets.cachedCount()).isEqualTo(1);
+        assertThatThrownBy(() -> SnippetCanonicalizer.of(counting(calls), -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("总条目数不超过容量，与线程数无关")
+    void testGloballyBounded() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        SnippetCanonicalizer snippets = SnippetCanonicalizer.of(counting(calls), 1000);
+        assertThat(snippets.cacheCapacity()).isEqualTo(1000);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 32; t++) {
+            int id = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 500; i++) {
+                    snippets.canonicalize("条件 " + id + "-" + i);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(calls).hasValue(32 * 500);
+        assertThat(snippets.cachedCount()).isLessThanOrEqualTo(1000).isGreaterThan(500);
+    }
+
+    private static UnaryOperator<String> counting(AtomicInteger calls) {
+        return s -> {
+            calls.incrementAndGet();
+            return "[" + s + "]";
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package aster.lang.zh;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 测试与基准共用的合成 zh-CN 语料。
+ * <p>
+ * 每条规则覆盖全部中文变换器（标点、所有格、运算符、令…定义为、函数语法、将…设为、结果为）
+ * 和字符串字面量，编号、阈值随序号变化，保证规则之间互不相同。
+ */
+final class SyntheticCorpus {
+
+    private SyntheticCorpus() {}
+
+    /** 第 {@code i} 条规则，以换行结尾。 */
+    static String rule(int i) {
+        return """
+                规则 评估%1$d(驾驶员: 驾驶员信息, 车辆: 车辆信息)：
+                  令 保费 定义为 %1$d。
+                  如果 驾驶员的年龄 小于 %2$d 并且 车辆 的 价格 大于等于 %3$d：
+                    将 保费 设为 保费 乘以 2。
+                  如果 驾驶员的事故次数 不等于 0，返回 「拒保，编号 %1$d。」。
+                  结果为 保费 加上 车辆的价格。
+                """.formatted(i, 18 + i % 50, 100000 + i * 7);
+    }
+
+    /** {@code size} 个各含一条规则的小模块，互不相同。 */
+    static List<String> modules(int size) {
+        List<String> inputs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            inputs.add("模块 压测.第" + i + "号。\n" + rule(i));
+        }
+        return inputs;
+    }
+
+    /** UTF-8 大小不小于 {@code targetBytes} 的单个模块，规则之间以空行分隔。 */
+    static String module(long targetBytes) {
+        StringBuilder sb = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 8, targetBytes));
+        String header = "模块 压测.宏观基准。\n\n";
+        sb.append(header);
+        long bytes = header.getBytes(StandardCharsets.UTF_8).length;
+        for (int i = 0; bytes < targetBytes; i++) {
+            String rule = rule(i) + "\n";
+            sb.append(rule);
+            bytes += rule.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,182 @@
+package aster.lang.zh;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.lexicon.LexiconRegistry;
+import aster.core.lexicon.SemanticTokenKind;
+import aster.lang.zh.token.ZhToken;
+import aster.lang.zh.token.ZhTokenizer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 直接词法化与规范化流水线的语料级差分测试。
+ * <p>
+ * 对同一份 zh-CN 源码：一侧取 {@link ZhTokenizer} 产出的关键词单元，另一侧用 zh-CN {@link Canonicalizer}
+ * 生成规范英文，再按 en-US 词法表（多词关键词取最长匹配，忽略大小写与字符串字面量）识别出关键词。
+ * 两侧都归一为关键词种类后比较整条序列。两张词法表中共用同一个词的种类（如 {@code TYPE_WITH}/{@code TYPE_HAS}）
+ * 视为同一类，因为从文本上无法区分。
+ * <p>
+ * 语料包括内置预热语料、CJK v2 conformance 输入和合成规则模块。
+ */
+@DisplayName("ZhTokenizer 与 Canonicalizer 差分")
+class TokenizerCanonicalizerDifferentialTest {
+
+    private static final List<String> CONFORMANCE_CASES = List.of(
+            "01-punctuation-basic",
+            "02-string-preservation",
+            "03-v2-keywords-all",
+            "04-identifier-no-collision"
+    );
+
+    private static Canonicalizer canonicalizer;
+    private static ZhTokenizer tokenizer;
+    /** 小写 en-US 关键词（按空白切分）→ 种类，按词数降序排列以便最长匹配。 */
+    private static List<Map.Entry<List<String>, SemanticTokenKind>> englishKeywords;
+    /** 种类 → 所属等价类的代表种类。 */
+    private static Map<SemanticTokenKind, SemanticTokenKind> classes;
+
+    @BeforeAll
+    static void setUp() {
+        var zh = LexiconRegistry.getInstance().getOrThrow("zh-CN");
+        var en = LexiconRegistry.getInstance().getOrThrow("en-US");
+        canonicalizer = new Canonicalizer(zh);
+        tokenizer = ZhTokenizer.of(zh);
+
+        Map<List<String>, SemanticTokenKind> byPhrase = new HashMap<>();
+        en.getKeywords().forEach((kind, phrase) -> {
+            if (phrase != null && !phrase.isBlank()) {
+                byPhrase.putIfAbsent(List.of(phrase.toLowerCase(Locale.ROOT).trim().split("\\s+")), kind);
+            }
+        });
+        englishKeywords = new ArrayList<>(byPhrase.entrySet());
+        englishKeywords.sort((a, b) -> Integer.compare(b.getKey().size(), a.getKey().size()));
+
+        classes = new EnumMap<>(SemanticTokenKind.class);
+        for (SemanticTokenKind kind : SemanticTokenKind.values()) {
+            classes.put(kind, kind);
+        }
+        mergeSharedWords(zh.getKeywords());
+        mergeSharedWords(en.getKeywords());
+    }
+
+    @TestFactory
+    @DisplayName("关键词种类序列一致")
+    Stream<DynamicTest> keywordStreamsAgree() throws IOException {
+        Map<String, String> corpus = new LinkedHashMap<>();
+        corpus.put("warmup/zh-CN-corpus.aster", resource("/warmup/zh-CN-corpus.aster"));
+        for (String name : CONFORMANCE_CASES) {
+            corpus.put(name + ".aster", resource("/conformance/cjk-v2/" + name + ".aster"));
+        }
+        List<String> modules = SyntheticCorpus.modules(8);
+        for (int i = 0; i < modules.size(); i++) {
+            corpus.put("synthetic-" + i, modules.get(i));
+        }
+
+        return corpus.entrySet().stream().map(e -> DynamicTest.dynamicTest(e.getKey(), () -> {
+            String source = e.getValue();
+            String canonical = canonicalizer.canonicalize(source);
+
+            assertThat(canonicalKeywords(canonical))
+                    .as("%s%n--- canonical ---%n%s", e.getKey(), canonical)
+                    .isNotEmpty()
+                    .containsExactlyElementsOf(tokenizerKeywords(source));
+        }));
+    }
+
+    private static List<SemanticTokenKind> tokenizerKeywords(String source) {
+        List<SemanticTokenKind> kinds = new ArrayList<>();
+        for (ZhToken token : tokenizer.tokenize(source)) {
+            if (token.type() == ZhToken.Type.KEYWORD) {
+                kinds.add(classes.get(token.keyword()));
+            }
+        }
+        return kinds;
+    }
+
+    /** 从规范英文中按 en-US 关键词最长匹配提取种类序列，跳过字符串字面量。 */
+    private static List<SemanticTokenKind> canonicalKeywords(String canonical) {
+        List<SemanticTokenKind> kinds = new ArrayList<>();
+        List<String> words = words(canonical);
+        int i = 0;
+        while (i < words.size()) {
+            SemanticTokenKind matched = null;
+            int length = 1;
+            for (Map.Entry<List<String>, SemanticTokenKind> keyword : englishKeywords) {
+                List<String> phrase = keyword.getKey();
+                if (i + phrase.size() <= words.size() && words.subList(i, i + phrase.size()).equals(phrase)) {
+                    matched = keyword.getValue();
+                    length = phrase.size();
+                    break;
+                }
+            }
+            if (matched != null) {
+                kinds.add(classes.get(matched));
+            }
+            i += length;
+        }
+        return kinds;
+    }
+
+    /** 字符串字面量之外的小写单词序列；中文标识符同样成词，但不会与英文关键词相同。 */
+    private static List<String> words(String s) {
+        List<String> words = new ArrayList<>();
+        int n = s.length();
+        int i = 0;
+        while (i < n) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '「') {
+                int end = s.indexOf(c == '"' ? '"' : '」', i + 1);
+                i = end < 0 ? n : end + 1;
+            } else if (Character.isLetter(c)) {
+                int start = i;
+                while (i < n && (Character.isLetterOrDigit(s.charAt(i)) || s.charAt(i) == '_')) {
+                    i++;
+                }
+                words.add(s.substring(start, i).toLowerCase(Locale.ROOT));
+            } else {
+                i++;
+            }
+        }
+        return words;
+    }
+
+    /** 把同一词法表中共用同一个词的种类并入同一等价类。 */
+    private static void mergeSharedWords(Map<SemanticTokenKind, String> keywords) {
+        Map<String, SemanticTokenKind> first = new HashMap<>();
+        for (SemanticTokenKind kind : SemanticTokenKind.values()) {
+            String word = keywords.get(kind);
+            if (word == null || word.isBlank()) {
+                continue;
+            }
+            SemanticTokenKind other = first.putIfAbsent(word.toLowerCase(Locale.ROOT).trim(), kind);
+            if (other != null) {
+                SemanticTokenKind from = classes.get(kind);
+                SemanticTokenKind to = classes.get(other);
+                classes.replaceAll((k, representative) -> representative == from ? to : representative);
+            }
+        }
+    }
+
+    private static String resource(String path) throws IOException {
+        try (InputStream in = TokenizerCanonicalizerDifferentialTest.class.getResourceAsStream(path)) {
+            assertThat(in).as(path).isNotNull();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package aster.lang.zh;
+
+import aster.core.identifier.DomainVocabulary;
+import aster.core.identifier.VocabularyPluginSupport;
+import aster.lang.zh.ZhCnResources.FootprintReport;
+import aster.lang.zh.vocabulary.BundledVocabularies;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 共享资源与字符串去重单元测试。
+ */
+@DisplayName("ZhCnResources")
+class ZhCnResourcesTest {
+
+    @Test
+    @DisplayName("多个插件实例共享同一词法表与词汇表实例")
+    void testSharedInstances() {
+        ZhCnPlugin a = new ZhCnPlugin();
+        ZhCnPlugin b = new ZhCnPlugin();
+
+        assertThat(a.createLexicon()).isSameAs(b.createLexicon());
+        assertThat(a.createVocabulary()).isSameAs(b.createVocabulary());
+        assertThat(a.getVocabularies().get(0)).isSameAs(b.getVocabularies().get(0));
+        // 词法表 + 两个词汇表各解析一次
+        assertThat(ZhCnResources.parseCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("不同词汇表中的相同术语指向同一字符串实例")
+    void testInternedAcrossVocabularies() {
+        String insuranceLocale = locale(ZhCnResources.insuranceAuto());
+        String financeLocale = locale(ZhCnResources.financeLoan());
+
+        assertThat(financeLocale).isSameAs(insuranceLocale);
+        assertThat(insuranceLocale).isSameAs("zh-CN");
+    }
+
+    @Test
+    @DisplayName("驻留复制保持词汇表内容不变")
+    void testInternedCopyIsEqual() {
+        DomainVocabulary loaded = VocabularyPluginSupport.loadVocabulary(ZhCnPlugin.class, BundledVocabularies.INSURANCE_AUTO);
+
+        assertThat(ZhCnResources.interned(loaded)).isEqualTo(loaded);
+        assertThat(ZhCnResources.strings(ZhCnResources.interned(loaded)))
+                .containsExactlyElementsOf(ZhCnResources.strings(loaded));
+    }
+
+    @Test
+    @DisplayName("占用报告对照不驻留加载与驻留加载的实际字符串实例，驻留后体量更小")
+    void testFootprintReport() {
+        ZhCnResources.insuranceAuto();
+        ZhCnResources.financeLoan();
+        int parses = ZhCnResources.parseCount();
+        FootprintReport report = ZhCnResources.footprintReport();
+
+        assertThat(report.perSource()).containsOnlyKeys(BundledVocabularies.INSURANCE_AUTO, BundledVocabularies.FINANCE_LOAN);
+        assertThat(report.stringValues()).isEqualTo(
+                ZhCnResources.strings(ZhCnResources.insuranceAuto()).size()
+                        + ZhCnResources.strings(ZhCnResources.financeLoan()).size());
+        assertThat(report.internedInstances()).isLessThan(report.plainInstances());
+        assertThat(report.plainInstances()).isLessThanOrEqualTo(report.stringValues());
+        assertThat(report.sharedStrings()).isPositive();
+        // 对照加载不计入共享资源的解析次数
+        assertThat(ZhCnResources.parseCount()).isEqualTo(parses);
+        assertThat(report.savedBytes()).isPositive();
+        assertThat(report.toString()).contains("saved");
+    }
+
+    private static String locale(DomainVocabulary vocabulary) {
+        return ZhCnResources.strings(vocabulary).stream()
+                .filter("zh-CN"::equals)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,65 @@
+package aster.lang.zh;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * zh-CN 流水线预热单元测试。
+ */
+@DisplayName("ZhCnWarmup")
+class ZhCnWarmupTest {
+
+    @Test
+    @DisplayName("内置语料覆盖全部中文变换器的触发词")
+    void testCorpusCoverage() {
+        List<String> corpus = ZhCnWarmup.corpus();
+        String module = corpus.get(0);
+
+        assertThat(corpus.size()).isGreaterThan(3);
+        assertThat(module).contains("。", "，", "：", "、", "的", "大于等于", "不等于", "则",
+                "设置", "给定", "将", "设为", "结果为", "令", "定义为", "「");
+    }
+
+    @Test
+    @DisplayName("同步预热在时限内结束并给出报告")
+    void testRunReport() {
+        ZhCnWarmup.Report report = ZhCnWarmup.run(Duration.ofSeconds(5));
+
+        assertThat(report.iterations()).isEqualTo((long) report.rounds() * ZhCnWarmup.ITERATIONS_PER_ROUND);
+        assertThat(report.rounds()).isPositive();
+        assertThat(report.elapsedMillis()).isLessThan(10_000);
+        assertThat(report.lastRoundMicros()).isPositive();
+    }
+
+    @Test
+    @DisplayName("后台预热只启动一次，完成后报告就绪")
+    void testBackgroundWarmup() throws Exception {
+        CompletableFuture<ZhCnWarmup.Report> future = ZhCnWarmup.start(Duration.ofSeconds(5));
+
+        assertThat(ZhCnPlugin.warmUp()).isSameAs(future);
+        ZhCnWarmup.Report report = future.get(30, TimeUnit.SECONDS);
+        assertThat(report.rounds()).isPositive();
+        assertThat(ZhCnPlugin.isWarm()).isEqualTo(report.settled());
+        assertThat(ZhCnWarmup.start()).isSameAs(future);
+    }
+
+    @Test
+    @DisplayName("超时未稳定或预热失败时不报告就绪")
+    void testNotWarmUnlessSettled() {
+        ZhCnWarmup.Report settled = new ZhCnWarmup.Report(600, 3, 10, 1, 50, 20, true);
+        ZhCnWarmup.Report timedOut = new ZhCnWarmup.Report(600, 3, 10, 40, 50, 45, false);
+
+        assertThat(ZhCnWarmup.isWarm(CompletableFuture.completedFuture(settled))).isTrue();
+        assertThat(ZhCnWarmup.isWarm(CompletableFuture.completedFuture(timedOut))).isFalse();
+        assertThat(ZhCnWarmup.isWarm(CompletableFuture.failedFuture(new IllegalStateException()))).isFalse();
+        assertThat(ZhCnWarmup.isWarm(new CompletableFuture<>())).isFalse();
+        assertThat(ZhCnWarmup.isWarm(null)).isFalse();
+    }
+}
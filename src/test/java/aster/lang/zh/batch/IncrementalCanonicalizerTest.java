@@ -0,0 +1,168 @@
+package aster.lang.zh.batch;
+
+import aster.lang.zh.PipelineFingerprint;
+import aster.lang.zh.batch.IncrementalCanonicalizer.Report;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 目录级增量规范化单元测试。
+ */
+@DisplayName("IncrementalCanonicalizer")
+class IncrementalCanonicalizerTest {
+
+    @TempDir
+    Path src;
+
+    @TempDir
+    Path out;
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final UnaryOperator<String> upper = s -> {
+        calls.incrementAndGet();
+        return s.toUpperCase();
+    };
+
+    @Test
+    @DisplayName("首次运行规范化全部文件并写出清单")
+    void testFirstRun() throws IOException {
+        write("a.aster", "rule a");
+        write("sub/b.aster", "rule b");
+        write("notes.txt", "ignored");
+
+        Report report = IncrementalCanonicalizer.of(src, out, upper, "v1", 4).run();
+
+        assertThat(report.canonicalized()).isEqualTo(2);
+        assertThat(Files.readString(out.resolve("sub/b.aster"))).isEqualTo("RULE B");
+        assertThat(out.resolve("notes.txt")).doesNotExist();
+        assertThat(Files.readAllLines(out.resolve(IncrementalCanonicalizer.MANIFEST_NAME)))
+                .anySatisfy(line -> assertThat(line).startsWith("sub/b.aster\t").contains("\tv1\t"));
+    }
+
+    @Test
+    @DisplayName("未变化的文件被跳过，只重新规范化修改过的文件")
+    void testIncremental() throws IOException {
+        for (int i = 0; i < 50; i++) {
+            write("f" + i + ".aster", "rule " + i);
+        }
+        IncrementalCanonicalizer tool = IncrementalCanonicalizer.of(src, out, upper, "v1", 4);
+        tool.run();
+        calls.set(0);
+
+        write("f7.aster", "rule seven");
+        Report report = tool.run();
+
+        assertThat(report.canonicalized()).isEqualTo(1);
+        assertThat(report.unchanged()).isEqualTo(49);
+        assertThat(calls).hasValue(1);
+        assertThat(Files.readString(out.resolve("f7.aster"))).isEqualTo("RULE SEVEN");
+    }
+
+    @Test
+    @DisplayName("只修改时间变化时按内容哈希判定为未变化")
+    void testTouchOnly() throws IOException {
+        Path file = write("a.aster", "rule a");
+        IncrementalCanonicalizer tool = IncrementalCanonicalizer.of(src, out, upper, "v1", 2);
+        tool.run();
+        calls.set(0);
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 60_000));
+        Report report = tool.run();
+
+        assertThat(report.unchanged()).isEqualTo(1);
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("输入未变但输出与清单中的哈希不符时重新规范化")
+    void testTamperedOutput() throws IOException {
+        Path file = write("a.aster", "rule a");
+        IncrementalCanonicalizer tool = IncrementalCanonicalizer.of(src, out, upper, "v1", 2);
+        tool.run();
+        calls.set(0);
+
+        Files.writeString(out.resolve("a.aster"), "RULE", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 60_000));
+        Report report = tool.run();
+
+        assertThat(report.canonicalized()).isEqualTo(1);
+        assertThat(Files.readString(out.resolve("a.aster"))).isEqualTo("RULE A");
+        try (var files = Files.list(out)) {
+            assertThat(files).noneMatch(p -> p.getFileName().toString().endsWith(".tmp"));
+        }
+    }
+
+    @Test
+    @DisplayName("输出目录位于源目录内且以相对路径给出时，不把输出当作源文件")
+    void testNestedRelativeOutput() throws IOException {
+        write("a.aster", "rule a");
+        Path nested = Path.of("").toAbsolutePath().relativize(src.resolve("build"));
+        IncrementalCanonicalizer tool = IncrementalCanonicalizer.of(src, nested, upper, "v1", 2);
+        tool.run();
+
+        Report report = tool.run();
+
+        assertThat(report.total()).isEqualTo(1);
+        assertThat(src.resolve("build/build")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("流水线指纹变化时全部重新规范化")
+    void testFingerprintChange() throws IOException {
+        write("a.aster", "rule a");
+        write("b.aster", "rule b");
+        IncrementalCanonicalizer.of(src, out, upper, "v1", 2).run();
+
+        Report report = IncrementalCanonicalizer.of(src, out, upper, "v2", 2).run();
+
+        assertThat(report.canonicalized()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("源文件删除后移除对应输出，失败文件不写入清单")
+    void testRemovalAndFailure() throws IOException {
+        write("a.aster", "rule a");
+        write("b.aster", "boom");
+        UnaryOperator<String> failing = s -> {
+            if (s.equals("boom")) {
+                throw new IllegalStateException("bad source");
+            }
+            return s;
+        };
+        Report first = IncrementalCanonicalizer.of(src, out, failing, "v1", 2).run();
+        assertThat(first.failures()).containsOnlyKeys("b.aster");
+
+        Files.delete(src.resolve("a.aster"));
+        write("b.aster", "fixed");
+        Report second = IncrementalCanonicalizer.of(src, out, failing, "v1", 2).run();
+
+        assertThat(second.removed()).isEqualTo(1);
+        assertThat(second.canonicalized()).isEqualTo(1);
+        assertThat(out.resolve("a.aster")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("zh-CN 流水线指纹稳定")
+    void testZhCnFingerprint() {
+        assertThat(PipelineFingerprint.zhCn())
+                .hasSize(64)
+                .isEqualTo(PipelineFingerprint.zhCn());
+    }
+
+    private Path write(String rel, String content) throws IOException {
+        Path file = src.resolve(rel);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,231 @@
+package aster.lang.zh.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 持久规范化缓存单元测试。
+ */
+@DisplayName("PersistentCanonicalCache")
+class PersistentCanonicalCacheTest {
+
+    private static final long ONE_MB = 1 << 20;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("写入后可读取，重复写入以最后一次为准")
+    void testPutGet() throws IOException {
+        try (var cache = PersistentCanonicalCache.open(dir.resolve("c.seg"), "fp", ONE_MB)) {
+            assertThat(cache.get("如果 甲")).isNull();
+            cache.put("如果 甲", "If 甲");
+            cache.put("返回 乙", "Return 乙");
+            cache.put("如果 甲", "If 甲。");
+
+            assertThat(cache.get("如果 甲")).isEqualTo("If 甲。");
+            assertThat(cache.get("返回 乙")).isEqualTo("Return 乙");
+            assertThat(cache.size()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("重启后直接命中")
+    void testPersistAcrossRestart() throws IOException {
+        Path file = dir.resolve("c.seg");
+        try (var cache = PersistentCanonicalCache.open(file, "fp", ONE_MB)) {
+            for (int i = 0; i < 500; i++) {
+                cache.put("规则 " + i, "Rule " + i);
+            }
+        }
+        AtomicInteger calls = new AtomicInteger();
+        try (var cache = PersistentCanonicalCache.open(file, "fp", ONE_MB)) {
+            for (int i = 0; i < 500; i++) {
+                int n = i;
+                assertThat(cache.computeIfAbsent("规则 " + i, s -> {
+                    calls.incrementAndGet();
+                    return "x" + n;
+                })).isEqualTo("Rule " + i);
+            }
+            assertThat(calls).hasValue(0);
+            assertThat(cache.hitCount()).isEqualTo(500);
+        }
+    }
+
+    @Test
+    @DisplayName("同一文件只能由一个实例打开，压缩替换文件后仍然独占，关闭后可重新打开")
+    void testExclusiveOpen() throws IOException {
+        Path file = dir.resolve("c.seg");
+        try (var cache = PersistentCanonicalCache.open(file, "fp", 4096)) {
+            assertThatThrownBy(() -> PersistentCanonicalCache.open(file, "fp", 4096))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("already open");
+            for (int i = 0; i < 200; i++) {
+                cache.put("规则 " + i, "Rule " + i);
+            }
+            assertThat(cache.sizeBytes()).isLessThanOrEqualTo(4096);
+            assertThatThrownBy(() -> PersistentCanonicalCache.open(file, "fp", 4096))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+        try (var cache = PersistentCanonicalCache.open(file, "fp", 4096)) {
+            assertThat(cache.get("规则 199")).isEqualTo("Rule 199");
+        }
+    }
+
+    @Test
+    @DisplayName("流水线指纹变化时缓存作废")
+    void testFingerprintMismatch() throws IOException {
+        Path file = dir.resolve("c.seg");
+        try (var cache = PersistentCanonicalCache.open(file, "lexicon-v1", ONE_MB)) {
+            cache.put("如果 甲", "If 甲");
+        }
+        try (var cache = PersistentCanonicalCache.open(file, "lexicon-v2", ONE_MB)) {
+            assertThat(cache.get("如果 甲")).isNull();
+            assertThat(cache.size()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("截断崩溃留下的半条尾部记录")
+    void testTruncatedTail() throws IOException {
+        Path file = dir.resolve("c.seg");
+        try (var cache = PersistentCanonicalCache.open(file, "fp", ONE_MB)) {
+            cache.put("甲", "A");
+            cache.put("乙", "B");
+        }
+        long intact = Files.size(file);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ch.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7}));
+        }
+        try (var cache = PersistentCanonicalCache.open(file, "fp", ONE_MB)) {
+            assertThat(cache.get("乙")).isEqualTo("B");
+            assertThat(cache.sizeBytes()).isEqualTo(intact);
+            cache.put("丙", "C");
+        }
+        try (var cache = PersistentCanonicalCache.open(file, "fp", ONE_MB)) {
+            assertThat(cache.get("丙")).isEqualTo("C");
+        }
+    }
+
+    @Test
+    @DisplayName("从第一条校验失败的记录起截断")
+    void testCorruptRecordTruncates() throws IOException {
+        Path file = dir.resolve("c.seg");
+        long afterFirst;
+        try (var cache = PersistentCanonicalCache.open(file, "fp", ONE_MB)) {
+            cache.put("甲", "AAAA");
+            afterFirst = cache.sizeBytes();
+            cache.put("乙", "BBBB");
+            cache.put("丙", "CCCC");
+        }
+        // 翻转第二条记录结果中的一个字节，长度字段保持完好
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            long pos = afterFirst + 32 + 4 + 4 + 1;
+            ch.read(b, pos);
+            b.put(0, (byte) (b.get(0) ^ 0x20)).rewind();
+            ch.write(b, pos);
+        }
+        try (var cache = PersistentCanonicalCache.open(file, "fp", ONE_MB)) {
+            assertThat(cache.get("甲")).isEqualTo("AAAA");
+            assertThat(cache.get("乙")).isNull();
+            assertThat(cache.get("丙")).isNull();
+            assertThat(cache.sizeBytes()).isEqualTo(afterFirst);
+        }
+        assertThat(Files.size(file)).isEqualTo(afterFirst);
+    }
+
+    @Test
+    @DisplayName("映射按容量倍增，写入后无需重新映射即可读取；关闭时截掉预留部分")
+    void testMappingGrowth() throws IOException {
+        Path file = dir.resolve("c.seg");
+        long logical;
+        try (var cache = PersistentCanonicalCache.open(file, "fp", 16 * ONE_MB)) {
+            for (int i = 0; i < 20_000; i++) {
+                cache.put("规则 " + i, "Rule " + i);
+                assertThat(cache.get("规则 " + i)).isEqualTo("Rule " + i);
+            }
+            assertThat(cache.get("规则 0")).isEqualTo("Rule 0");
+            logical = cache.sizeBytes();
+            assertThat(Files.size(file)).isGreaterThanOrEqualTo(logical).isLessThanOrEqualTo(2 * logical);
+        }
+        assertThat(Files.size(file)).isEqualTo(logical);
+        try (var cache = PersistentCanonicalCache.open(file, "fp", 16 * ONE_MB)) {
+            assertThat(cache.size()).isEqualTo(20_000);
+        }
+    }
+
+    @Test
+    @DisplayName("超过上限时压缩，保留最新条目")
+    void testSizeLimit() throws IOException {
+        long limit = 64 * 1024;
+        Path file = dir.resolve("c.seg");
+        try (var cache = PersistentCanonicalCache.open(file, "fp", limit)) {
+            String payload = "规范".repeat(100);
+            for (int i = 0; i < 2000; i++) {
+                cache.put("源 " + i, payload + i);
+                assertThat(cache.sizeBytes()).isLessThanOrEqualTo(limit);
+            }
+            assertThat(Files.size(file)).isLessThanOrEqualTo(limit);
+            assertThat(cache.get("源 1999")).isEqualTo(payload + 1999);
+            assertThat(cache.get("源 0")).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("compact 回收被覆盖的旧记录")
+    void testCompactReclaimsSuperseded() throws IOException {
+        try (var cache = PersistentCanonicalCache.open(dir.resolve("c.seg"), "fp", ONE_MB)) {
+            for (int i = 0; i < 100; i++) {
+                cache.put("同一源码", "版本 " + i);
+            }
+            long before = cache.sizeBytes();
+            cache.compact();
+            assertThat(cache.sizeBytes()).isLessThan(before / 50);
+            assertThat(cache.get("同一源码")).isEqualTo("版本 99");
+        }
+    }
+
+    @Test
+    @DisplayName("并发读写")
+    void testConcurrentAccess() throws Exception {
+        try (var cache = PersistentCanonicalCache.open(dir.resolve("c.seg"), "fp", 256 * 1024);
+             ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int id = t;
+                tasks.add(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        String source = "源码 " + (i % 300);
+                        String value = cache.computeIfAbsent(source, s -> s.replace("源码", "Source"));
+                        if (!value.equals("Source " + (i % 300))) {
+                            return false;
+                        }
+                    }
+                    return id >= 0;
+                });
+            }
+            for (Future<Boolean> f : pool.invokeAll(tasks)) {
+                assertThat(f.get()).isTrue();
+            }
+        }
+    }
+}
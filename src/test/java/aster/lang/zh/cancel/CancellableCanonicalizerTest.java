@@ -0,0 +1,166 @@
+package aster.lang.zh.cancel;
+
+import aster.core.canonicalizer.Canonicalizer;
+import aster.core.canonicalizer.StringSegmenter;
+import aster.core.canonicalizer.SyntaxTransformer;
+import aster.core.lexicon.CanonicalizationConfig;
+import aster.core.lexicon.LexiconRegistry;
+import aster.lang.zh.ZhCnPlugin;
+import aster.lang.zh.cancel.CancellableCanonicalizer.Cancelled;
+import aster.lang.zh.cancel.CancellableCanonicalizer.Completed;
+import aster.lang.zh.cancel.CancellableCanonicalizer.Result;
+import aster.lang.zh.transformers.PossessiveChainResolver;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 可取消规范化单元测试。
+ */
+@DisplayName("CancellableCanonicalizer")
+class CancellableCanonicalizerTest {
+
+    @Test
+    @DisplayName("未取消时结果与 Canonicalizer 一致")
+    void testCompleted() {
+        String source = "规则 评估(年龄: 整数)：\n  如果 年龄 大于等于 18，返回 「成年」。\n";
+        Result result = CancellableCanonicalizer.zhCn().canonicalize(source, CancellationToken.create());
+
+        String expected = new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN")).canonicalize(source);
+        assertThat(result).isInstanceOfSatisfying(Completed.class,
+                c -> assertThat(c.canonical()).isEqualTo(expected));
+        // 作用域外检查点不生效
+        CancellationToken.checkpoint();
+    }
+
+    @Test
+    @DisplayName("已取消或已过期的令牌直接返回 Cancelled")
+    void testCancelledUpFront() {
+        CancellationToken cancelled = CancellationToken.create();
+        cancelled.cancel();
+        assertThat(CancellableCanonicalizer.zhCn().canonicalize("令 x 定义为 1。", cancelled))
+                .isInstanceOfSatisfying(Cancelled.class, c -> assertThat(c.expired()).isFalse());
+
+        CancellationToken expired = CancellationToken.withTimeout(Duration.ZERO);
+        assertThat(CancellableCanonicalizer.zhCn().canonicalize("令 x 定义为 1。", expired))
+                .isInstanceOfSatisfying(Cancelled.class, c -> assertThat(c.expired()).isTrue());
+    }
+
+    @Test
+    @DisplayName("变换器内部在下一行检查点中止")
+    void testAbortsMidTransformer() {
+        CancellationToken token = CancellationToken.create();
+        AtomicInteger lookups = new AtomicInteger();
+        // 第一次词汇查询时取消：所有格解析应在处理到下一行之前停止
+        PossessiveChainResolver resolver = PossessiveChainResolver.of(term -> {
+            lookups.incrementAndGet();
+            token.cancel();
+            return false;
+        });
+        String source = "甲甲的乙乙的丙丙\n".repeat(10_000);
+
+        Result result = CancellableCanonicalizer.of(resolver::resolve).canonicalize(source, token);
+
+        assertThat(result).isInstanceOf(Cancelled.class);
+        assertThat(lookups.get()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("其他线程取消后，大文档在毫秒级内被放弃")
+    void testPromptCancellationFromAnotherThread() throws Exception {
+        UnaryOperator<String> chain = chineseTransformers();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 40_000; i++) {
+            sb.append("规则 评估").append(i).append("(驾驶员: 驾驶员信息)：\n")
+                    .append("  如果 驾驶员的年龄 小于 ").append(i % 90).append("，返回 「拒保」。\n")
+                    .append("  结果为 驾驶员的保费 乘以 2。\n");
+        }
+        String source = sb.toString();
+        CancellationToken token = CancellationToken.create();
+
+        CompletableFuture<Result> run = CompletableFuture.supplyAsync(
+                () -> CancellableCanonicalizer.of(chain).canonicalize(source, token));
+        Thread.sleep(5);
+        long cancelledAt = System.nanoTime();
+        token.cancel();
+        Result result = run.get(30, TimeUnit.SECONDS);
+        long latencyMillis = (System.nanoTime() - cancelledAt) / 1_000_000;
+
+        if (result instanceof Cancelled) {
+            assertThat(latencyMillis).as("取消到返回的延迟").isLessThan(250);
+        } else {
+            // 机器足够快时整条链可能在 5 ms 内跑完；此时结果必须完整
+            assertThat(((Completed) result).canonical()).isEqualTo(chain.apply(source));
+        }
+    }
+
+    @Test
+    @DisplayName("core Canonicalizer 内部抛出的取消信号不被吞掉")
+    void testCancellationPropagatesThroughCanonicalizer() {
+        Canonicalizer canonicalizer = new Canonicalizer(LexiconRegistry.getInstance().getOrThrow("zh-CN"));
+        CancellationToken token = CancellationToken.create();
+        token.cancel();
+
+        // 直接绑定令牌调用 core：第一个中文变换器的入口检查点必须把信号抛到调用方
+        Throwable thrown = null;
+        try {
+            ScopedValue.where(CancellationToken.CURRENT, token)
+                    .run(() -> canonicalizer.canonicalize("令 x 定义为 1。\n如果 x 大于 0，返回 x。\n"));
+        } catch (RuntimeException e) {
+            thrown = e;
+        }
+        assertThat(thrown).as("core 吞掉了取消信号").isNotNull();
+        Throwable cause = thrown;
+        while (cause != null && !(cause instanceof CanonicalizationCancelledException)) {
+            cause = cause.getCause();
+        }
+        assertThat(cause).isSameAs(CanonicalizationCancelledException.INSTANCE);
+    }
+
+    /**
+     * 依 zh-CN.json 中 pre/postTranslationTransformers 的顺序串联本包注册的全部中文变换器
+     * （core 自带的英文变换器与关键词翻译不在其中）。
+     */
+    private static UnaryOperator<String> chineseTransformers() {
+        var transformers = new ZhCnPlugin().getTransformers();
+        List<SyntaxTransformer> chain = configuredOrder().stream()
+                .filter(transformers::containsKey)
+                .map(name -> transformers.get(name).get())
+                .toList();
+        assertThat(chain).hasSize(transformers.size());
+        CanonicalizationConfig config = CanonicalizationConfig.defaults();
+        StringSegmenter segmenter = new StringSegmenter("「", "」");
+        return s -> {
+            for (SyntaxTransformer t : chain) {
+                s = t.transform(s, config, segmenter);
+            }
+            return s;
+        };
+    }
+
+    private static List<String> configuredOrder() {
+        try (InputStream is = CancellableCanonicalizerTest.class.getResourceAsStream("/lexicons/zh-CN.json")) {
+            JsonNode canonicalization = new ObjectMapper().readTree(is).get("canonicalization");
+            List<String> names = new ArrayList<>();
+            canonicalization.get("preTranslationTransformers").forEach(n -> names.add(n.textValue()));
+            canonicalization.get("postTranslationTransformers").forEach(n -> names.add(n.textValue()));
+            return names;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
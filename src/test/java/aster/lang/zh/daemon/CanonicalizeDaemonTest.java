@@ -0,0 +1,178 @@
+package aster.lang.zh.daemon;
+
+import aster.lang.zh.ZhCnPlugin;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 规范化守护进程单元测试。
+ */
+@DisplayName("CanonicalizeDaemon")
+class CanonicalizeDaemonTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("zh-CN 流水线经 socket 往返")
+    void testZhCnRoundTrip() throws Exception {
+        try (var daemon = CanonicalizeDaemon.start(dir.resolve("zh.sock"));
+             var client = CanonicalizeClient.connect(daemon.socketPath())) {
+            String result = client.canonicalize("如果 条件：\n  返回 值。");
+            assertThat(result).contains("If").contains("Return");
+        }
+    }
+
+    @Test
+    @DisplayName("同一连接顺序处理多个请求")
+    void testMultipleRequestsPerConnection() throws Exception {
+        try (var daemon = CanonicalizeDaemon.start(dir.resolve("d.sock"), s -> "<" + s + ">");
+             var client = CanonicalizeClient.connect(daemon.socketPath())) {
+            for (int i = 0; i < 100; i++) {
+                assertThat(client.canonicalize("规则" + i)).isEqualTo("<规则" + i + ">");
+            }
+            assertThat(client.canonicalize("")).isEqualTo("<>");
+            assertThat(daemon.requestCount()).isEqualTo(101);
+        }
+    }
+
+    @Test
+    @DisplayName("并发连接各自得到正确结果")
+    void testConcurrentClients() throws Exception {
+        try (var daemon = CanonicalizeDaemon.start(dir.resolve("c.sock"), String::toUpperCase);
+             ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int t = 0; t < 32; t++) {
+                int id = t;
+                tasks.add(() -> {
+                    try (var client = CanonicalizeClient.connect(daemon.socketPath())) {
+                        for (int i = 0; i < 50; i++) {
+                            String input = "client-" + id + "-" + i;
+                            if (!client.canonicalize(input).equals(input.toUpperCase())) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                });
+            }
+            for (Future<Boolean> f : pool.invokeAll(tasks)) {
+                assertThat(f.get()).isTrue();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("流水线异常作为错误响应返回，连接保持可用")
+    void testErrorResponse() throws Exception {
+        try (var daemon = CanonicalizeDaemon.start(dir.resolve("e.sock"), s -> {
+                 if (s.equals("坏")) {
+                     throw new IllegalArgumentException("bad input");
+                 }
+                 return s;
+             });
+             var client = CanonicalizeClient.connect(daemon.socketPath())) {
+            assertThatThrownBy(() -> client.canonicalize("坏"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("bad input");
+            assertThat(client.canonicalize("好")).isEqualTo("好");
+        }
+    }
+
+    @Test
+    @DisplayName("关闭后删除 socket 文件")
+    void testSocketFileLifecycle() throws Exception {
+        Path socket = dir.resolve("s.sock");
+        var daemon = CanonicalizeDaemon.start(socket, s -> s);
+        assertThat(socket).exists();
+        daemon.close();
+        assertThat(socket).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("启动时在后台预热 zh-CN 流水线，就绪状态取自预热结果")
+    void testWarmupReadiness() throws Exception {
+        try (var daemon = CanonicalizeDaemon.start(dir.resolve("w.sock"), s -> s)) {
+            assertThat(daemon.warmup()).isSameAs(ZhCnPlugin.warmUp());
+            assertThat(daemon.isWarm()).isEqualTo(ZhCnPlugin.isWarm());
+        }
+    }
+
+    @Test
+    @DisplayName("接受连接失败后关闭监听并删除 socket")
+    void testStopsAfterAcceptFailure() throws Exception {
+        Path socket = dir.resolve("f.sock");
+        var daemon = CanonicalizeDaemon.start(socket, s -> s);
+        daemon.stopAfterAcceptFailure(new IOException("simulated"));
+
+        daemon.awaitTermination();
+        assertThat(socket).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("已有守护进程在监听时拒绝启动，不删除其 socket")
+    void testRefusesLiveSocket() throws Exception {
+        Path socket = dir.resolve("live.sock");
+        try (var daemon = CanonicalizeDaemon.start(socket, s -> s)) {
+            assertThatThrownBy(() -> CanonicalizeDaemon.start(socket, s -> s))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("already listening");
+            try (var client = CanonicalizeClient.connect(socket)) {
+                assertThat(client.canonicalize("甲")).isEqualTo("甲");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("删除无人监听的残留 socket 后启动")
+    void testReplacesStaleSocket() throws Exception {
+        Path socket = dir.resolve("stale.sock");
+        try (ServerSocketChannel old = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            old.bind(UnixDomainSocketAddress.of(socket));
+        }
+        assertThat(socket).exists();
+        try (var daemon = CanonicalizeDaemon.start(socket, s -> "ok");
+             var client = CanonicalizeClient.connect(socket)) {
+            assertThat(client.canonicalize("甲")).isEqualTo("ok");
+        }
+    }
+
+    @Test
+    @DisplayName("路径上是普通文件时拒绝启动且不删除")
+    void testRefusesRegularFile() throws Exception {
+        Path file = Files.writeString(dir.resolve("notes.sock"), "keep");
+        assertThatThrownBy(() -> CanonicalizeDaemon.start(file, s -> s))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(file).hasContent("keep");
+    }
+
+    @Test
+    @DisplayName("socket 目录不存在时以 0700 创建")
+    void testCreatesPrivateDirectory() throws Exception {
+        assumeTrue(dir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        Path socket = dir.resolve("run/aster").resolve("p.sock");
+        try (var daemon = CanonicalizeDaemon.start(socket, s -> s)) {
+            assertThat(Files.getPosixFilePermissions(socket.getParent()))
+                    .isEqualTo(PosixFilePermissions.fromString("rwx------"));
+        }
+    }
+}
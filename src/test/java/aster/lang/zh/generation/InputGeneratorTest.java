@@ -0,0 +1,119 @@
+package aster.lang.zh.generation;
+
+import aster.lang.zh.generation.StructSpec.Field;
+import aster.lang.zh.generation.StructSpec.FieldType;
+import aster.lang.zh.vocabulary.BundledVocabularies;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 批量输入生成单元测试。
+ */
+@DisplayName("InputGenerator")
+class InputGeneratorTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final StructSpec applicant = StructSpec.of("Applicant", List.of(
+            new Field("name", "姓名", null),
+            new Field("creditScore", "信用评分", null),
+            new Field("phone", "手机", null),
+            new Field("email", "邮箱", null),
+            new Field("address", "地址", null),
+            new Field("debtRatio", "负债比率", null),
+            new Field("accidents", "事故次数", null),
+            new Field("vip", "会员", FieldType.BOOL)));
+
+    @Test
+    @DisplayName("字段按优先级解析规则")
+    void testRulePriority() {
+        InputGenerationRules rules = InputGenerationRules.bundled();
+        assertThat(rules.resolve("信用评分").orElseThrow().priority()).isEqualTo(10);
+        assertThat(rules.resolve("风险评分").orElseThrow().priority()).isEqualTo(5);
+        assertThat(rules.resolve("备注")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("生成值在规则示例附近浮动且格式合理")
+    void testValues() throws IOException {
+        InputGenerator generator = InputGenerator.builder(applicant).seed(42).build();
+        for (int i = 0; i < 200; i++) {
+            JsonNode record = MAPPER.readTree(generator.record(i));
+            assertThat(record.get("creditScore").asInt()).isBetween(360, 1080);
+            assertThat(record.get("phone").asText()).matches("138\\d{8}");
+            assertThat(record.get("email").asText()).isEqualTo("zhangsan" + i + "@example.com");
+            assertThat(record.get("address").asText()).matches("北京市朝阳区建国路\\d+号");
+            assertThat(record.get("name").asText()).matches("\\p{IsHan}{2,3}");
+            assertThat(record.get("debtRatio").asDouble()).isBetween(0.0, 0.5);
+            assertThat(record.get("accidents").asInt()).isBetween(0, 3);
+            assertThat(record.get("vip").isBoolean()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("相同种子输出逐字节相同，与并行度和分块无关")
+    void testDeterministic() throws IOException {
+        byte[] serial = generate(InputGenerator.builder(applicant).seed(7).parallelism(1).chunkSize(1000), 5000);
+        byte[] parallel = generate(InputGenerator.builder(applicant).seed(7).parallelism(8).chunkSize(37), 5000);
+        byte[] otherSeed = generate(InputGenerator.builder(applicant).seed(8).parallelism(8), 5000);
+
+        assertThat(parallel).isEqualTo(serial);
+        assertThat(otherSeed).isNotEqualTo(serial);
+        String[] lines = new String(serial, StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(5000);
+        assertThat(lines[123]).isEqualTo(InputGenerator.builder(applicant).seed(7).build().record(123));
+    }
+
+    @Test
+    @DisplayName("大批量流式生成只统计字节，不保留输出")
+    void testStreaming() throws IOException {
+        long[] bytes = new long[1];
+        long[] lines = new long[1];
+        OutputStream counting = new OutputStream() {
+            @Override
+            public void write(int b) {
+                bytes[0]++;
+                if (b == '\n') {
+                    lines[0]++;
+                }
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                for (int k = off; k < off + len; k++) {
+                    write(b[k]);
+                }
+            }
+        };
+        InputGenerator.builder(applicant).seed(1).build().write(200_000, counting);
+        assertThat(lines[0]).isEqualTo(200_000);
+        assertThat(bytes[0]).isGreaterThan(200_000L * 100);
+    }
+
+    @Test
+    @DisplayName("从词汇表取结构体字段")
+    void testFromVocabulary() throws IOException {
+        StructSpec spec = StructSpec.fromVocabulary(BundledVocabularies.financeLoan(), "Applicant");
+        assertThat(spec.fields()).extracting(Field::key).contains("creditScore", "age", "name");
+
+        JsonNode record = MAPPER.readTree(InputGenerator.builder(spec).seed(3).build().record(0));
+        assertThat(record.get("age").isInt()).isTrue();
+        assertThat(record.get("creditScore").asInt()).isBetween(360, 1080);
+    }
+
+    private static byte[] generate(InputGenerator.Builder builder, long count) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        builder.build().write(count, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,121 @@
+package aster.lang.zh.localization;
+
+import aster.core.lexicon.SemanticTokenKind;
+import aster.lang.zh.vocabulary.BundledVocabularies;
+import aster.lang.zh.vocabulary.LayeredVocabulary;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 规范 IR → 中文反向本地化单元测试。
+ */
+@DisplayName("ReverseLocalizer")
+class ReverseLocalizerTest {
+
+    private static ReverseLocalizer localizer;
+
+    @BeforeAll
+    static void setUp() {
+        Map<SemanticTokenKind, String> canonical = Map.of(
+                SemanticTokenKind.LET, "Let",
+                SemanticTokenKind.BE, "be",
+                SemanticTokenKind.RETURN, "Return",
+                SemanticTokenKind.IF, "If",
+                SemanticTokenKind.FOR_EACH, "For each",
+                SemanticTokenKind.IN, "in",
+                SemanticTokenKind.OTHERWISE, "Otherwise",
+                SemanticTokenKind.TO_WORD, "to",
+                SemanticTokenKind.RESULT_OF, "result");
+        Map<SemanticTokenKind, String> localized = Map.of(
+                SemanticTokenKind.LET, "令",
+                SemanticTokenKind.BE, "定义为",
+                SemanticTokenKind.RETURN, "返回",
+                SemanticTokenKind.IF, "如果",
+                SemanticTokenKind.FOR_EACH, "对每个",
+                SemanticTokenKind.IN, "属于",
+                SemanticTokenKind.OTHERWISE, "否则",
+                SemanticTokenKind.TO_WORD, "设为",
+                SemanticTokenKind.RESULT_OF, "结果");
+        localizer = ReverseLocalizer.of(canonical, localized, LayeredVocabulary.of(BundledVocabularies.all()));
+    }
+
+    @Test
+    @DisplayName("关键词与运算符反向映射")
+    void testKeywordsAndOperators() {
+        assertThat(localizer.localize("Let x be 10."))
+                .isEqualTo("令 x 定义为 10.");
+        assertThat(localizer.localize("If a >= b:"))
+                .isEqualTo("如果 a 大于等于 b:");
+    }
+
+    @Test
+    @DisplayName("多词关键词最长匹配")
+    void testMultiWordKeyword() {
+        assertThat(localizer.localize("For each item in items:"))
+                .isEqualTo("对每个 item 属于 items:");
+    }
+
+    @Test
+    @DisplayName("结构体与字段按父结构体反查")
+    void testVocabularyIdentifiers() {
+        assertThat(localizer.localize("Return Applicant.creditScore."))
+                .isEqualTo("返回 申请人.信用评分.");
+        assertThat(localizer.localize("Return Vehicle.plateNo."))
+                .isEqualTo("返回 车辆.车牌号.");
+    }
+
+    @Test
+    @DisplayName("关键词只在单词边界匹配")
+    void testWordBoundary() {
+        // Letter / inbox 不应被拆成 Let / in
+        assertThat(localizer.localize("Return Letter inbox"))
+                .isEqualTo("返回 Letter inbox");
+    }
+
+    @Test
+    @DisplayName("点号之后的成员名不当作关键词")
+    void testMemberIsNotKeyword() {
+        assertThat(localizer.localize("Return x.to"))
+                .isEqualTo("返回 x.to");
+        assertThat(localizer.localize("Return Applicant.result."))
+                .isEqualTo("返回 申请人.result.");
+    }
+
+    @Test
+    @DisplayName("关键词匹配区分大小写")
+    void testCaseSensitiveKeywords() {
+        assertThat(localizer.localize("Let Result be result."))
+                .isEqualTo("令 Result 定义为 结果.");
+        assertThat(localizer.localize("return To"))
+                .isEqualTo("return To");
+    }
+
+    @Test
+    @DisplayName("字符串字面量原样保留")
+    void testPreserveStrings() {
+        assertThat(localizer.localize("Return \"Let Applicant be >= 1\"."))
+                .isEqualTo("返回 \"Let Applicant be >= 1\".");
+    }
+
+    @Test
+    @DisplayName("批量反向本地化与逐条结果一致")
+    void testBatch() {
+        List<String> irs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            irs.add("If Driver.age >= " + i + ": Return \"ok\". Otherwise Return Policy.status.");
+        }
+        List<String> results = localizer.localizeAll(irs);
+        assertThat(results).hasSize(irs.size());
+        for (int i = 0; i < irs.size(); i++) {
+            assertThat(results.get(i)).isEqualTo(localizer.localize(irs.get(i)));
+        }
+        assertThat(results.get(7)).isEqualTo("如果 驾驶员.年龄 大于等于 7: 返回 \"ok\". 否则 返回 保单.状态.");
+    }
+}
@@ -0,0 +1,259 @@
+package aster.lang.zh.shadow;
+
+import aster.core.canonicalizer.SyntaxTransformer;
+import aster.lang.zh.SnippetCanonicalizer;
+import aster.lang.zh.ZhCnPlugin;
+import aster.lang.zh.shadow.ShadowVerifier.Mismatch;
+import aster.lang.zh.transformers.ChineseOperatorTransformer;
+import aster.lang.zh.transformers.ChinesePossessiveTransformer;
+import aster.lang.zh.transformers.ChinesePunctuationTransformer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 影子校验单元测试。
+ */
+@DisplayName("ShadowVerifier")
+class ShadowVerifierTest {
+
+    private static final UnaryOperator<String> REFERENCE = ShadowVerifier.transformerChain(
+            ChinesePunctuationTransformer.INSTANCE,
+            ChinesePossessiveTransformer.INSTANCE,
+            ChineseOperatorTransformer.INSTANCE);
+
+    @Test
+    @DisplayName("一致的优化流水线不产生记录")
+    void testNoMismatch() throws InterruptedException {
+        try (ShadowVerifier verifier = ShadowVerifier.builder(REFERENCE, REFERENCE).sampleRate(1).build()) {
+            for (int i = 0; i < 200; i++) {
+                verifier.apply("如果 驾驶员的年龄 大于等于 " + i + "，返回 「成年的人」。");
+            }
+            assertThat(verifier.awaitIdle(10, TimeUnit.SECONDS)).isTrue();
+
+            ShadowVerifier.Stats stats = verifier.stats();
+            assertThat(stats.calls()).isEqualTo(200);
+            assertThat(stats.sampled() + stats.dropped()).isEqualTo(200);
+            assertThat(stats.verified()).isEqualTo(stats.sampled());
+            assertThat(stats.mismatches()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("不一致时附带输入记录并通知监听器")
+    void testRecordsMismatch() throws InterruptedException {
+        // 模拟有缺陷的优化：漏掉了 "不等于"
+        UnaryOperator<String> broken = s -> REFERENCE.apply(s.replace("不等于", "等于"));
+        List<Mismatch> seen = new CopyOnWriteArrayList<>();
+        try (ShadowVerifier verifier = ShadowVerifier.builder(broken, REFERENCE)
+                .sampleRate(1)
+                .onMismatch(seen::add)
+                .build()) {
+            assertThat(verifier.apply("甲 等于 乙。")).isEqualTo(REFERENCE.apply("甲 等于 乙。"));
+            verifier.apply("甲 不等于 乙。");
+            assertThat(verifier.awaitIdle(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(verifier.stats().mismatches()).isEqualTo(1);
+            Mismatch m = verifier.recentMismatches().get(0);
+            assertThat(m.input()).isEqualTo("甲 不等于 乙。");
+            assertThat(m.expected()).isEqualTo(REFERENCE.apply("甲 不等于 乙。"));
+            assertThat(m.actual()).isNotEqualTo(m.expected());
+            assertThat(seen).containsExactly(m);
+        }
+    }
+
+    @Test
+    @DisplayName("参考流水线抛出异常时记录为不一致")
+    void testReferenceFailure() throws InterruptedException {
+        try (ShadowVerifier verifier = ShadowVerifier.builder(s -> s, s -> {
+            throw new IllegalStateException("boom");
+        }).sampleRate(1).build()) {
+            verifier.apply("令 x 定义为 1。");
+            assertThat(verifier.awaitIdle(10, TimeUnit.SECONDS)).isTrue();
+
+            Mismatch m = verifier.recentMismatches().get(0);
+            assertThat(m.expected()).isNull();
+            assertThat(m.error()).hasMessage("boom");
+        }
+    }
+
+    @Test
+    @DisplayName("后台积压时丢弃抽样，请求路径不等待")
+    void testDropsWhenBacklogged() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Executor blocked = task -> Thread.ofVirtual().start(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            task.run();
+        });
+        ShadowVerifier verifier = ShadowVerifier.builder(s -> s, s -> s)
+                .sampleRate(1)
+                .maxPending(4)
+                .executor(blocked)
+                .build();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            verifier.apply("片段" + i);
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+        assertThat(verifier.stats().sampled()).isEqualTo(4);
+        assertThat(verifier.stats().dropped()).isEqualTo(96);
+
+        release.countDown();
+        assertThat(verifier.awaitIdle(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(verifier.stats().verified()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("零抽样率不提交后台任务；非法参数被拒绝")
+    void testSamplingBounds() {
+        try (ShadowVerifier verifier = ShadowVerifier.zhCnCanonicalizer(SnippetCanonicalizer.zhCn()::canonicalize)
+                .sampleRate(0).build()) {
+            verifier.apply("年龄 大于 18");
+            assertThat(verifier.stats().sampled()).isZero();
+        }
+        assertThatThrownBy(() -> ShadowVerifier.builder(s -> s, s -> s).sampleRate(1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ShadowVerifier.builder(s -> s, s -> s).maxPending(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("默认参考是冻结实现，而不是插件注册的变换器")
+    void testDefaultReferenceIsFrozen() {
+        List<SyntaxTransformer> registered = new ZhCnPlugin().getTransformers().values().stream()
+                .map(Supplier::get)
+                .toList();
+        assertThat(ReferenceTransformers.ZH_CN.keySet())
+                .containsExactlyInAnyOrderElementsOf(new ZhCnPlugin().getTransformers().keySet());
+        assertThat(ReferenceTransformers.chain()).doesNotContainAnyElementsOf(registered);
+    }
+
+    @Test
+    @DisplayName("优化后的变换器与冻结参考在语料上逐字节一致")
+    void testOptimizedMatchesFrozenReference() throws InterruptedException {
+        List<Mismatch> seen = new CopyOnWriteArrayList<>();
+        try (ShadowVerifier verifier = ShadowVerifier.zhCn()
+                .sampleRate(1)
+                .maxPending(Integer.MAX_VALUE)
+                .onMismatch(seen::add)
+                .build()) {
+            for (String input : corpus(500)) {
+                verifier.apply(input);
+            }
+            assertThat(verifier.awaitIdle(30, TimeUnit.SECONDS)).isTrue();
+            assertThat(verifier.stats().verified()).isEqualTo(500);
+            assertThat(seen).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("冻结参考能发现变换器回归")
+    void testFrozenReferenceDetectsRegression() throws InterruptedException {
+        // 模拟退回单遍正则：所有格链只展开最后一个 "的"
+        UnaryOperator<String> broken = s -> s.replaceAll("([\\p{IsHan}]{2,})的([\\p{IsHan}]{2,})", "$1.$2");
+        try (ShadowVerifier verifier = ShadowVerifier.zhCn(broken).sampleRate(1).build()) {
+            verifier.apply("申请人的信用报告的评分");
+            assertThat(verifier.awaitIdle(10, TimeUnit.SECONDS)).isTrue();
+
+            Mismatch m = verifier.recentMismatches().get(0);
+            assertThat(m.actual()).isEqualTo("申请人的信用报告.评分");
+            assertThat(m.expected()).isEqualTo("申请人.信用报告.评分");
+        }
+    }
+
+    @Test
+    @DisplayName("参考流水线栈溢出记为不一致，其他 Error 不被吞掉")
+    void testReferenceErrors() throws InterruptedException {
+        try (ShadowVerifier verifier = ShadowVerifier.builder(s -> s, s -> {
+                    throw new StackOverflowError();
+                })
+                .sampleRate(1)
+                .executor(Runnable::run)
+                .build()) {
+            verifier.apply("甲");
+            assertThat(verifier.awaitIdle(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(verifier.recentMismatches().get(0).error()).isInstanceOf(StackOverflowError.class);
+        }
+        try (ShadowVerifier verifier = ShadowVerifier.builder(s -> s, s -> {
+                    throw new AssertionError("fatal");
+                })
+                .sampleRate(1)
+                .executor(Runnable::run)
+                .build()) {
+            assertThatThrownBy(() -> verifier.apply("乙")).isInstanceOf(AssertionError.class);
+            assertThat(verifier.stats().mismatches()).isZero();
+            assertThat(verifier.awaitIdle(10, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("抛出异常的监听器不影响其余监听器")
+    void testListenerIsolation() throws InterruptedException {
+        List<Mismatch> seen = new CopyOnWriteArrayList<>();
+        try (ShadowVerifier verifier = ShadowVerifier.builder(s -> s, s -> s + "!")
+                .sampleRate(1)
+                .onMismatch(m -> {
+                    throw new IllegalStateException("listener failed");
+                })
+                .onMismatch(seen::add)
+                .build()) {
+            verifier.apply("甲");
+            verifier.apply("乙");
+            assertThat(verifier.awaitIdle(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(seen).extracting(Mismatch::input).containsExactly("甲", "乙");
+            assertThat(verifier.stats().listenerFailures()).isEqualTo(2);
+            assertThat(verifier.stats().mismatches()).isEqualTo(2);
+        }
+    }
+
+    /** 覆盖全部中文变换器的随机输入：所有格链、运算符、字符串字面量、行首语法与多种换行。 */
+    private static List<String> corpus(int size) {
+        String[] words = {"驾驶员", "年龄", "车辆", "价格", "申请人", "信用报告", "评分", "保费", "的", "的", "x"};
+        String[] templates = {
+                "如果 %s 大于等于 %d，返回 「%s 的 值。」。",
+                "令 %s 定义为 %d。",
+                "  将 %s 设为 %d 乘以 2。",
+                "结果为 %s 加上 %d。",
+                "规则 评估(%s: 信息)：%d",
+                "Rule f(%s) %d",
+                "设置 %s 为 %d 则",
+                "%s 不等于 %d 并且 %s 小于等于 0、完",
+        };
+        String[] newlines = {"\n", "\r\n", "\n\n"};
+        Random random = new Random(48);
+        List<String> inputs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            StringBuilder sb = new StringBuilder();
+            int lines = 1 + random.nextInt(6);
+            for (int l = 0; l < lines; l++) {
+                StringBuilder term = new StringBuilder();
+                for (int w = 1 + random.nextInt(5); w > 0; w--) {
+                    term.append(words[random.nextInt(words.length)]);
+                }
+                String t = term.toString();
+                sb.append(templates[random.nextInt(templates.length)].formatted(t, random.nextInt(1000), t))
+                        .append(newlines[random.nextInt(newlines.length)]);
+            }
+            inputs.add(sb.toString());
+        }
+        return inputs;
+    }
+}
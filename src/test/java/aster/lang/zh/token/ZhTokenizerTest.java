@@ -0,0 +1,165 @@
+package aster.lang.zh.token;
+
+import aster.core.lexicon.SemanticTokenKind;
+import aster.lang.zh.ZhCnResources;
+import aster.lang.zh.token.ZhToken.Type;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 直接词法化模式单元测试。
+ */
+@DisplayName("ZhTokenizer")
+class ZhTokenizerTest {
+
+    private static ZhTokenizer tokenizer;
+    private static ZhTokenizer scoped;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        Map<SemanticTokenKind, String> keywords = new EnumMap<>(SemanticTokenKind.class);
+        try (InputStream is = ZhTokenizerTest.class.getResourceAsStream("/lexicons/zh-CN.json")) {
+            JsonNode root = new ObjectMapper().readTree(is);
+            root.get("keywords").fields().forEachRemaining(
+                    e -> keywords.put(SemanticTokenKind.valueOf(e.getKey()), e.getValue().textValue()));
+        }
+        tokenizer = ZhTokenizer.of(keywords);
+        scoped = ZhTokenizer.of(keywords, ZhCnResources.compoundPatterns());
+    }
+
+    @Test
+    @DisplayName("关键词、标识符、数字、标点与偏移")
+    void testBasicTokens() {
+        String source = "令 保费 定义为 １０００。";
+        List<ZhToken> tokens = tokenizer.tokenize(source);
+
+        assertThat(tokens).extracting(ZhToken::type).containsExactly(
+                Type.KEYWORD, Type.IDENTIFIER, Type.KEYWORD, Type.NUMBER, Type.PUNCTUATION);
+        assertThat(tokens.get(0).keyword()).isEqualTo(SemanticTokenKind.LET);
+        assertThat(tokens.get(2).keyword()).isEqualTo(SemanticTokenKind.BE);
+        assertThat(tokens.get(3).text()).isEqualTo("1000");
+        assertThat(tokens.get(4).text()).isEqualTo(".");
+        ZhToken id = tokens.get(1);
+        assertThat(source.substring(id.start(), id.end())).isEqualTo("保费");
+    }
+
+    @Test
+    @DisplayName("关键词只匹配完整单词")
+    void testKeywordInsideIdentifier() {
+        List<ZhToken> tokens = tokenizer.tokenize("返回 甲 或者 测试或者");
+        assertThat(tokens).extracting(ZhToken::type).containsExactly(
+                Type.KEYWORD, Type.IDENTIFIER, Type.KEYWORD, Type.IDENTIFIER);
+        assertThat(tokens.get(3).text()).isEqualTo("测试或者");
+    }
+
+    @Test
+    @DisplayName("中文运算符与行尾「则」")
+    void testOperators() {
+        List<ZhToken> tokens = tokenizer.tokenize("如果 年龄 大于等于 18 则\n如果 甲等于乙 则\n");
+        assertThat(tokens).extracting(ZhToken::text).containsExactly(
+                "如果", "年龄", ">=", "18", ":", "\n", "如果", "甲", "==", "乙", ":", "\n");
+    }
+
+    @Test
+    @DisplayName("所有格「的」拆为成员访问")
+    void testPossessive() {
+        assertThat(tokenizer.tokenize("驾驶员的年龄")).extracting(ZhToken::text)
+                .containsExactly("驾驶员", ".", "年龄");
+        assertThat(tokenizer.tokenize("车辆 的 价格")).extracting(ZhToken::text)
+                .containsExactly("车辆", ".", "价格");
+        // 一侧不足两个汉字时不拆
+        assertThat(tokenizer.tokenize("我的车")).extracting(ZhToken::text).containsExactly("我的车");
+    }
+
+    @Test
+    @DisplayName("字符串字面量整体保留")
+    void testStrings() {
+        List<ZhToken> tokens = tokenizer.tokenize("返回 「如果 甲 等于 乙。」。");
+        assertThat(tokens).extracting(ZhToken::type).containsExactly(Type.KEYWORD, Type.STRING, Type.PUNCTUATION);
+        assertThat(tokens.get(1).text()).isEqualTo("如果 甲 等于 乙。");
+        assertThat(tokens.get(1).end()).isEqualTo(tokens.get(2).start());
+    }
+
+    @Test
+    @DisplayName("函数头括号参数改写为 FUNC_GIVEN")
+    void testFunctionSyntax() {
+        List<ZhToken> tokens = tokenizer.tokenize("规则 评估(甲: 整数, 乙: 整数)：\n规则 主()：");
+        assertThat(tokens).extracting(t -> t.type() == Type.KEYWORD ? t.keyword().name() : t.text())
+                .containsExactly("FUNC_TO", "评估", "FUNC_GIVEN", "甲", ":", "INT_TYPE", ",", "乙", ":", "INT_TYPE", ":",
+                        "\n", "FUNC_TO", "主", ":");
+    }
+
+    @Test
+    @DisplayName("行首改写：结果为 / 将…设为 / 设置…为")
+    void testLineStartRewrites() {
+        assertThat(kinds("结果为 甲")).containsExactly(SemanticTokenKind.RETURN, null);
+        assertThat(kinds("将 总价 设为 100")).containsExactly(
+                SemanticTokenKind.LET, null, SemanticTokenKind.BE, null);
+        assertThat(kinds("设置 总价 为 100")).containsExactly(
+                SemanticTokenKind.LET, null, SemanticTokenKind.BE, null);
+    }
+
+    @Test
+    @DisplayName("流式推送与列表结果一致")
+    void testStreaming() {
+        String source = "模块 测试。\n规则 评估 给定 客户，产出：\n  返回 客户的信用评分 加上 1。\n";
+        List<ZhToken> streamed = new ArrayList<>();
+        tokenizer.tokenize(source, streamed::add);
+        assertThat(streamed).isEqualTo(tokenizer.tokenize(source));
+        assertThat(streamed).filteredOn(t -> t.type() == Type.NEWLINE).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("词法表复合模式编译为状态机")
+    void testCompoundPatternsCompiled() {
+        CompoundPatternMachine machine = ZhCnResources.compoundPatterns();
+        assertThat(machine.patterns()).extracting(CompoundPatternMachine.Pattern::name)
+                .containsExactly("match-when", "let-be");
+        assertThat(machine.isContextual(SemanticTokenKind.WHEN)).isTrue();
+        assertThat(machine.isContextual(SemanticTokenKind.BE)).isTrue();
+        assertThat(machine.isContextual(SemanticTokenKind.MATCH)).isFalse();
+    }
+
+    @Test
+    @DisplayName("「当」只在 匹配于 的缩进块内是关键词")
+    void testMatchWhenScope() {
+        String source = "当 甲\n匹配于 结果：\n  当 成功，返回 1。\n  当 失败：\n    返回 0。\n当 乙\n";
+        List<ZhToken> whens = scoped.tokenize(source).stream().filter(t -> t.text().equals("当")).toList();
+
+        assertThat(whens).extracting(ZhToken::type)
+                .containsExactly(Type.IDENTIFIER, Type.KEYWORD, Type.KEYWORD, Type.IDENTIFIER);
+        // 不带复合模式时沿用无条件关键词
+        assertThat(tokenizer.tokenize("当 甲")).extracting(ZhToken::keyword).containsExactly(SemanticTokenKind.WHEN, null);
+    }
+
+    @Test
+    @DisplayName("「定义为」只在 令 所在行内是关键词，作用域可嵌套")
+    void testLetBeScope() {
+        assertThat(scoped.tokenize("令 保费 定义为 1000。")).extracting(ZhToken::keyword)
+                .containsExactly(SemanticTokenKind.LET, null, SemanticTokenKind.BE, null, null);
+        assertThat(scoped.tokenize("令 甲\n乙 定义为 1")).extracting(ZhToken::keyword)
+                .containsExactly(SemanticTokenKind.LET, null, null, null, null, null);
+
+        String nested = "匹配于 甲：\n  当 乙，令 丙 定义为 1。\n  当 丁，令 戊 定义为 2。\n";
+        assertThat(scoped.tokenize(nested)).filteredOn(t -> t.type() == Type.KEYWORD).extracting(ZhToken::keyword)
+                .containsExactly(SemanticTokenKind.MATCH,
+                        SemanticTokenKind.WHEN, SemanticTokenKind.LET, SemanticTokenKind.BE,
+                        SemanticTokenKind.WHEN, SemanticTokenKind.LET, SemanticTokenKind.BE);
+    }
+
+    private static List<SemanticTokenKind> kinds(String source) {
+        return tokenizer.tokenize(source).stream().map(ZhToken::keyword).toList();
+    }
+}
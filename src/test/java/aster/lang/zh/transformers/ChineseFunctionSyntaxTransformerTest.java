@@ -61,6 +61,20 @@ class ChineseFunctionSyntaxTransformerTest {
         assertThat(result).contains("Rule 计算 given 值: Int");
     }
 
+    @Test
+    @DisplayName("无 CJK 内容时仍改写英文 Rule 函数语法")
+    void testAsciiRuleStillRewritten() {
+        String result = transformer.transform("Rule greet(name: Text):", config, segmenter);
+        assertThat(result).contains("Rule greet given name: Text");
+    }
+
+    @Test
+    @DisplayName("既无 CJK 内容也无 Rule 时原样返回同一实例")
+    void testBypassWithoutCjk() {
+        String input = "Module demo.\nLet x be 1.";
+        assertThat(transformer.transform(input, config, segmenter)).isSameAs(input);
+    }
+
     @Test
     @DisplayName("非函数行不受影响")
     void testNonFunctionLineUnaffected() {
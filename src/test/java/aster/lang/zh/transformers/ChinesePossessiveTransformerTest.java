@@ -67,4 +67,11 @@ class ChinesePossessiveTransformerTest {
         String result = transformer.transform("驾驶员 的 车辆 的 型号", config, segmenter);
         assertThat(result).isEqualTo("驾驶员.车辆.型号");
     }
+
+    @Test
+    @DisplayName("无空格所有格链完全展开")
+    void testNoSpaceChain() {
+        String result = transformer.transform("返回 申请人的信用报告的评分。", config, segmenter);
+        assertThat(result).isEqualTo("返回 申请人.信用报告.评分。");
+    }
 }
@@ -0,0 +1,72 @@
+package aster.lang.zh.transformers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 中文标点归一化性能基准：逐字符 switch（原实现）对比 {@link CjkScanner} 批量扫描。
+ * <p>
+ * 通过 {@code ./gradlew benchmark --tests '*ChinesePunctuationBenchmark'} 运行；
+ * 加 {@code -Daster.zh.vector=false} 可观察标量回退路径。
+ */
+@Tag("benchmark")
+@DisplayName("ChinesePunctuationTransformer 基准")
+class ChinesePunctuationBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURE_ROUNDS = 30;
+
+    @Test
+    @DisplayName("8 MB 输入：稀疏标点 / 常规文档 / 无标点")
+    void benchmarkLargeInputs() {
+        String line = "  如果 申请人.信用评分 大于等于 700 并且 申请人.年龄 不足 60 返回 审批结果.批准\n";
+        String sparse = line.repeat(8 * 1024 * 1024 / (line.length() * 2));
+        String regular = "规则 评估 给定 申请，产出：\n  如果 申请.年龄 小于 18：\n    返回 「未成年」。\n"
+                .repeat(8 * 1024 * 1024 / 80);
+        String ascii = "Rule evaluate given application, produce:\n  Return ok.\n".repeat(8 * 1024 * 1024 / 108);
+
+        System.out.printf("Vector API 快速路径：%s%n", CjkScanner.vectorized() ? "启用" : "未启用（标量回退）");
+        report("稀疏标点", sparse);
+        report("常规文档", regular);
+        report("纯 ASCII", ascii);
+    }
+
+    private static void report(String label, String input) {
+        assertThat(ChinesePunctuationTransformer.translatePunctuation(input)).isEqualTo(baseline(input));
+        double baselineNanos = measure(() -> baseline(input));
+        double optimizedNanos = measure(() -> ChinesePunctuationTransformer.translatePunctuation(input));
+        double mb = input.length() * 2 / (1024.0 * 1024.0);
+        System.out.printf("%-8s %6.1f MB  switch: %8.1f MB/s  scanner: %8.1f MB/s  speedup: %5.2fx%n",
+                label, mb, mb / (baselineNanos / 1e9), mb / (optimizedNanos / 1e9), baselineNanos / optimizedNanos);
+    }
+
+    /** 原逐字符 switch 实现，作为对照基线。 */
+    private static String baseline(String s) {
+        StringBuilder result = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '。' -> result.append('.');
+                case '，' -> result.append(',');
+                case '：' -> result.append(':');
+                case '、' -> result.append(',');
+                default -> result.append(ch);
+            }
+        }
+        return result.toString();
+    }
+
+    private static double measure(Runnable task) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / (double) MEASURE_ROUNDS;
+    }
+}
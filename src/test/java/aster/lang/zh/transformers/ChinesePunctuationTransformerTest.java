@@ -69,6 +69,13 @@ class ChinesePunctuationTransformerTest {
                 .endsWith(".");
     }
 
+    @Test
+    @DisplayName("无 CJK 内容时原样返回同一实例")
+    void testBypassWithoutCjk() {
+        String input = "Module demo.\nRule main, produce:\n  Return \"a, b\".";
+        assertThat(transformer.transform(input, config, segmenter)).isSameAs(input);
+    }
+
     @Test
     @DisplayName("ASCII 引号字符串也受保护")
     void testPreserveAsciiQuotedStrings() {
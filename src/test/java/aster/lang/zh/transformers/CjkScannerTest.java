@@ -0,0 +1,90 @@
+package aster.lang.zh.transformers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CJK 字符扫描工具单元测试（向量路径与标量路径结果必须一致）。
+ */
+@DisplayName("CjkScanner")
+class CjkScannerTest {
+
+    private static final String ALPHABET = "模块规则返回 abc123\n。，：、「」的";
+
+    @Test
+    @DisplayName("查找全角标点")
+    void testIndexOfPunctuation() {
+        assertThat(CjkScanner.indexOfPunctuation("返回 42。", 0)).isEqualTo(5);
+        assertThat(CjkScanner.indexOfPunctuation("a、b", 0)).isEqualTo(1);
+        assertThat(CjkScanner.indexOfPunctuation("a、b", 2)).isEqualTo(-1);
+        assertThat(CjkScanner.indexOfPunctuation("plain ascii, text.", 0)).isEqualTo(-1);
+        assertThat(CjkScanner.indexOfPunctuation("", 0)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("长输入：标点位于块边界附近")
+    void testChunkBoundaries() {
+        for (int pos : new int[]{0, 7, 8, 15, 16, 1023, 1024, 1025, 4095, 5000}) {
+            char[] chars = "规".repeat(6000).toCharArray();
+            chars[pos] = '：';
+            String s = new String(chars);
+            assertThat(CjkScanner.indexOfPunctuation(s, 0)).as("pos=%d", pos).isEqualTo(pos);
+            assertThat(CjkScanner.indexOfPunctuation(chars, 0, chars.length)).as("pos=%d", pos).isEqualTo(pos);
+            assertThat(CjkScanner.indexOfPunctuation(s, pos + 1)).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    @DisplayName("CJK 内容检测")
+    void testContainsCjk() {
+        assertThat(CjkScanner.containsCjk("Rule main given x, produce: Return x.")).isFalse();
+        assertThat(CjkScanner.containsCjk("")).isFalse();
+        assertThat(CjkScanner.containsCjk("caf\u00e9 \u201csmart\u201d")).isFalse();
+        assertThat(CjkScanner.containsCjk("Return 值")).isTrue();
+        assertThat(CjkScanner.containsCjk("Return x\uFF0E")).isTrue();
+        assertThat(CjkScanner.containsCjk("x".repeat(5000) + "\u3002")).isTrue();
+        assertThat(CjkScanner.containsCjk("x".repeat(5000) + "\uD840\uDC00")).isTrue();
+        assertThat(CjkScanner.containsCjk("x".repeat(5000))).isFalse();
+    }
+
+    @Test
+    @DisplayName("随机输入：CJK 检测与标量实现一致")
+    void testContainsCjkMatchesScalar() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int round = 0; round < 200; round++) {
+            int len = random.nextInt(4000);
+            char[] chars = new char[len];
+            for (int i = 0; i < len; i++) {
+                chars[i] = (char) (' ' + random.nextInt(95));
+            }
+            if (len > 0 && random.nextBoolean()) {
+                chars[random.nextInt(len)] = (char) (0x2E80 + random.nextInt(0x10000 - 0x2E80));
+            }
+            String s = new String(chars);
+            assertThat(CjkScanner.containsCjk(s)).isEqualTo(CjkScanner.indexOfCjkScalar(s, 0, len) >= 0);
+        }
+    }
+
+    @Test
+    @DisplayName("随机输入：与标量实现逐位置一致")
+    void testMatchesScalar() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int round = 0; round < 200; round++) {
+            int len = random.nextInt(3000);
+            StringBuilder sb = new StringBuilder(len);
+            for (int i = 0; i < len; i++) {
+                // 标点稀疏出现
+                char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+                sb.append(CjkScanner.isPunctuation(c) && random.nextInt(20) != 0 ? '文' : c);
+            }
+            String s = sb.toString();
+            int from = len == 0 ? 0 : random.nextInt(len);
+            assertThat(CjkScanner.indexOfPunctuation(s, from))
+                    .isEqualTo(CjkScanner.indexOfPunctuationScalar(s, from, len));
+        }
+    }
+}
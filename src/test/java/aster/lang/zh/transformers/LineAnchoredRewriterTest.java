@@ -0,0 +1,79 @@
+package aster.lang.zh.transformers;
+
+import aster.lang.zh.cancel.CancellableCanonicalizer;
+import aster.lang.zh.cancel.CancellableCanonicalizer.Cancelled;
+import aster.lang.zh.cancel.CancellableCanonicalizer.Completed;
+import aster.lang.zh.cancel.CancellableCanonicalizer.Result;
+import aster.lang.zh.cancel.CancellationToken;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 行首锚定替换单元测试。
+ */
+@DisplayName("LineAnchoredRewriter")
+class LineAnchoredRewriterTest {
+
+    private static final Pattern SET_TO = Pattern.compile(
+            "^(\\s*)将\\s+([\\p{L}][\\p{L}0-9_]*)\\s+设为\\s+",
+            Pattern.MULTILINE | Pattern.UNICODE_CHARACTER_CLASS);
+
+    private static final String[] PIECES = {
+            "将", " ", "  ", "x", "总价", "1", "设为", "\n", "\r", "\r\n", "\u0085", "\u2028", "\u2029", "。", "\t"
+    };
+
+    @Test
+    @DisplayName("随机输入下与 Matcher.replaceAll 逐字一致")
+    void testMatchesReplaceAll() {
+        SplittableRandom random = new SplittableRandom(46);
+        for (int round = 0; round < 20_000; round++) {
+            StringBuilder sb = new StringBuilder();
+            int pieces = random.nextInt(24);
+            for (int i = 0; i < pieces; i++) {
+                sb.append(PIECES[random.nextInt(PIECES.length)]);
+            }
+            String text = sb.toString();
+
+            String expected = SET_TO.matcher(text).replaceAll("$1Let $2 be ");
+            String actual = LineAnchoredRewriter.replaceAll(SET_TO, text, m -> m.group(1) + "Let " + m.group(2) + " be ");
+            assertThat(actual).as("%s", text.replace("\r", "\\r").replace("\n", "\\n")).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("没有匹配的大文档可在行首检查点中途取消")
+    void testPromptCancellation() throws Exception {
+        String source = "  如果 驾驶员 年龄 小于 十八 那么 拒保 否则 继续 处理 下一条\n".repeat(400_000);
+        CancellationToken token = CancellationToken.create();
+        CancellableCanonicalizer canonicalizer = CancellableCanonicalizer.of(
+                s -> LineAnchoredRewriter.replaceAll(SET_TO, s, m -> m.group(1) + "Let " + m.group(2) + " be "));
+
+        CompletableFuture<Result> run = CompletableFuture.supplyAsync(() -> canonicalizer.canonicalize(source, token));
+        Thread.sleep(5);
+        long cancelledAt = System.nanoTime();
+        token.cancel();
+        Result result = run.get(30, TimeUnit.SECONDS);
+        long latencyMillis = (System.nanoTime() - cancelledAt) / 1_000_000;
+
+        if (result instanceof Cancelled) {
+            assertThat(latencyMillis).as("取消到返回的延迟").isLessThan(50);
+        } else {
+            // 机器足够快时整个扫描可能在 5 ms 内完成；此时结果必须是原文
+            assertThat(((Completed) result).canonical()).isSameAs(source);
+        }
+    }
+
+    @Test
+    @DisplayName("没有匹配时返回原字符串")
+    void testNoMatchReturnsSameInstance() {
+        String text = "令 x 定义为 1。\n返回 x。\n";
+        assertThat(LineAnchoredRewriter.replaceAll(SET_TO, text, m -> "")).isSameAs(text);
+    }
+}
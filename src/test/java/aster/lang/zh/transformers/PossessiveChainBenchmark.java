@@ -0,0 +1,69 @@
+package aster.lang.zh.transformers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 所有格链解析最坏情况基准：原正则不动点 vs {@link PossessiveChainResolver}。
+ * <p>
+ * 最坏输入是不含空格的长汉字串：{@code 甲的甲的…} 中没有可拆分的 "的"，正则对每个起点都要回溯整段；
+ * {@code 甲甲甲的…} 则是需要逐个展开的长链。解析器的耗时应随长度线性增长（翻倍约 2 倍）。
+ * <p>
+ * 通过 {@code ./gradlew benchmark --tests '*PossessiveChainBenchmark'} 运行。
+ */
+@Tag("benchmark")
+@DisplayName("所有格链解析基准")
+class PossessiveChainBenchmark {
+
+    private static final Pattern LEGACY = Pattern.compile("([\\p{IsHan}]{2,})的([\\p{IsHan}]{2,})");
+
+    @Test
+    @DisplayName("最坏情况输入的扩展曲线")
+    void benchmarkWorstCase() {
+        report("无可拆分位置", "甲的", new int[]{1_000, 2_000, 4_000, 8_000});
+        report("长链", "甲甲甲的", new int[]{250, 500, 1_000, 2_000});
+    }
+
+    private static void report(String label, String unit, int[] repeats) {
+        System.out.printf("%n%s (%s)%n%10s %14s %14s%n", label, unit, "chars", "regex µs", "resolver µs");
+        double previous = 0;
+        for (int r : repeats) {
+            String input = unit.repeat(r) + "名称";
+            String expected = legacyFixpoint(input);
+            assertThat(PossessiveChainResolver.DEFAULT.resolve(input)).isEqualTo(expected);
+            double regex = measure(PossessiveChainBenchmark::legacyFixpoint, input, 3);
+            double linear = measure(PossessiveChainResolver.DEFAULT::resolve, input, 200);
+            System.out.printf("%10d %14.1f %14.1f%s%n", input.length(), regex / 1e3, linear / 1e3,
+                    previous == 0 ? "" : String.format("   resolver ×%.2f", linear / previous));
+            previous = linear;
+        }
+    }
+
+    private static double measure(UnaryOperator<String> f, String input, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            f.apply(input);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            f.apply(input);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static String legacyFixpoint(String s) {
+        String previous;
+        do {
+            previous = s;
+            s = LEGACY.matcher(s).replaceAll("$1.$2");
+        } while (!s.equals(previous));
+        return s;
+    }
+}
@@ -0,0 +1,82 @@
+package aster.lang.zh.transformers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 所有格链线性解析器单元测试。
+ */
+@DisplayName("PossessiveChainResolver")
+class PossessiveChainResolverTest {
+
+    /** 原实现使用的正则，作为语义对照。 */
+    private static final Pattern LEGACY = Pattern.compile("([\\p{IsHan}]{2,})的([\\p{IsHan}]{2,})");
+
+    private final PossessiveChainResolver resolver = PossessiveChainResolver.DEFAULT;
+
+    @Test
+    @DisplayName("任意长度的链一遍展开")
+    void testChains() {
+        assertThat(resolver.resolve("申请人的信用报告的评分")).isEqualTo("申请人.信用报告.评分");
+        assertThat(resolver.resolve("驾驶员的车辆的保单的状态")).isEqualTo("驾驶员.车辆.保单.状态");
+        assertThat(resolver.resolve("返回 用户的名字。")).isEqualTo("返回 用户.名字。");
+    }
+
+    @Test
+    @DisplayName("两侧不足两个汉字时不拆")
+    void testMinimumLength() {
+        assertThat(resolver.resolve("我的结构体")).isEqualTo("我的结构体");
+        assertThat(resolver.resolve("用户的名")).isEqualTo("用户的名");
+        assertThat(resolver.resolve("甲甲的乙的丙丙")).isEqualTo("甲甲的乙.丙丙");
+        String plain = "没有所有格";
+        assertThat(resolver.resolve(plain)).isSameAs(plain);
+    }
+
+    @Test
+    @DisplayName("扩展区汉字按码点计数")
+    void testSupplementaryHan() {
+        // U+20000 是 CJK 扩展 B 汉字，占两个 char
+        String ext = new String(Character.toChars(0x20000));
+        assertThat(resolver.resolve("用户的" + ext + "名")).isEqualTo("用户." + ext + "名");
+        assertThat(resolver.resolve("用户的" + ext)).isEqualTo("用户的" + ext);
+    }
+
+    @Test
+    @DisplayName("与反复应用原正则直到不动点的结果一致")
+    void testMatchesLegacyFixpoint() {
+        String[] alphabet = {"甲", "乙", "的", "的", "a", " ", "。"};
+        Random random = new Random(2024);
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int k = 0; k < length; k++) {
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String input = sb.toString();
+            assertThat(resolver.resolve(input)).as("输入：%s", input).isEqualTo(legacyFixpoint(input));
+        }
+    }
+
+    @Test
+    @DisplayName("合并后为已知术语的「的」不拆分")
+    void testVocabularyVeto() {
+        PossessiveChainResolver withTerms = PossessiveChainResolver.of(term -> Set.of("我的积分账户").contains(term.toString()));
+        assertThat(withTerms.resolve("会员的我的积分账户")).isEqualTo("会员.我的积分账户");
+        assertThat(PossessiveChainResolver.DEFAULT.resolve("会员的我的积分账户")).isEqualTo("会员的我.积分账户");
+    }
+
+    private static String legacyFixpoint(String s) {
+        String previous;
+        do {
+            previous = s;
+            s = LEGACY.matcher(s).replaceAll("$1.$2");
+        } while (!s.equals(previous));
+        return s;
+    }
+}
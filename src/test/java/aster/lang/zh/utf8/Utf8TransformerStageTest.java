@@ -0,0 +1,97 @@
+package aster.lang.zh.utf8;
+
+import aster.core.canonicalizer.SyntaxTransformer;
+import aster.lang.zh.ZhCnPlugin;
+import aster.lang.zh.shadow.ShadowVerifier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * UTF-8 字节变换器阶段单元测试。
+ */
+@DisplayName("Utf8TransformerStage")
+class Utf8TransformerStageTest {
+
+    /** 插件注册的全部 7 个中文变换器，按流水线顺序串联。 */
+    private static final UnaryOperator<String> REFERENCE = chain();
+
+    private static final String[] PIECES = {
+            "。", "，", "：", "、", " 的 ", "的", " ", "\n", "「", "」", "\"", "甲", "乙乙",
+            "大于等于", "不等于", " 则\n", "设置 ", " 为 ", "令 ", " 定义为 ", "将 ", " 设为 ", "结果为 ",
+            "规则 ", "(", ")", "x", "1", "é", "😀", "驾驶员", "年龄", "；"
+    };
+
+    @Test
+    @DisplayName("字节阶段原地改写标点与带空格所有格，保留字符串字面量")
+    void testNormalizeInPlace() {
+        ByteBuffer buffer = utf8("令 甲 的 乙 定义为 「你好，世界。」，\"甲 的 乙。\"：丙、丁。");
+        int length = Utf8TransformerStage.normalize(buffer);
+
+        assertThat(length).isEqualTo(buffer.remaining());
+        assertThat(StandardCharsets.UTF_8.decode(buffer).toString())
+                .isEqualTo("令 甲.乙 定义为 「你好，世界。」,\"甲 的 乙。\":丙,丁.");
+    }
+
+    @Test
+    @DisplayName("随机输入下与 7 个中文变换器串联的结果逐字节一致，入参不变")
+    void testMatchesTransformerChain() {
+        SplittableRandom random = new SplittableRandom(49);
+        for (int round = 0; round < 5000; round++) {
+            StringBuilder sb = new StringBuilder();
+            int pieces = random.nextInt(40);
+            for (int i = 0; i < pieces; i++) {
+                sb.append(PIECES[random.nextInt(PIECES.length)]);
+            }
+            String source = sb.toString();
+
+            byte[] input = source.getBytes(StandardCharsets.UTF_8);
+            byte[] actual = Utf8TransformerStage.zhCn().transform(input);
+            assertThat(actual).as(source).isEqualTo(REFERENCE.apply(source).getBytes(StandardCharsets.UTF_8));
+            assertThat(input).isEqualTo(source.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("堆外内存段与只读缓冲区")
+    void testSegmentsAndReadOnlyBuffers() {
+        byte[] bytes = "如果 驾驶员 的 年龄 大于 18：返回 「成年」。".getBytes(StandardCharsets.UTF_8);
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = arena.allocate(bytes.length);
+            MemorySegment.copy(bytes, 0, segment, ValueLayout.JAVA_BYTE, 0, bytes.length);
+            long length = Utf8TransformerStage.normalize(segment);
+
+            byte[] normalized = segment.asSlice(0, length).toArray(ValueLayout.JAVA_BYTE);
+            assertThat(new String(normalized, StandardCharsets.UTF_8)).isEqualTo("如果 驾驶员.年龄 大于 18:返回 「成年」.");
+        }
+
+        ByteBuffer readOnly = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        ByteBuffer result = Utf8TransformerStage.zhCn().transform(readOnly);
+        assertThat(StandardCharsets.UTF_8.decode(result.duplicate()).toString())
+                .isEqualTo(REFERENCE.apply(new String(bytes, StandardCharsets.UTF_8)));
+        assertThat(readOnly.remaining()).isEqualTo(bytes.length);
+        assertThat(Utf8TransformerStage.zhCn().transform(ByteBuffer.wrap(bytes))).isEqualTo(result);
+    }
+
+    private static ByteBuffer utf8(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static UnaryOperator<String> chain() {
+        Map<String, Supplier<SyntaxTransformer>> registered = new ZhCnPlugin().getTransformers();
+        return ShadowVerifier.transformerChain(ZhCnPlugin.CHINESE_TRANSFORMERS.stream()
+                .map(name -> registered.get(name).get())
+                .toArray(SyntaxTransformer[]::new));
+    }
+}
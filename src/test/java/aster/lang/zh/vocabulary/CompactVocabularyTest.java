@@ -0,0 +1,203 @@
+package aster.lang.zh.vocabulary;
+
+import aster.lang.zh.vocabulary.CompactVocabulary.Kind;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 紧凑词汇表单元测试。
+ */
+@DisplayName("CompactVocabulary")
+class CompactVocabularyTest {
+
+    private static CompactVocabulary insurance;
+    private static CompactVocabulary finance;
+
+    @BeforeAll
+    static void load() {
+        ClassLoader loader = CompactVocabularyTest.class.getClassLoader();
+        insurance = CompactVocabulary.fromResource(loader, "vocabularies/insurance-auto-zh-CN.json");
+        finance = CompactVocabulary.fromResource(loader, "vocabularies/finance-loan-zh-CN.json");
+    }
+
+    @Test
+    @DisplayName("元数据与 JSON 一致")
+    void testMetadata() {
+        assertThat(insurance.id()).isEqualTo("insurance.auto");
+        assertThat(insurance.locale()).isEqualTo("zh-CN");
+        assertThat(insurance.size()).isEqualTo(41);
+        assertThat(finance.id()).isEqualTo("finance.loan");
+    }
+
+    @Test
+    @DisplayName("本地化名与别名 → 规范名")
+    void testCanonicalOf() {
+        assertThat(insurance.canonicalOf(Kind.STRUCT, "驾驶员")).isEqualTo("Driver");
+        assertThat(insurance.canonicalOf(Kind.STRUCT, "司机")).isEqualTo("Driver");
+        assertThat(insurance.canonicalOf(Kind.FIELD, "驾驶年限")).isEqualTo("drivingYears");
+        assertThat(finance.canonicalOf(Kind.FIELD, "信用分")).isEqualTo("creditScore");
+    }
+
+    @Test
+    @DisplayName("同一术语在不同种类下互不干扰")
+    void testKindSeparation() {
+        // "批准" 同时是 QuoteResult 字段和枚举值
+        assertThat(insurance.canonicalOf(Kind.FIELD, "批准")).isEqualTo("approved");
+        assertThat(insurance.canonicalOf(Kind.ENUM_VALUE, "批准")).isEqualTo("Approved");
+        assertThat(insurance.canonicalOf(Kind.STRUCT, "批准")).isNull();
+    }
+
+    @Test
+    @DisplayName("规范名 → 本地化名（可限定父结构体）")
+    void testLocalizedOf() {
+        assertThat(insurance.localizedOf(Kind.STRUCT, "Vehicle")).isEqualTo("车辆");
+        assertThat(insurance.localizedOf(Kind.FIELD, "plateNo", "Vehicle")).isEqualTo("车牌号");
+        assertThat(insurance.localizedOf(Kind.FIELD, "plateNo", "Driver")).isNull();
+        assertThat(insurance.localizedOf(Kind.FIELD, "unknown")).isNull();
+    }
+
+    @Test
+    @DisplayName("条目访问器还原 JSON 内容")
+    void testEntryAccessors() {
+        int e = insurance.find(Kind.FIELD, "车牌");
+        assertThat(insurance.kind(e)).isEqualTo(Kind.FIELD);
+        assertThat(insurance.localized(e)).isEqualTo("车牌号");
+        assertThat(insurance.parent(e)).isEqualTo("Vehicle");
+        assertThat(insurance.aliases(e)).containsExactly("车牌", "牌照");
+        assertThat(insurance.find(Kind.FIELD, "不存在")).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("查询接受任意 CharSequence")
+    void testCharSequenceLookup() {
+        assertThat(insurance.canonicalOf(Kind.STRUCT, new StringBuilder("保单"))).isEqualTo("Policy");
+    }
+
+    @Test
+    @DisplayName("字符串去重：重复出现的父结构体名只存一份")
+    void testStringDeduplication() {
+        // 22 个字段共享 5 个父结构体名，去重后的字符串数应明显少于原始出现次数
+        int occurrences = 0;
+        for (int e = 0; e < insurance.size(); e++) {
+            occurrences += 2 + insurance.aliases(e).size() + (insurance.parent(e) != null ? 1 : 0);
+        }
+        assertThat(insurance.stringCount()).isLessThan(occurrences);
+    }
+
+    @Test
+    @DisplayName("10 万条目规模：查询正确且占用可控")
+    void testLargeVocabulary() {
+        int n = 100_000;
+        CompactVocabulary.Builder b = CompactVocabulary.builder("synthetic");
+        for (int i = 0; i < n; i++) {
+            b.add(Kind.FIELD, "field" + i, "字段" + i, "Struct" + (i % 100), List.of("别名" + i));
+        }
+        CompactVocabulary large = b.build();
+
+        assertThat(large.size()).isEqualTo(n);
+        assertThat(large.canonicalOf(Kind.FIELD, "字段77777")).isEqualTo("field77777");
+        assertThat(large.canonicalOf(Kind.FIELD, "别名12345")).isEqualTo("field12345");
+        assertThat(large.localizedOf(Kind.FIELD, "field99999", "Struct99")).isEqualTo("字段99999");
+        // 每条目（三个字符串 + 条目表 + 两张索引）平均不超过 160 字节；
+        // 对象化存储（String + ArrayList + HashMap.Node）通常在 400 字节以上
+        assertThat(large.footprintBytes()).isPositive().isLessThan(160L * n);
+    }
+
+    @Test
+    @DisplayName("缺少 canonical/localized 的条目被拒绝")
+    void testRejectIncompleteEntry() {
+        assertThatThrownBy(() -> CompactVocabulary.builder("bad").add(Kind.STRUCT, "X", null, null, List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("资源不存在时抛出 IllegalStateException")
+    void testMissingResource() {
+        assertThatThrownBy(() -> CompactVocabulary.fromResource(getClass().getClassLoader(), "vocabularies/none.json"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("内存映射加载与资源流加载结果一致")
+    void testFromFileMatchesResource(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("insurance.json");
+        try (InputStream in = getClass().getClassLoader()
+                .getResourceAsStream("vocabularies/insurance-auto-zh-CN.json")) {
+            Files.copy(in, file);
+        }
+        CompactVocabulary mapped = CompactVocabulary.fromFile(file);
+
+        assertThat(mapped.id()).isEqualTo(insurance.id());
+        assertThat(mapped.size()).isEqualTo(insurance.size());
+        for (int e = 0; e < insurance.size(); e++) {
+            assertThat(mapped.kind(e)).isEqualTo(insurance.kind(e));
+            assertThat(mapped.canonical(e)).isEqualTo(insurance.canonical(e));
+            assertThat(mapped.localized(e)).isEqualTo(insurance.localized(e));
+            assertThat(mapped.parent(e)).isEqualTo(insurance.parent(e));
+            assertThat(mapped.aliases(e)).isEqualTo(insurance.aliases(e));
+        }
+    }
+
+    @Test
+    @DisplayName("流式解析：元数据可在分节之后，未知字段被跳过")
+    void testStreamingFieldOrder(@TempDir Path dir) throws IOException {
+        Path file = Files.writeString(dir.resolve("order.json"), """
+                {
+                  "metadata": { "exportedBy": "crm", "tags": ["a", { "b": 1 }] },
+                  "structs": [
+                    { "note": { "x": [1, 2] }, "localized": "车辆", "canonical": "Vehicle", "aliases": ["车"] }
+                  ],
+                  "unknownSection": [ { "canonical": "X", "localized": "叉" } ],
+                  "id": "late-id",
+                  "locale": "zh-CN"
+                }
+                """, StandardCharsets.UTF_8);
+        CompactVocabulary vocab = CompactVocabulary.fromFile(file);
+
+        assertThat(vocab.id()).isEqualTo("late-id");
+        assertThat(vocab.locale()).isEqualTo("zh-CN");
+        assertThat(vocab.size()).isEqualTo(1);
+        assertThat(vocab.canonicalOf(Kind.STRUCT, "车")).isEqualTo("Vehicle");
+        assertThat(vocab.contains(Kind.STRUCT, "叉")).isFalse();
+    }
+
+    @Test
+    @DisplayName("跨越多个映射窗口的大文件逐条解析正确")
+    void testLargeFileAcrossWindows(@TempDir Path dir) throws IOException {
+        int n = 50_000;
+        Path file = dir.resolve("large.json");
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write("{ \"id\": \"large\", \"fields\": [\n");
+            for (int i = 0; i < n; i++) {
+                w.write("{ \"canonical\": \"field" + i + "\", \"localized\": \"字段" + i
+                        + "\", \"parent\": \"Struct" + (i % 10) + "\", \"aliases\": [\"别名" + i + "\"] }");
+                w.write(i + 1 < n ? ",\n" : "\n");
+            }
+            w.write("] }\n");
+        }
+
+        CompactVocabulary large;
+        // 窗口取一个不整除任何记录长度的小值，确保多字节 UTF-8 字符跨越窗口边界
+        try (InputStream in = MappedFileInputStream.open(file, 4093)) {
+            large = CompactVocabulary.fromJson(in);
+        }
+        assertThat(large.size()).isEqualTo(n);
+        assertThat(large.canonicalOf(Kind.FIELD, "字段31415")).isEqualTo("field31415");
+        assertThat(large.canonicalOf(Kind.FIELD, "别名49999")).isEqualTo("field49999");
+        assertThat(large.localizedOf(Kind.FIELD, "field0", "Struct0")).isEqualTo("字段0");
+        assertThat(CompactVocabulary.fromFile(file).size()).isEqualTo(n);
+    }
+}
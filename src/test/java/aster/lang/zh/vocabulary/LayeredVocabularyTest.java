@@ -0,0 +1,113 @@
+package aster.lang.zh.vocabulary;
+
+import aster.lang.zh.vocabulary.CompactVocabulary.Kind;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 分层词汇表单元测试。
+ */
+@DisplayName("LayeredVocabulary")
+class LayeredVocabularyTest {
+
+    private final LayeredVocabulary shared = LayeredVocabulary.of(BundledVocabularies.all());
+
+    @Test
+    @DisplayName("基础层查询穿透到全部内置词汇表")
+    void testBaseLookup() {
+        assertThat(shared.canonicalOf(Kind.STRUCT, "驾驶员")).isEqualTo("Driver");
+        assertThat(shared.canonicalOf(Kind.STRUCT, "申请人")).isEqualTo("Applicant");
+        assertThat(shared.localizedOf(Kind.FIELD, "creditScore", "Applicant")).isEqualTo("信用评分");
+    }
+
+    @Test
+    @DisplayName("租户别名层补充私有别名，不影响本地化名反查")
+    void testTenantAliases() {
+        CompactVocabulary delta = CompactVocabulary.builder("tenant-a")
+                .addAliases(Kind.STRUCT, "Driver", null, List.of("车主"))
+                .build();
+        LayeredVocabulary tenant = shared.withLayer(delta);
+
+        assertThat(tenant.canonicalOf(Kind.STRUCT, "车主")).isEqualTo("Driver");
+        assertThat(tenant.canonicalOf(Kind.STRUCT, "司机")).isEqualTo("Driver");
+        assertThat(tenant.localizedOf(Kind.STRUCT, "Driver")).isEqualTo("驾驶员");
+        // 原视图不受影响
+        assertThat(shared.contains(Kind.STRUCT, "车主")).isFalse();
+    }
+
+    @Test
+    @DisplayName("租户层可覆盖基础层的本地化名")
+    void testTenantOverride() {
+        CompactVocabulary delta = CompactVocabulary.builder("tenant-b")
+                .add(Kind.STRUCT, "Vehicle", "座驾", null, List.of())
+                .build();
+        LayeredVocabulary tenant = shared.withLayer(delta);
+
+        assertThat(tenant.localizedOf(Kind.STRUCT, "Vehicle")).isEqualTo("座驾");
+        assertThat(tenant.canonicalOf(Kind.STRUCT, "车辆")).isEqualTo("Vehicle");
+    }
+
+    @Test
+    @DisplayName("JSON 叠加层：省略 localized 的条目视为仅别名")
+    void testAliasOnlyJsonLayer() throws IOException {
+        String json = """
+                { "id": "tenant-c", "fields": [
+                  { "canonical": "creditScore", "parent": "Applicant", "aliases": ["芝麻分"] }
+                ] }
+                """;
+        CompactVocabulary delta = CompactVocabulary.fromJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        LayeredVocabulary tenant = shared.withLayer(delta);
+
+        assertThat(tenant.canonicalOf(Kind.FIELD, "芝麻分")).isEqualTo("creditScore");
+        assertThat(tenant.localizedOf(Kind.FIELD, "creditScore", "Applicant")).isEqualTo("信用评分");
+    }
+
+    @Test
+    @DisplayName("多租户共享同一基础层实例，内存只随增量增长")
+    void testMemoryGrowsWithDeltas() {
+        List<LayeredVocabulary> tenants = new ArrayList<>();
+        for (int t = 0; t < 100; t++) {
+            CompactVocabulary.Builder b = CompactVocabulary.builder("tenant-" + t);
+            for (int i = 0; i < 300; i++) {
+                b.addAliases(Kind.FIELD, "creditScore", "Applicant", List.of("租户" + t + "别名" + i));
+            }
+            tenants.add(shared.withLayer(b.build()));
+        }
+
+        for (LayeredVocabulary tenant : tenants) {
+            assertThat(tenant.bases().get(0)).isSameAs(BundledVocabularies.insuranceAuto());
+            assertThat(tenant.bases().get(1)).isSameAs(BundledVocabularies.financeLoan());
+        }
+        assertThat(tenants.get(42).canonicalOf(Kind.FIELD, "租户42别名7")).isEqualTo("creditScore");
+        assertThat(tenants.get(42).contains(Kind.FIELD, "租户41别名7")).isFalse();
+
+        // 独占内存只由 300 个增量别名决定（每个不超过 160 字节），与基础层大小无关
+        for (LayeredVocabulary tenant : tenants) {
+            assertThat(tenant.deltaFootprintBytes()).isLessThan(160L * 300);
+        }
+        assertThat(shared.deltaFootprintBytes()).isLessThan(64);
+    }
+
+    @Test
+    @DisplayName("多层叠加时上层优先")
+    void testLayerPrecedence() {
+        CompactVocabulary lower = CompactVocabulary.builder("lower")
+                .add(Kind.ENUM_VALUE, "Approved", "已批准", null, List.of()).build();
+        CompactVocabulary upper = CompactVocabulary.builder("upper")
+                .add(Kind.ENUM_VALUE, "Approved", "放行", null, List.of()).build();
+        LayeredVocabulary view = shared.withLayer(lower).withLayer(upper);
+
+        assertThat(view.layers()).hasSize(4);
+        assertThat(view.localizedOf(Kind.ENUM_VALUE, "Approved")).isEqualTo("放行");
+        assertThat(view.canonicalOf(Kind.ENUM_VALUE, "已批准")).isEqualTo("Approved");
+    }
+}
@@ -0,0 +1,167 @@
+package aster.lang.zh.vocabulary;
+
+import aster.core.identifier.DomainVocabulary;
+import aster.core.identifier.VocabularyPluginSupport;
+import aster.lang.zh.ZhCnPlugin;
+import aster.lang.zh.ZhCnResources;
+import aster.lang.zh.vocabulary.CompactVocabulary.Kind;
+import aster.lang.zh.vocabulary.VocabularyReloader.Snapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 词汇表热更新单元测试。
+ */
+@DisplayName("VocabularyReloader")
+class VocabularyReloaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("启动时同步加载目录中的全部词汇表")
+    void testInitialLoad() throws IOException {
+        write("demo", "Driver", "驾驶员");
+        try (var reloader = VocabularyReloader.compactVocabularies(dir).start()) {
+            Snapshot<CompactVocabulary> snapshot = reloader.current();
+            assertThat(snapshot.generation()).isEqualTo(1);
+            assertThat(snapshot.get("demo").canonicalOf(Kind.STRUCT, "驾驶员")).isEqualTo("Driver");
+        }
+    }
+
+    @Test
+    @DisplayName("文件变化后后台发布新快照，旧快照保持不变")
+    void testReloadOnChange() throws Exception {
+        write("demo", "Driver", "驾驶员");
+        try (var reloader = VocabularyReloader.compactVocabularies(dir).start()) {
+            Snapshot<CompactVocabulary> before = reloader.current();
+
+            write("demo", "Driver", "司机");
+            Snapshot<CompactVocabulary> after = awaitGeneration(reloader, before.generation() + 1);
+
+            assertThat(after.get("demo").canonicalOf(Kind.STRUCT, "司机")).isEqualTo("Driver");
+            // 进行中的读取方持有的旧快照不受影响
+            assertThat(before.get("demo").canonicalOf(Kind.STRUCT, "驾驶员")).isEqualTo("Driver");
+            assertThat(before.get("demo").canonicalOf(Kind.STRUCT, "司机")).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("手动 reload 处理新增与删除")
+    void testManualReload() throws IOException {
+        write("a", "A", "甲");
+        try (var reloader = VocabularyReloader.compactVocabularies(dir).start()) {
+            write("b", "B", "乙");
+            Files.delete(dir.resolve("a.json"));
+
+            Snapshot<CompactVocabulary> snapshot = reloader.reload();
+            assertThat(snapshot.vocabularies()).containsOnlyKeys("b");
+        }
+    }
+
+    @Test
+    @DisplayName("解析失败时保留旧快照、不递增代数、不通知监听者，并报告错误")
+    void testKeepPreviousOnError() throws IOException {
+        write("demo", "Driver", "驾驶员");
+        var errors = new CopyOnWriteArrayList<Path>();
+        var reloads = new CopyOnWriteArrayList<Long>();
+        try (var reloader = VocabularyReloader.compactVocabularies(dir)
+                .onError((file, e) -> errors.add(file))
+                .onReload(snapshot -> reloads.add(snapshot.generation()))
+                .start()) {
+            Snapshot<CompactVocabulary> before = reloader.current();
+            Files.writeString(dir.resolve("demo.json"), "{ \"structs\": [", StandardCharsets.UTF_8);
+
+            Snapshot<CompactVocabulary> snapshot = reloader.reload();
+            assertThat(errors).contains(dir.resolve("demo.json"));
+            assertThat(snapshot).isSameAs(before);
+            assertThat(reloads).containsExactly(1L);
+            assertThat(snapshot.get("demo").canonicalOf(Kind.STRUCT, "驾驶员")).isEqualTo("Driver");
+        }
+    }
+
+    @Test
+    @DisplayName("内容未变化的文件不发布新快照")
+    void testNoPublishWithoutChange() throws IOException {
+        write("demo", "Driver", "驾驶员");
+        try (var reloader = VocabularyReloader.of(dir, Files::readString).start()) {
+            Snapshot<String> before = reloader.current();
+            write("demo", "Driver", "驾驶员");
+
+            assertThat(reloader.reload()).isSameAs(before);
+            assertThat(reloader.current().generation()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("ZhCnPlugin.watchVocabularies 加载的内置词汇表与 core 加载器结果一致，修改后重新加载")
+    void testWatchBundledVocabulary() throws Exception {
+        String name = "insurance-auto-zh-CN";
+        String json;
+        try (InputStream in = ZhCnPlugin.class.getClassLoader().getResourceAsStream(BundledVocabularies.INSURANCE_AUTO)) {
+            assertThat(in).isNotNull();
+            json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        DomainVocabulary expected = VocabularyPluginSupport.loadVocabulary(ZhCnPlugin.class, BundledVocabularies.INSURANCE_AUTO);
+        replace(name, json);
+
+        try (VocabularyReloader<DomainVocabulary> reloader = ZhCnPlugin.watchVocabularies(dir)) {
+            Snapshot<DomainVocabulary> before = reloader.current();
+            assertThat(before.get(name)).isEqualTo(expected);
+
+            replace(name, json.replace("\"name\": \"汽车保险\"", "\"name\": \"机动车保险\""));
+            Snapshot<DomainVocabulary> after = awaitGeneration(reloader, before.generation() + 1);
+
+            assertThat(after.get(name)).isNotEqualTo(expected);
+            assertThat(after.get(name)).usingRecursiveComparison().ignoringFields("name").isEqualTo(expected);
+            assertThat(before.get(name)).isEqualTo(expected);
+            // 插件的词汇表入口取活动监听器的当前快照
+            assertThat(new ZhCnPlugin().createVocabulary()).isSameAs(after.get(name));
+            assertThat(new ZhCnPlugin().getVocabularies()).containsExactly(ZhCnResources.financeLoan());
+        }
+        // 关闭后回退到内置词汇表
+        assertThat(new ZhCnPlugin().createVocabulary()).isSameAs(ZhCnResources.insuranceAuto());
+    }
+
+    private void write(String name, String canonical, String localized) throws IOException {
+        String json = """
+                {
+                  "id": "%s",
+                  "locale": "zh-CN",
+                  "structs": [ { "canonical": "%s", "localized": "%s" } ]
+                }
+                """.formatted(name, canonical, localized);
+        replace(name, json);
+    }
+
+    private void replace(String name, String json) throws IOException {
+        // 先写临时文件再移动，避免监听线程读到半写入内容
+        Path tmp = Files.writeString(dir.resolve(name + ".tmp"), json, StandardCharsets.UTF_8);
+        Files.move(tmp, dir.resolve(name + ".json"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static <T> Snapshot<T> awaitGeneration(
+            VocabularyReloader<T> reloader, long generation) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            Snapshot<T> snapshot = reloader.current();
+            if (snapshot.generation() >= generation) {
+                return snapshot;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("未在超时内发布第 " + generation + " 代快照");
+    }
+}
@@ -0,0 +1,150 @@
+package aster.lang.zh.vocabulary;
+
+import aster.lang.zh.vocabulary.CompactVocabulary.Kind;
+import aster.lang.zh.vocabulary.VocabularySelector.Match;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 词汇表草图与自动挑选单元测试。
+ */
+@DisplayName("VocabularySelector")
+class VocabularySelectorTest {
+
+    private static final String INSURANCE_MODULE = """
+            模块 保险.汽车。
+            规则 计算保费 给定 驾驶员、车辆，产出：
+              如果 驾驶员的驾龄 小于 2 并且 车辆的安全评分 小于 60，返回 报价结果.高风险。
+              返回 报价结果.低风险。
+            """;
+
+    private static final String LOAN_MODULE = """
+            模块 金融.贷款。
+            规则 评估贷款 给定 申请人，产出：
+              如果 申请人.信用评分 大于 700 并且 申请人.负债率 小于 40，返回 审批结果.批准。
+              返回 审批结果.拒绝。
+            """;
+
+    @Test
+    @DisplayName("按文档内容挑选相关的内置词汇表")
+    void testSelectsBundledVocabulary() {
+        VocabularySelector selector = VocabularySelector.bundled();
+
+        List<Match> insurance = selector.rank(INSURANCE_MODULE);
+        assertThat(insurance).isNotEmpty();
+        assertThat(insurance.get(0).name()).isEqualTo("insurance.auto");
+
+        List<Match> loan = selector.rank(LOAN_MODULE);
+        assertThat(loan.get(0).name()).isEqualTo("finance.loan");
+        assertThat(selector.layered(LOAN_MODULE).orElseThrow().canonicalOf(Kind.STRUCT, "申请人"))
+                .isEqualTo("Applicant");
+
+        assertThat(selector.rank("模块 演示。\n规则 问候，产出：返回 「你好」。\n")).isEmpty();
+        assertThat(selector.layered("Module demo.")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("只加载入选的私有词汇表")
+    void testLoadsOnlySelected() {
+        AtomicInteger hrLoads = new AtomicInteger();
+        AtomicInteger medicalLoads = new AtomicInteger();
+        VocabularySelector selector = VocabularySelector.builder()
+                .add("hr", VocabularySketch.of(List.of("员工", "入职日期", "绩效等级")),
+                        counting(hrLoads, "hr", "Employee", "员工"))
+                .add("medical", VocabularySketch.of(List.of("患者", "诊断结果", "处方药品")),
+                        counting(medicalLoads, "medical", "Patient", "患者"))
+                .maxSelected(1)
+                .build();
+
+        String document = "规则 评估 给定 员工，产出：如果 员工的绩效等级 等于 1 并且 员工的入职日期 早于 今天，返回 真值。";
+        assertThat(selector.rank(document)).extracting(Match::name).containsExactly("hr");
+        assertThat(hrLoads).hasValue(0);
+
+        List<CompactVocabulary> selected = selector.select(document);
+        selector.select(document);
+        assertThat(selected).extracting(CompactVocabulary::id).containsExactly("hr");
+        assertThat(hrLoads).hasValue(1);
+        assertThat(medicalLoads).hasValue(0);
+        assertThat(selector.isLoaded("medical")).isFalse();
+    }
+
+    @Test
+    @DisplayName("草图无假阴性、假阳性率约 1%，可序列化往返")
+    void testSketchAccuracy() {
+        SplittableRandom random = new SplittableRandom(47);
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            terms.add(han(random, 2 + random.nextInt(4)));
+        }
+        VocabularySketch sketch = VocabularySketch.fromBytes(VocabularySketch.of(terms).toBytes());
+
+        VocabularySketch.IntSet inserted = new VocabularySketch.IntSet();
+        for (String term : terms) {
+            for (int i = 1; i < term.length(); i++) {
+                assertThat(sketch.mightContain(term.charAt(i - 1), term.charAt(i))).isTrue();
+                inserted.add(VocabularySketch.key(term.charAt(i - 1), term.charAt(i)));
+            }
+        }
+        int probes = 0;
+        int falsePositives = 0;
+        while (probes < 100_000) {
+            String pair = han(random, 2);
+            if (inserted.add(VocabularySketch.key(pair.charAt(0), pair.charAt(1)))) {
+                probes++;
+                falsePositives += sketch.mightContain(pair.charAt(0), pair.charAt(1)) ? 1 : 0;
+            }
+        }
+        assertThat(falsePositives / (double) probes).isLessThan(0.02);
+        assertThat(sketch.sizeBytes()).isLessThanOrEqualTo(sketch.bigramCount() * VocabularySketch.BITS_PER_BIGRAM / 8 + 8);
+        assertThatThrownBy(() -> VocabularySketch.fromBytes(new byte[]{1, 2, 3}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("大型无关文档的假阳性命中不会让词汇表入选")
+    void testLargeUnrelatedDocument() {
+        SplittableRandom random = new SplittableRandom(4701);
+        StringBuilder document = new StringBuilder();
+        for (int line = 0; line < 2000; line++) {
+            document.append("  令 ").append(han(random, 6)).append(" 定义为 ").append(han(random, 4)).append("。\n");
+        }
+        VocabularySelector selector = VocabularySelector.bundled();
+
+        // 固定阈值 2 时，每个草图都会因假阳性命中而入选
+        VocabularySketch.IntSet bigrams = new VocabularySketch.IntSet();
+        VocabularySketch.forEachBigram(document, 0, document.length(), bigrams::add);
+        VocabularySketch sketch = VocabularySketch.of(BundledVocabularies.all().get(0));
+        int[] falseHits = new int[1];
+        bigrams.forEach(key -> falseHits[0] += sketch.mightContain(key) ? 1 : 0);
+        assertThat(falseHits[0]).isGreaterThan(2);
+        assertThat(selector.threshold(bigrams.size(), sketch.falsePositiveRate())).isGreaterThan(falseHits[0]);
+
+        assertThat(selector.rank(document)).isEmpty();
+        assertThat(selector.rank(INSURANCE_MODULE)).extracting(Match::name).startsWith("insurance.auto");
+    }
+
+    private static Supplier<CompactVocabulary> counting(
+            AtomicInteger loads, String id, String canonical, String localized) {
+        return () -> {
+            loads.incrementAndGet();
+            return CompactVocabulary.builder(id).add(Kind.STRUCT, canonical, localized, null, List.of()).build();
+        };
+    }
+
+    private static String han(SplittableRandom random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) (0x4E00 + random.nextInt(0x5000)));
+        }
+        return sb.toString();
+    }
+}
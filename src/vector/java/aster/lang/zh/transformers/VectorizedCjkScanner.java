@@ -0,0 +1,72 @@
+package aster.lang.zh.transformers;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link CjkScanner} 的 Vector API 实现。
+ * <p>
+ * 位于单独的 {@code vector} 源码集，只有这里的编译需要 {@code --add-modules jdk.incubator.vector}。
+ * {@link CjkScanner} 在确认该模块已加载后才按类名反射创建实例，因此缺少该模块的运行环境不会加载本类。
+ */
+final class VectorizedCjkScanner implements CjkScanner.Kernel {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    private static final short PERIOD = (short) '。';
+    private static final short COMMA = (short) '，';
+    private static final short COLON = (short) '：';
+    private static final short ENUM_COMMA = (short) '、';
+    private static final short CJK_START = (short) CjkScanner.CJK_START;
+
+    VectorizedCjkScanner() {}
+
+    @Override
+    public int lanes() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public int indexOfPunctuation(char[] chars, int from, int to) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; i < bound; i += SPECIES.length()) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, chars, i);
+            VectorMask<Short> hit = v.eq(PERIOD).or(v.eq(COMMA)).or(v.eq(COLON)).or(v.eq(ENUM_COMMA));
+            if (hit.anyTrue()) {
+                return i + hit.firstTrue();
+            }
+        }
+        for (; i < to; i++) {
+            if (CjkScanner.isPunctuation(chars[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 查找第一个 {@code >= U+2E80} 的字符。short 为有符号数，U+8000 以上的字符表现为负数，
+     * 因此条件是 {@code v >= 0x2E80 || v < 0}。
+     */
+    @Override
+    public int indexOfCjk(char[] chars, int from, int to) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; i < bound; i += SPECIES.length()) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, chars, i);
+            VectorMask<Short> hit = v.compare(VectorOperators.GE, CJK_START).or(v.compare(VectorOperators.LT, (short) 0));
+            if (hit.anyTrue()) {
+                return i + hit.firstTrue();
+            }
+        }
+        for (; i < to; i++) {
+            if (CjkScanner.isCjk(chars[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}